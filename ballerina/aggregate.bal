@@ -0,0 +1,41 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+# Marks a numeric field of an entity as a measure, which can be aggregated with the `SUM`, `MIN`, `MAX` and `AVG`
+# functions. The compiler plugin validates that the field is of the `int`, `float` or `decimal` type.
+public annotation Measure on record field;
+
+# Represents the aggregate functions, which are executed in the datastore.
+public enum AggregateFunction {
+    COUNT,
+    SUM,
+    MIN,
+    MAX,
+    AVG
+}
+
+# Represents an aggregation of the records of an entity.
+#
+# + 'function - The aggregate function
+# + 'field - The field to aggregate. It is optional for `COUNT`, which then counts the records
+# + alias - The name of the aggregated value in the result rows. Defaults to the lowercase function name followed by
+# the field name, e.g. `sumSalary`
+public type Aggregation record {|
+    AggregateFunction 'function;
+    string 'field?;
+    string alias?;
+|};
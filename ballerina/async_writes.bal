@@ -0,0 +1,86 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents the configuration of an asynchronous writer.
+#
+# + maxBatchSize - The maximum number of records inserted with a single batch insert
+# + lingerTime - The time in seconds for which a batch waits for more records before it is inserted
+# + queueCapacity - The maximum number of records queued or being inserted. An insert waits while the queue is full
+# + maxInFlightBatches - The maximum number of batches being inserted at a time. A single batch in flight inserts
+# the records in the order in which they are queued
+public type AsyncWriteConfig record {|
+    int maxBatchSize = 100;
+    decimal lingerTime = 0.01;
+    int queueCapacity = 10000;
+    int maxInFlightBatches = 2;
+|};
+
+# Represents the acknowledgement of an asynchronous insert, which completes once the record is inserted.
+public isolated class WriteReceipt {
+
+    # Waits until the record is inserted.
+    #
+    # + return - A `persist:Error` if the batch of the record fails to be inserted
+    public isolated function await() returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.AsyncWriter",
+        name: "awaitReceipt"
+    } external;
+}
+
+# Represents a writer, which inserts the records of an entity asynchronously in micro-batches.
+public isolated class AsyncWriter {
+
+    # Queues a record to be inserted. This waits while the queue of the writer is full.
+    #
+    # + value - The record to insert, which must be of the insert type of the writer
+    # + return - The receipt of the insert, or a `persist:Error` if the writer is closed, if the record is not of the
+    # insert type, or if this is called within a transaction
+    public isolated function insert(record {} value) returns WriteReceipt|Error = @java:Method {
+        'class: "io.ballerina.stdlib.persist.AsyncWriter"
+    } external;
+
+    # Inserts the queued records at once, and waits until all the records queued before the flush are inserted.
+    #
+    # + return - A `persist:Error` if any of these records fails to be inserted
+    public isolated function flush() returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.AsyncWriter"
+    } external;
+
+    # Flushes the queued records and closes the writer.
+    #
+    # + return - A `persist:Error` if any of the queued records fails to be inserted
+    public isolated function close() returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.AsyncWriter"
+    } external;
+}
+
+# Creates an asynchronous writer of an entity. The records queued with the writer are inserted in micro-batches on
+# separate strands, outside any transaction, and are acknowledged through receipts. Once a batch is inserted, the
+# sessions of its records read from the primaries for the read-your-writes window, and the records are written to
+# the cache tier of the entity with write-through, as with the direct inserts. The writer is not supported for a
+# sharded entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + insertType - The insert type of the entity, such as `WorkspaceInsert`, which the batches are created with
+# + config - The configuration of the writer
+# + return - The writer, or a `persist:Error` if the entity does not exist in the client or is sharded
+public isolated function createAsyncWriter(AbstractPersistClient 'client, string entity,
+        typedesc<record {}> insertType, AsyncWriteConfig config = {}) returns AsyncWriter|Error = @java:Method {
+    'class: "io.ballerina.stdlib.persist.AsyncWriter"
+} external;
@@ -0,0 +1,289 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# The maximum number of statements kept in the statement cache. The cache is disabled if the value is not positive.
+configurable int statementCacheCapacity = 512;
+
+# Represents the statistics of a cache.
+#
+# + hits - The number of lookups, which found a cached entry
+# + misses - The number of lookups, which did not find a cached entry
+# + evictions - The number of entries evicted to keep the cache within its bounds
+public type CacheStats record {|
+    int hits;
+    int misses;
+    int evictions;
+|};
+
+# Retrieves the statement cached for the given entity and projection shape.
+#
+# + entity - The name of the entity
+# + fields - The fields array of the target type. This is compared by identity
+# + include - The relations included in the target type
+# + keyFields - The key fields of the entity
+# + return - The cached statement or `()` if there is no cached statement
+public isolated function getCachedStatement(string entity, string[] fields, string[] include, string[] keyFields)
+    returns string? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache",
+    name: "getStatement"
+} external;
+
+# Caches the statement built for the given entity and projection shape.
+#
+# + entity - The name of the entity
+# + fields - The fields array of the target type. This is compared by identity
+# + include - The relations included in the target type
+# + keyFields - The key fields of the entity
+# + statement - The statement to cache
+public isolated function cacheStatement(string entity, string[] fields, string[] include, string[] keyFields,
+        string statement) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache",
+    name: "putStatement"
+} external;
+
+# Retrieves the update statement cached for the given entity and changed fields.
+#
+# + entity - The name of the entity
+# + fields - The changed fields, in the order in which the values are bound to the statement. The same fields in a
+# different order do not share the statement
+# + return - The cached statement or `()` if there is no cached statement
+public isolated function getCachedUpdateStatement(string entity, string[] fields) returns string? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache",
+    name: "getUpdateStatement"
+} external;
+
+# Caches the update statement built for the given entity and changed fields.
+#
+# + entity - The name of the entity
+# + fields - The changed fields, in the order in which the values are bound to the statement
+# + statement - The statement to cache
+public isolated function cacheUpdateStatement(string entity, string[] fields, string statement) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache",
+    name: "putUpdateStatement"
+} external;
+
+# Retrieves the hit, miss and eviction counts of the statement cache.
+#
+# + return - The statistics of the statement cache
+public isolated function getStatementCacheStats() returns CacheStats = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache"
+} external;
+
+isolated function initStatementCache(int capacity) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.StatementCache",
+    name: "init"
+} external;
+
+# Represents the configuration of the second-level cache of an entity.
+#
+# + maxEntries - The maximum number of records cached. The cache is disabled if neither bound is positive
+# + maxBytes - The maximum estimated size of the cached records in bytes. If provided, the cache is bounded by the
+# size of the records instead of their count
+public type EntityCacheConfig record {|
+    int maxEntries = 10000;
+    int maxBytes?;
+|};
+
+# Configures the second-level cache of an entity, which is looked up before reading a record by its key. Records are
+# not read from the cache within transactions. The records of an entity, which owns a relation annotated with a
+# cascading `@persist:Cascade`, cannot be cached, as the records deleted by the cascade are not removed from the cache.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + entityType - The type of the entity
+# + config - The configuration of the cache
+# + return - A `persist:Error` if the entity does not exist in the client, or if its records are deleted by a cascade
+public isolated function configureEntityCache(AbstractPersistClient 'client, string entity,
+        typedesc<record {}> entityType, EntityCacheConfig config = {}) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.EntityCache"
+} external;
+
+# Removes the record with the given key from the second-level cache of an entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + key - The key of the record
+public isolated function invalidateEntityCache(AbstractPersistClient 'client, string entity, anydata key) =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.EntityCache"
+} external;
+
+# Retrieves the hit, miss and eviction counts of the second-level cache of an entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + return - The statistics of the cache or `()` if the cache is not configured
+public isolated function getEntityCacheStats(AbstractPersistClient 'client, string entity) returns CacheStats? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.EntityCache"
+} external;
+
+# Inserts the given records and invalidates the cached stream results of the entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + data - The records to insert
+# + return - A `persist:Error` if the insertion fails
+public isolated function insertRecords(AbstractPersistClient 'client, string entity, record {}[] data)
+    returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.QueryProcessor",
+    name: "insert"
+} external;
+
+# Updates the record with the given key and removes it from the caches of the entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + key - The key of the record
+# + value - The values of the fields to update
+# + return - A `persist:Error` if the update fails
+public isolated function updateRecord(AbstractPersistClient 'client, string entity, anydata key, record {} value)
+    returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.QueryProcessor",
+    name: "update"
+} external;
+
+# Deletes the record with the given key and removes it from the caches of the entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + key - The key of the record
+# + return - A `persist:Error` if the deletion fails
+public isolated function deleteRecord(AbstractPersistClient 'client, string entity, anydata key) returns Error? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.QueryProcessor",
+    name: "delete"
+} external;
+
+# Represents the configuration of the cache of the stream results of an entity.
+#
+# + ttl - The time in seconds for which a cached result is served
+# + maxEntries - The maximum number of results cached for the entity. The cache is disabled if the value is not
+# positive
+public type ResultCacheConfig record {|
+    decimal ttl = 30;
+    int maxEntries = 100;
+|};
+
+# Represents a stream read, which was not found in the result cache. This is passed back when caching the result.
+#
+# + version - The version of the cache when the read started
+public type CacheMiss record {|
+    int version;
+|};
+
+# Configures the cache of the stream results of an entity. A cached result is invalidated when its TTL expires or
+# when the entity or any of the entities it includes is written through the client. The results of an entity, which
+# owns a relation annotated with a cascading `@persist:Cascade`, cannot be cached, as the records deleted by the
+# cascade are not written through the client.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + entityType - The type of the entity
+# + config - The configuration of the cache
+# + return - A `persist:Error` if the entity does not exist in the client, or if its records are deleted by a cascade
+public isolated function configureResultCache(AbstractPersistClient 'client, string entity,
+        typedesc<record {}> entityType, ResultCacheConfig config = {}) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.ResultCache"
+} external;
+
+# Retrieves the cached result of a stream read. Results are not read from the cache within transactions.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + filterKey - A key, which identifies the filter of the read, as built by the datastore
+# + targetType - The target type of the read
+# + return - A stream replaying the cached result, or a `persist:CacheMiss` if there is no valid cached result
+public isolated function getCachedResult(AbstractPersistClient 'client, string entity, string filterKey,
+        typedesc<record {}> targetType = <>) returns stream<targetType, Error?>|CacheMiss = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.ResultCache"
+} external;
+
+# Caches the result of a stream read, unless the entity has been written after the read started. The rows are
+# frozen and must not be modified afterwards if they are cached, and are returned as they are otherwise, such as when
+# no result cache is configured for the entity or within transactions.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + filterKey - A key, which identifies the filter of the read, as built by the datastore
+# + rows - The rows of the result
+# + cacheMiss - The `persist:CacheMiss` returned when looking up the result
+# + targetType - The target type of the read
+# + return - A stream of the rows
+public isolated function cacheResult(AbstractPersistClient 'client, string entity, string filterKey, record {}[] rows,
+        CacheMiss cacheMiss, typedesc<record {}> targetType = <>) returns stream<targetType, Error?> = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.ResultCache"
+} external;
+
+# Invalidates the cached stream results, which depend on the given entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+public isolated function invalidateResultCache(AbstractPersistClient 'client, string entity) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.ResultCache"
+} external;
+
+# Retrieves the hit, miss and eviction counts of the cache of the stream results of an entity.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + return - The statistics of the cache or `()` if the cache is not configured
+public isolated function getResultCacheStats(AbstractPersistClient 'client, string entity) returns CacheStats? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.ResultCache"
+} external;
+
+# Iterates over the frozen rows of a cached result. A new iterator is created for every replay of the result.
+isolated class CachedResultIterator {
+    private final readonly & record {}[] rows;
+    private int index = 0;
+
+    isolated function init(readonly & record {}[] rows) {
+        self.rows = rows;
+    }
+
+    public isolated function next() returns record {|record {} value;|}|Error? {
+        lock {
+            if self.index >= self.rows.length() {
+                return;
+            }
+            record {} row = self.rows[self.index];
+            self.index += 1;
+            return {value: row};
+        }
+    }
+}
+
+# Iterates over the rows of a result, which is not cached.
+class ResultIterator {
+    private final record {}[] rows;
+    private int index = 0;
+
+    function init(record {}[] rows) {
+        self.rows = rows;
+    }
+
+    public function next() returns record {|record {} value;|}|Error? {
+        if self.index >= self.rows.length() {
+            return;
+        }
+        record {} row = self.rows[self.index];
+        self.index += 1;
+        return {value: row};
+    }
+}
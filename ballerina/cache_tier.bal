@@ -0,0 +1,51 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/jballerina.java;
+
+# Represents the policy of the Redis cache tier of an entity.
+#
+# + ttl - The time in seconds for which a record is kept in the cache tier
+# + readThrough - Whether a record read from the datastore is written to the cache tier
+# + writeThrough - Whether an inserted record is written to the cache tier
+public type CachePolicy record {|
+    int ttl = 300;
+    boolean readThrough = true;
+    boolean writeThrough = true;
+|};
+
+# Marks an entity of a SQL model, which is cached in a Redis cache tier, with the policy of the tier. The compiler
+# plugin validates that the types of the fields of the entity are supported by both the SQL datastore and Redis.
+public annotation CachePolicy Cached on type;
+
+# Configures a Redis cache tier in front of the datastore of an entity, with the policy of the `@persist:Cached`
+# annotation of the entity type. The reads by key outside transactions are served from the tier, and fall back to
+# the datastore if the record is not in the tier. The updated and the deleted records are removed from the tier
+# before the operations return, and again when their transaction commits. After a bulk update or delete, the tier is
+# bypassed for one TTL, as the changed records are not known. The cache tier is disabled if the tier client is `()`.
+#
+# + 'client - The persist client of the datastore
+# + entity - The resource name of the entity in the persist clients
+# + tierClient - The persist client of the Redis model of the entity
+# + entityType - The type of the entity, annotated with `@persist:Cached`. Only the records read as this type are
+# written to the tier on reads
+# + return - A `persist:Error` if the entity does not exist in the clients, if the entity type is not annotated with
+# `@persist:Cached`, if the records of the entity are deleted by a cascade, or if the TTL is not positive
+public isolated function configureCacheTier(AbstractPersistClient 'client, string entity,
+        AbstractPersistClient? tierClient, typedesc<record {}> entityType) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.CacheTier"
+} external;
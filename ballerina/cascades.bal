@@ -0,0 +1,39 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+# Represents the policy applied to the records of the owner of a relation when the record they refer to is deleted.
+#
+# + RESTRICT - The delete fails while records refer to the record
+# + CASCADE - The records referring to the record are deleted along with it
+public enum DeletePolicy {
+    RESTRICT,
+    CASCADE
+}
+
+# Represents the delete policy of a relation.
+#
+# + onDelete - The policy applied when the referred record is deleted
+public type CascadePolicy record {|
+    DeletePolicy onDelete = CASCADE;
+|};
+
+# Marks the relation field of the owner of a relation with the policy applied by the datastore when the referred
+# record is deleted. SQL datastores apply the policy with the foreign key of the relation, so that a delete costs a
+# single round trip. The records deleted by a cascade are not known to the client, hence they are not removed from
+# the caches and no changes are captured for them. The compiler plugin validates that the policy is set on the
+# relation field of the owner, and that the owner is not a cached entity, and an entity cache, a result cache or a
+# cache tier cannot be configured for the owner.
+public annotation CascadePolicy Cascade on record field;
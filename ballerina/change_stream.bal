@@ -0,0 +1,102 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents the kind of a change made to the records of an entity.
+public enum ChangeOperation {
+    INSERT,
+    UPDATE,
+    DELETE
+}
+
+# Represents a change made to the records of an entity by a write through a persist client.
+#
+# + entity - The resource name of the entity
+# + operation - The kind of the change
+# + key - The key of the changed record. This is `()` for the predicate based updates and deletes, which change
+# an unknown set of records, and publish a single change for all of them
+# + before - The record before the change, if it is known to the write, such as for `persist:updateChangedFields`
+# + after - The inserted record, or the fields written by an update
+public type ChangeEvent record {|
+    string entity;
+    ChangeOperation operation;
+    anydata key;
+    map<anydata>? before;
+    map<anydata>? after;
+|};
+
+# Represents the configuration of a change stream.
+#
+# + capacity - The maximum number of changes queued for a subscriber, including the changes of the open transactions.
+# The writes outside transactions, and the first write of a transaction, wait while a subscriber has no space for
+# their changes
+public type ChangeStreamConfig record {|
+    int capacity = 1000;
+|};
+
+# Represents a subscriber of the change stream of a persist client, which reads the changes in the order in which
+# the writes completed.
+public isolated class ChangeSubscription {
+
+    # Reads the next batch of changes. The queued changes are returned at once, otherwise the read waits for the
+    # next changes until the timeout.
+    #
+    # + maxEvents - The maximum number of changes returned
+    # + timeout - The time in seconds for which the read waits for changes
+    # + return - The changes, which are empty if no change is made before the timeout, or a `persist:Error` if the
+    # subscription is closed
+    public isolated function poll(int maxEvents = 100, decimal timeout = 1) returns ChangeEvent[]|Error =
+    @java:Method {
+        'class: "io.ballerina.stdlib.persist.changes.ChangeSubscription"
+    } external;
+
+    # Closes the subscription. A pending read returns no changes, and the changes queued for this subscriber which
+    # are not read yet are discarded. The writes are no longer held back by this subscriber.
+    public isolated function close() = @java:Method {
+        'class: "io.ballerina.stdlib.persist.changes.ChangeSubscription"
+    } external;
+}
+
+# Attaches a change stream to a persist client, which publishes the changes made by the inserts, updates and
+# deletes through the client to its subscribers. The changes made within a transaction are published when the
+# transaction commits, and are discarded if it rolls back.
+#
+# + 'client - The persist client
+# + config - The configuration of the stream
+# + return - A `persist:Error` if a change stream is already attached to the client
+public isolated function attachChangeStream(AbstractPersistClient 'client, ChangeStreamConfig config = {})
+        returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.ChangeStream"
+} external;
+
+# Closes the subscriptions and detaches the change stream from a persist client.
+#
+# + 'client - The persist client
+public isolated function detachChangeStream(AbstractPersistClient 'client) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.ChangeStream"
+} external;
+
+# Subscribes to the change stream of a persist client. A subscriber receives the changes made after it subscribed.
+#
+# + 'client - The persist client
+# + entities - The resource names of the entities of which the changes are received. The changes of all the
+# entities are received if this is empty
+# + return - The subscription or a `persist:Error` if a change stream is not attached to the client
+public isolated function subscribeChanges(AbstractPersistClient 'client, string[] entities = [])
+        returns ChangeSubscription|Error = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.ChangeStream"
+} external;
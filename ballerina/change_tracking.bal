@@ -0,0 +1,44 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/jballerina.java;
+
+# Retrieves the fields of a record, which are changed from the record as it was read. A field which is not in the
+# original record is considered changed, and a field which is not in the modified record is considered unchanged.
+#
+# + original - The record as it was read
+# + modified - The record with the changes applied
+# + return - The changed fields with their new values
+public isolated function getChangedFields(record {} original, record {} modified) returns map<anydata> =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.ChangeTracker"
+} external;
+
+# Updates only the fields of a record, which are changed from the record as it was read, and removes it from the
+# caches of the entity. The datastore is not called if no field is changed.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + key - The key of the record
+# + original - The record as it was read
+# + modified - The record with the changes applied
+# + return - A `persist:Error` if the update fails or if a key field is changed
+public isolated function updateChangedFields(AbstractPersistClient 'client, string entity, anydata key,
+        record {} original, record {} modified) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ChangeTracker",
+    name: "updateChanged"
+} external;
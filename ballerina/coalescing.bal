@@ -0,0 +1,57 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Whether the concurrent reads of the same record by its key share a single datastore call. Reads within
+# transactions are never coalesced.
+configurable boolean coalesceReads = true;
+
+# Retrieves the number of reads by key, which joined an in-flight read of the same record instead of calling the
+# datastore.
+#
+# + return - The number of coalesced reads
+public isolated function getCollapsedReadCount() returns int = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ReadCoalescer"
+} external;
+
+isolated function initReadCoalescer(boolean coalesceReads) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ReadCoalescer",
+    name: "init"
+} external;
+
+# Represents the configuration of the batch loading of the reads by key of an entity.
+#
+# + window - The time in seconds for which the reads are collected before they are dispatched as a single read
+# + maxBatchSize - The maximum number of distinct keys in a batch. A batch is dispatched as soon as it reaches this
+# size. Batch loading is disabled if the value is less than 2
+public type BatchLoadingConfig record {|
+    decimal window = 0.002;
+    int maxBatchSize = 100;
+|};
+
+# Configures the batch loading of the reads by key of an entity. The reads issued by different strands within the
+# window are dispatched to the datastore as a single read of multiple keys. Reads within transactions are not
+# batched.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + config - The configuration of the batch loading
+# + return - A `persist:Error` if the entity does not exist in the client
+public isolated function configureBatchLoading(AbstractPersistClient 'client, string entity,
+        BatchLoadingConfig config = {}) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.BatchLoader"
+} external;
@@ -14,6 +14,8 @@
 // specific language governing permissions and limitations
 // under the License.
 
+import ballerina/jballerina.java;
+
 # Defines the generic error type for the `persist` module.
 public type Error distinct error;
 
@@ -26,20 +28,18 @@ public type NotFoundError distinct Error;
 # Represents an error that occurs when the user attempts to create a record which already exists in the database.
 public type AlreadyExistsError distinct Error;
 
+# Represents an error that occurs when a versioned update finds that the record has been updated or deleted since it
+# was read.
+public type VersionConflictError distinct Error;
+
 # Generates a new `persist:NotFoundError` with the given parameters.
 #
 # + entity - The name of the entity  
 # + key - The key of the record
 # + return - The generated `persist:NotFoundError`
-public isolated function getNotFoundError(string entity, anydata key) returns NotFoundError {
-    string message;
-    if key is record {} {
-        message = string `A record with the key '${key.toBalString()}' does not exist for the entity '${entity}'.`;
-    } else {
-        message = string `A record with the key '${key.toString()}' does not exist for the entity '${entity}'.`;
-    }
-    return error NotFoundError(message);
-}
+public isolated function getNotFoundError(string entity, anydata key) returns NotFoundError = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ErrorGenerator"
+} external;
 
 # Generates a new `persist:AlreadyExistsError` with the given parameters.
 #
@@ -55,3 +55,14 @@ public isolated function getAlreadyExistsError(string entity, anydata key) retur
     }
     return error AlreadyExistsError(message);
 }
+
+# Generates a new `persist:VersionConflictError` with the given parameters.
+#
+# + entity - The name of the entity
+# + key - The key of the record
+# + expectedVersion - The version of the record when it was read
+# + return - The generated `persist:VersionConflictError`
+public isolated function getVersionConflictError(string entity, anydata key, int expectedVersion)
+    returns VersionConflictError = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ErrorGenerator"
+} external;
@@ -0,0 +1,58 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents a relation of an entity in a graph insert.
+#
+# + 'field - The name of the relation field in the nested records of the entity
+# + entity - The resource name of the related entity
+# + owner - Whether the records of the entity hold the foreign keys of the relation. Otherwise, the related records
+# hold them
+# + foreignKeys - The foreign key fields of the owner records, mapped to the identity fields of the referred records
+public type GraphRelation record {|
+    string 'field;
+    string entity;
+    boolean owner;
+    map<string> foreignKeys;
+|};
+
+# Represents an entity in a graph insert.
+#
+# + insertType - The type of the records inserted to the entity
+# + relations - The relations of the entity
+public type GraphEntity record {|
+    typedesc<record {}> insertType;
+    GraphRelation[] relations = [];
+|};
+
+# Inserts a record together with its nested related records. The records of each entity are inserted with a single
+# batch insert, after the records of the entities they refer to, and the foreign keys of the relations are copied
+# from the referred records. The inserts join the transaction of the caller, hence this should be called within a
+# transaction so that the graph is inserted atomically.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity of the record
+# + value - The record, with its related records nested in its relation fields
+# + model - The entities of the graph, by their resource names
+# + insertOrder - The resource names of the entities in the order in which their records are inserted, such as the
+# order generated from the persist model. The order is computed from the relations of the model if this is empty
+# + return - A `persist:Error` if the relations of the model form a cycle, if an entity of the graph is not in the
+# insert order, or if an insert fails
+public isolated function insertGraph(AbstractPersistClient 'client, string entity, record {} value,
+        map<GraphEntity> model, string[] insertOrder = []) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.GraphInsert"
+} external;
@@ -0,0 +1,101 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents a load of the related records of an included relation, which is independent of the other includes of
+# the same read.
+public type IncludeLoader isolated function () returns record {}[]|error;
+
+# Runs the loads of the independent includes of a read in parallel, and returns their results once all of them
+# complete, in the order of the loaders, so that the datastore attaches the related records before the rows are
+# returned. A load holds a permit of the datastore while it runs, which limits the number of concurrent loads of
+# the datastore across all the reads. The permit is released even if the loader panics. The loads are run one after
+# the other within transactions, as the parallel strands do not join the transaction, and within a load of the same
+# datastore, which holds a permit already, so that a nested read does not wait for a permit while holding one.
+#
+# + datastore - The name of the datastore, which the concurrency limit applies to
+# + loaders - The loads of the includes
+# + return - The records loaded by each loader, or a `persist:Error` if any of the loads fails or panics
+public isolated function loadIncludes(string datastore, IncludeLoader[] loaders) returns record {}[][]|Error {
+    record {}[][] results = [];
+    if transactional || loaders.length() < 2 || holdsIncludePermit(datastore) {
+        foreach IncludeLoader loader in loaders {
+            results.push(check runIncludeLoader(loader));
+        }
+        return results;
+    }
+    future<record {}[]|Error>[] loads = [];
+    foreach IncludeLoader loader in loaders {
+        future<record {}[]|Error> load = start loadInclude(datastore, loader);
+        loads.push(load);
+    }
+    Error? loadError = ();
+    foreach future<record {}[]|Error> load in loads {
+        // All the loads are awaited even after a failure, so that no load outlives the read
+        record {}[]|Error result = wait load;
+        if result is Error {
+            loadError = loadError ?: result;
+        } else {
+            results.push(result);
+        }
+    }
+    return loadError ?: results;
+}
+
+# Sets the maximum number of the includes of a datastore, which are loaded concurrently. The default is 4.
+#
+# + datastore - The name of the datastore
+# + maxConcurrency - The maximum number of concurrent loads
+# + return - A `persist:Error` if the maximum concurrency is not positive
+public isolated function configureIncludeConcurrency(string datastore, int maxConcurrency) returns Error? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.IncludeExecutor"
+} external;
+
+isolated function loadInclude(string datastore, IncludeLoader loader) returns record {}[]|Error {
+    acquireIncludePermit(datastore);
+    // The panic of a loader is trapped, so that the permit is always released
+    record {}[]|error result = trap runIncludeLoader(loader);
+    releaseIncludePermit(datastore);
+    if result is error && result !is Error {
+        return error Error(result.message(), result);
+    }
+    return result;
+}
+
+isolated function runIncludeLoader(IncludeLoader loader) returns record {}[]|Error {
+    record {}[]|error result = loader();
+    if result is Error {
+        return result;
+    }
+    if result is error {
+        return error Error(result.message(), result);
+    }
+    return result;
+}
+
+isolated function acquireIncludePermit(string datastore) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.IncludeExecutor"
+} external;
+
+isolated function releaseIncludePermit(string datastore) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.IncludeExecutor"
+} external;
+
+isolated function holdsIncludePermit(string datastore) returns boolean = @java:Method {
+    'class: "io.ballerina.stdlib.persist.IncludeExecutor"
+} external;
@@ -18,6 +18,9 @@ import ballerina/jballerina.java;
 
 isolated function init() {
     setModule();
+    initStatementCache(statementCacheCapacity);
+    initReadCoalescer(coalesceReads);
+    initMultiKeyRead(multiGetChunkSize);
 }
 
 isolated function setModule() = @java:Method {
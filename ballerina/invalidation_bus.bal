@@ -0,0 +1,104 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents an invalidation of the cached data of an entity, which is published to the other nodes.
+#
+# + entity - The resource name of the entity
+# + key - The string identifying the key of the invalidated record. All the records of the entity are invalidated if
+# this is not present
+# + resultsOnly - Whether only the cached stream results of the entity are invalidated
+public type Invalidation record {|
+    string entity;
+    string key?;
+    boolean resultsOnly = false;
+|};
+
+# Represents a transport, which carries the invalidations between the nodes. The invalidations received from the
+# other nodes should be applied with `persist:applyInvalidations`.
+public type InvalidationTransport isolated object {
+
+    # Publishes a batch of invalidations to the other nodes.
+    #
+    # + channel - The channel of the invalidation bus
+    # + invalidations - The invalidations
+    # + return - An error if the invalidations could not be published
+    public isolated function publish(string channel, Invalidation[] invalidations) returns error?;
+};
+
+# Represents the configuration of an invalidation bus.
+#
+# + channel - The channel shared by the clients of all the nodes
+# + flushInterval - The time in seconds for which the invalidations are collected before they are published
+# + maxKeysPerEntity - The maximum number of records of an entity invalidated individually in a batch. All the
+# records of the entity are invalidated instead if more records are written
+public type InvalidationBusConfig record {|
+    string channel;
+    decimal flushInterval = 0.05;
+    int maxKeysPerEntity = 100;
+|};
+
+# Represents the statistics of an invalidation bus.
+#
+# + publishedInvalidations - The number of invalidations published after coalescing
+# + publishedMessages - The number of batches published
+# + failedMessages - The number of batches, which the transport failed to publish
+# + receivedInvalidations - The number of invalidations received from the other nodes
+public type InvalidationBusStats record {|
+    int publishedInvalidations;
+    int publishedMessages;
+    int failedMessages;
+    int receivedInvalidations;
+|};
+
+# Attaches an invalidation bus to a persist client, which publishes the invalidations caused by the writes through
+# the client to the clients of the other nodes.
+#
+# + 'client - The persist client
+# + config - The configuration of the bus
+# + transport - The transport of the bus. If not provided, the invalidations are only delivered to the other clients
+# of the same channel in this process
+# + return - A `persist:Error` if an invalidation bus is already attached to the client
+public isolated function attachInvalidationBus(AbstractPersistClient 'client, InvalidationBusConfig config,
+        InvalidationTransport? transport = ()) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.InvalidationBus"
+} external;
+
+# Publishes the pending invalidations and detaches the invalidation bus from a persist client.
+#
+# + 'client - The persist client
+public isolated function detachInvalidationBus(AbstractPersistClient 'client) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.InvalidationBus"
+} external;
+
+# Applies the invalidations received from the other nodes to the caches of a persist client.
+#
+# + 'client - The persist client
+# + invalidations - The invalidations
+public isolated function applyInvalidations(AbstractPersistClient 'client, Invalidation[] invalidations) =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.InvalidationBus"
+} external;
+
+# Retrieves the statistics of the invalidation bus of a persist client.
+#
+# + 'client - The persist client
+# + return - The statistics of the bus or `()` if no bus is attached to the client
+public isolated function getInvalidationBusStats(AbstractPersistClient 'client) returns InvalidationBusStats? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.cache.InvalidationBus"
+} external;
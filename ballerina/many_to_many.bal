@@ -0,0 +1,65 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents the implicit join table of a many-to-many relation.
+#
+# + name - The name of the join table
+# + columns - The columns holding the identity fields of the entity, mapped to the identity fields
+# + relatedColumns - The columns holding the identity fields of the related entity, mapped to the identity fields
+public type JoinTable record {|
+    string name;
+    map<string> columns;
+    map<string> relatedColumns;
+|};
+
+# Returns the implicit join table of a many-to-many relation. The join table is named after the two entities in
+# alphabetical order, and each of its columns is named after an entity and one of its identity fields, so that both
+# sides of the relation, the SQL scripts and the datastores resolve the same table.
+#
+# + entity - The name of the entity type
+# + keyFields - The identity fields of the entity
+# + relatedEntity - The name of the related entity type
+# + relatedKeyFields - The identity fields of the related entity
+# + return - The join table
+public isolated function getJoinTable(string entity, string[] keyFields, string relatedEntity,
+        string[] relatedKeyFields) returns JoinTable {
+    return {
+        name: entity < relatedEntity ? entity + relatedEntity : relatedEntity + entity,
+        columns: getJoinColumns(entity, keyFields),
+        relatedColumns: getJoinColumns(relatedEntity, relatedKeyFields)
+    };
+}
+
+# Returns the included relations of a target type, which hold many records, so that a datastore can load each of
+# them, such as a many-to-many relation through its join table, with a single join query instead of sequential
+# reads.
+#
+# + targetType - The target type of a read
+# + return - The names of the relation fields
+public isolated function getManyIncludes(typedesc<record {}> targetType) returns string[] = @java:Method {
+    'class: "io.ballerina.stdlib.persist.Utils"
+} external;
+
+isolated function getJoinColumns(string entity, string[] keyFields) returns map<string> {
+    string prefix = entity.substring(0, 1).toLowerAscii() + entity.substring(1);
+    map<string> columns = {};
+    foreach string keyField in keyFields {
+        columns[prefix + keyField.substring(0, 1).toUpperAscii() + keyField.substring(1)] = keyField;
+    }
+    return columns;
+}
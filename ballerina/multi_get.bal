@@ -0,0 +1,25 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# The maximum number of keys read from the datastore with a single query when reading the records of multiple keys.
+configurable int multiGetChunkSize = 500;
+
+isolated function initMultiKeyRead(int chunkSize) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.MultiKeyRead",
+    name: "init"
+} external;
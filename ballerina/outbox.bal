@@ -0,0 +1,128 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Marks the outbox entity of a model. The entity must have the `readonly string id`, `string entity`,
+# `string operation`, `string key`, `string payload`, `int createdAt`, `int sequence`, `boolean processed` and
+# `int leasedUntil` fields, and no relation fields.
+public annotation Outbox on type;
+
+# Represents the configuration of an outbox.
+#
+# + batchSize - The maximum number of outbox records published together
+# + parallelism - The number of lanes, which publish the outbox records in parallel. The records of a key are always
+# published in order by the same lane
+# + leaseTime - The time in seconds for which a relay claims the records it publishes. The records, which are not
+# marked as processed by then, are claimed again by the next relay
+public type OutboxConfig record {|
+    int batchSize = 100;
+    int parallelism = 1;
+    decimal leaseTime = 60;
+|};
+
+# Represents a change recorded in the outbox.
+#
+# + id - The identifier of the outbox record
+# + entity - The resource name of the changed entity
+# + operation - The kind of the change, which is one of the `persist:ChangeOperation` values
+# + key - The key of the changed record as a JSON string
+# + payload - The record before and after the change as a JSON object with the `before` and `after` fields
+# + createdAt - The time at which the change is recorded, in milliseconds since the epoch
+# + sequence - The sequence of the change, which orders the changes of a key, including the changes recorded within
+# the same millisecond
+public type OutboxMessage record {|
+    string id;
+    string entity;
+    string operation;
+    string key;
+    string payload;
+    int createdAt;
+    int sequence;
+|};
+
+# Represents a publisher of the changes recorded in the outbox, such as a message broker client.
+public type OutboxPublisher isolated function (OutboxMessage[] messages) returns error?;
+
+# Configures the outbox of a persist client. The changes made within transactions through the client are inserted
+# into the outbox entity within the same transactions, so that they are recorded if and only if the transactions
+# commit. The changes made outside transactions are not recorded.
+#
+# + 'client - The persist client
+# + outboxEntity - The resource name of the outbox entity in the persist client
+# + outboxType - The type of the outbox entity
+# + config - The configuration of the outbox
+# + return - A `persist:Error` if the outbox entity does not exist in the client
+public isolated function configureOutbox(AbstractPersistClient 'client, string outboxEntity,
+        typedesc<record {}> outboxType, OutboxConfig config = {}) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.Outbox"
+} external;
+
+# Publishes a round of the unprocessed outbox records of a persist client. The records are claimed with a lease
+# through the `runClaimOutboxQuery` method of the datastore client, so that the relays running at the same time do
+# not publish the same records. The claimed records are published in the order of their sequence, in batches by the
+# parallel lanes. Each published batch is marked as processed with a single update. A lane stops at the first batch,
+# which fails to be published, so that the later changes of the same keys are not published ahead of it. The records
+# which are not marked are claimed again once the lease expires, hence a record may be published again if marking
+# it fails, or if it is not marked within the lease time. The changes of a key are only published in order if a
+# single relay runs at a time across all the nodes, as two relays may claim the records of the same key once a lease
+# expires.
+#
+# + 'client - The persist client
+# + publisher - The publisher of the outbox records
+# + return - The number of the published records, or a `persist:Error` if a batch fails to be read, published or
+# marked
+public function relayOutbox(AbstractPersistClient 'client, OutboxPublisher publisher) returns int|Error {
+    OutboxMessage[][][] lanes = check readOutbox('client);
+    future<int|Error>[] relays = [];
+    foreach OutboxMessage[][] lane in lanes {
+        future<int|Error> relay = start relayLane('client, lane, publisher);
+        relays.push(relay);
+    }
+    int published = 0;
+    Error? relayError = ();
+    foreach future<int|Error> relay in relays {
+        int|Error result = wait relay;
+        if result is Error {
+            relayError = result;
+        } else {
+            published += result;
+        }
+    }
+    return relayError ?: published;
+}
+
+function relayLane(AbstractPersistClient 'client, OutboxMessage[][] batches, OutboxPublisher publisher)
+        returns int|Error {
+    int published = 0;
+    foreach OutboxMessage[] batch in batches {
+        error? result = publisher(batch);
+        if result is error {
+            return error Error(result.message(), result);
+        }
+        check markOutboxProcessed('client, from OutboxMessage message in batch select message.id);
+        published += batch.length();
+    }
+    return published;
+}
+
+isolated function readOutbox(AbstractPersistClient 'client) returns OutboxMessage[][][]|Error = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.Outbox"
+} external;
+
+isolated function markOutboxProcessed(AbstractPersistClient 'client, string[] ids) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.changes.Outbox"
+} external;
@@ -0,0 +1,50 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/jballerina.java;
+
+# Represents the configuration of the read replicas of an entity.
+#
+# + readYourWritesWindow - The time in seconds for which the reads of a session are sent to the primary after a
+# write of the same session. This should cover the replication lag of the replicas
+public type ReplicaConfig record {|
+    decimal readYourWritesWindow = 5;
+|};
+
+# Configures the read replicas of an entity. The reads by key, the reads of multiple keys, the page reads and the
+# aggregations are sent to the replicas in a round-robin order, while the writes and the reads within transactions
+# are sent to the given client, which is the primary. The replicas are not used for a sharded entity. Replicas are
+# disabled if no replica is given.
+#
+# + 'client - The persist client of the primary
+# + entity - The resource name of the entity in the persist clients
+# + replicas - The persist clients of the replicas
+# + config - The configuration of the replicas
+# + return - A `persist:Error` if the entity does not exist in the client or in one of the replicas
+public isolated function configureReadReplicas(AbstractPersistClient 'client, string entity,
+        AbstractPersistClient[] replicas, ReplicaConfig config = {}) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ReplicaRouter"
+} external;
+
+# Binds a session token to the current strand, so that the reads of the strand are sent to the primary for the
+# read-your-writes window after a write with the same token. A token can be shared by the strands serving the same
+# user to read their own writes. The binding is removed if the token is `()`.
+#
+# + sessionToken - The session token
+public isolated function useSession(string? sessionToken) = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ReplicaRouter"
+} external;
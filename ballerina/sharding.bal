@@ -0,0 +1,82 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/jballerina.java;
+
+# Represents a scan of the records of an entity, which is run on each of its shards.
+public type ShardScan isolated function (AbstractPersistClient shard) returns stream<record {}, error?>;
+
+# Configures the sharding of an entity across multiple persist clients of the same model, which are bound to
+# different databases. The operations by key are routed to the shard of the key, which is picked from a consistent
+# hash ring of the shards. Keyset pagination, aggregations and predicate based bulk operations are not supported for
+# the sharded entities. Sharding is disabled if no shard is given.
+#
+# The records inserted together are grouped by shard and inserted one shard after the other. The shards are not
+# rolled back when the insert fails on a shard outside a transaction: the records of the shards inserted before the
+# failing one are kept, and the returned error reports the shards which were written. The keys must be assigned
+# before the records are inserted, as keys generated by the datastore, such as auto-incremented keys, cannot be
+# routed to a shard.
+#
+# + 'client - The persist client, through which the entity is accessed
+# + entity - The resource name of the entity in the persist clients
+# + shards - The persist clients of the shards
+# + virtualNodes - The number of points of each shard on the hash ring. More points spread the keys more evenly
+# + return - A `persist:Error` if the entity does not exist in the client or in one of the shards
+public isolated function configureSharding(AbstractPersistClient 'client, string entity,
+        AbstractPersistClient[] shards, int virtualNodes = 160) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.ShardRouter"
+} external;
+
+# Runs the given scan on all the shards of an entity in parallel, and merges the records read from the shards. The
+# scan is run on the given client if the entity is not sharded.
+#
+# + 'client - The persist client, through which the entity is accessed
+# + entity - The resource name of the entity in the persist clients
+# + scan - The scan to run on each of the shards
+# + return - The records read from all the shards, or a `persist:Error` if the scan fails on any of the shards
+public isolated function scanShards(AbstractPersistClient 'client, string entity, ShardScan scan)
+        returns record {}[]|Error {
+    AbstractPersistClient[]? shards = getShards('client, entity);
+    if shards is () {
+        return collectRecords(scan('client));
+    }
+    future<record {}[]|Error>[] scans = [];
+    foreach AbstractPersistClient shard in shards {
+        future<record {}[]|Error> shardScan = start collectRecords(scan(shard));
+        scans.push(shardScan);
+    }
+    record {}[] records = [];
+    foreach future<record {}[]|Error> shardScan in scans {
+        record {}[] shardRecords = check wait shardScan;
+        records.push(...shardRecords);
+    }
+    return records;
+}
+
+isolated function collectRecords(stream<record {}, error?> recordStream) returns record {}[]|Error {
+    record {}[]|error records = from record {} item in recordStream
+        select item;
+    if records is error {
+        return error Error(records.message(), records);
+    }
+    return records;
+}
+
+isolated function getShards(AbstractPersistClient 'client, string entity) returns AbstractPersistClient[]? =
+@java:Method {
+    'class: "io.ballerina.stdlib.persist.ShardRouter"
+} external;
@@ -0,0 +1,50 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testAggregationOfNumericField() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small", "budget": 10.5d}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    _ = check 'client->/workspaces/aggregate([{'function: SUM, 'field: "budget"}, {'function: COUNT}], ["type"]);
+    test:assertEquals(datastore.getCalls(), ["runAggregateQuery"]);
+}
+
+@test:Config {}
+function testAggregationOfNonNumericField() {
+    TestDatastoreClient datastore = new ();
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    map<anydata>[]|Error result = 'client->/workspaces/aggregate([{'function: SUM, 'field: "type"}]);
+    if result !is Error {
+        test:assertFail("Expected an error for the aggregation of a string field");
+    }
+    test:assertEquals(result.message(), "The field 'type' cannot be aggregated with 'SUM', as only 'int', " +
+        "'float' and 'decimal' fields can be aggregated.");
+    test:assertEquals(datastore.getCalls(), []);
+}
+
+@test:Config {}
+function testAggregationOfUnknownField() {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+
+    map<anydata>[]|Error countResult = 'client->/workspaces/aggregate([{'function: COUNT, 'field: "size"}]);
+    map<anydata>[]|Error groupResult = 'client->/workspaces/aggregate([{'function: COUNT}], ["size"]);
+    test:assertTrue(countResult is Error);
+    test:assertTrue(groupResult is Error);
+}
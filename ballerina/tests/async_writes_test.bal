@@ -0,0 +1,55 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+type Project record {|
+    int id;
+    string name;
+|};
+
+@test:Config {}
+function testFlushedInsertsAreReadFromPrimary() returns error? {
+    TestDatastoreClient primary = new ();
+    TestPersistClient 'client = new ({"workspaces": primary});
+    TestPersistClient replica = new ({"workspaces": new TestDatastoreClient()});
+    check configureReadReplicas('client, "workspaces", [replica]);
+    AsyncWriter writer = check createAsyncWriter('client, "workspaces", Workspace);
+
+    useSession("writer");
+    Workspace workspace = {id: 1, 'type: "small"};
+    _ = check writer.insert(workspace);
+    check writer.close();
+    // The replica has not received the record, so the session reads it from the primary
+    Workspace inserted = check 'client->/workspaces/[1];
+    test:assertEquals(inserted, workspace);
+    test:assertEquals(primary.getCalls(), ["runBatchInsertQuery", "runReadByKeyQuery"]);
+    useSession(());
+}
+
+@test:Config {}
+function testInsertOfAnotherTypeIsRejected() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    AsyncWriter writer = check createAsyncWriter('client, "workspaces", Workspace);
+
+    Project project = {id: 1, name: "persist"};
+    WriteReceipt|Error receipt = writer.insert(project);
+    if receipt !is Error {
+        test:assertFail("Expected a record of another type to be rejected");
+    }
+    test:assertEquals(receipt.message(), "The record is not of the insert type of the entity 'workspaces'.");
+    check writer.close();
+}
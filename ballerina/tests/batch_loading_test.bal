@@ -0,0 +1,55 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testBatchedReadsAreCompletedWhenRowsAreMissing() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "large"}
+    ], maxRowsPerRead = 1);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    // The long window leaves the dispatch to the batch reaching its maximum size
+    check configureBatchLoading('client, "workspaces", {window: 60, maxBatchSize: 2});
+
+    future<Workspace|Error> first = start readWorkspace('client, 1);
+    future<Workspace|Error> second = start readWorkspace('client, 2);
+    Workspace|Error firstResult = wait first;
+    Workspace|Error secondResult = wait second;
+    test:assertTrue(firstResult is Error);
+    test:assertTrue(secondResult is Error);
+    test:assertEquals(datastore.getCalls(), ["runReadByKeysQuery"]);
+}
+
+@test:Config {}
+function testBatchedReadOfMissingKey() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(records = [{"id": 1, "type": "small"}])});
+    check configureBatchLoading('client, "workspaces", {window: 60, maxBatchSize: 2});
+
+    future<Workspace|Error> first = start readWorkspace('client, 1);
+    future<Workspace|Error> second = start readWorkspace('client, 2);
+    test:assertEquals(check wait first, {id: 1, 'type: "small"});
+    Workspace|Error secondResult = wait second;
+    test:assertTrue(secondResult is NotFoundError);
+    if secondResult is NotFoundError {
+        test:assertEquals(secondResult.message(), getNotFoundError("workspaces", 2).message());
+    }
+}
+
+function readWorkspace(TestPersistClient 'client, int id) returns Workspace|Error {
+    return 'client->/workspaces/[id];
+}
@@ -0,0 +1,53 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testUpdateWhereIsDispatchedAsSingleOperation() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "small"},
+        {"id": 3, "type": "large"}
+    ]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    int count = check 'client->/workspaces.put({"type": "medium"}, {"type": "small"});
+    test:assertEquals(count, 2);
+    test:assertEquals(datastore.getCalls(), ["runUpdateWhereQuery"]);
+}
+
+@test:Config {}
+function testDeleteWhereIsDispatchedAsSingleOperation() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "large"}
+    ]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    int count = check 'client->/workspaces.delete({"type": "large"});
+    test:assertEquals(count, 1);
+    test:assertEquals(datastore.getCalls(), ["runDeleteWhereQuery"]);
+    test:assertEquals(datastore.getRecords(), [{"id": 1, "type": "small"}]);
+}
+
+@test:Config {}
+function testUpdateWhereOfUnknownEntity() {
+    TestPersistClient 'client = new ({});
+
+    int|Error result = 'client->/workspaces.put({"type": "medium"}, {"type": "small"});
+    test:assertTrue(result is Error);
+}
@@ -0,0 +1,54 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@Cached {ttl: 300, readThrough: false}
+type CachedWorkspace record {|
+    int id;
+    string 'type;
+|};
+
+@test:Config {}
+function testCacheTierRequiresCachedAnnotation() {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    TestPersistClient tier = new ({"workspaces": new TestDatastoreClient()});
+    Error? result = configureCacheTier('client, "workspaces", tier, Workspace);
+    if result !is Error {
+        test:assertFail("Expected an error for a type not annotated with @persist:Cached");
+    }
+    test:assertEquals(result.message(), "The type of the entity 'workspaces' must be annotated with " +
+            "'@persist:Cached' to configure a cache tier.");
+}
+
+@test:Config {}
+function testCacheTierIsBypassedAfterBulkUpdate() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    // The tier holds the record as it was before the bulk update
+    TestDatastoreClient tierDatastore = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    check configureCacheTier('client, "workspaces", new TestPersistClient({"workspaces": tierDatastore}),
+            CachedWorkspace);
+
+    CachedWorkspace cached = check 'client->/workspaces/[1];
+    test:assertEquals(cached.'type, "small");
+    test:assertEquals(tierDatastore.getCalls(), ["runReadByKeyQuery"]);
+
+    _ = check 'client->/workspaces.put({"type": "large"}, {"type": "small"});
+    CachedWorkspace updated = check 'client->/workspaces/[1];
+    test:assertEquals(updated.'type, "large");
+    test:assertEquals(tierDatastore.getCalls(), ["runReadByKeyQuery"]);
+}
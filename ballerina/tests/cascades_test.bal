@@ -0,0 +1,55 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+# An entity whose records are deleted along with the workspace they refer to.
+type Invoice record {|
+    readonly int id;
+    @Cascade
+    Workspace workspace;
+|};
+
+# An entity whose records keep the workspace they refer to from being deleted.
+type Note record {|
+    readonly int id;
+    @Cascade {onDelete: RESTRICT}
+    Workspace workspace;
+|};
+
+@test:Config {}
+function testCascadedEntityCannotBeCached() {
+    TestDatastoreClient invoices = new ();
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(), "invoices": invoices});
+
+    Error? entityCacheResult = configureEntityCache('client, "invoices", Invoice);
+    if entityCacheResult is () {
+        test:assertFail("Expected the entity cache of a cascaded entity to be rejected");
+    }
+    test:assertEquals(entityCacheResult.message(), "The entity 'invoices' cannot be cached, as its records are " +
+        "deleted by the cascade of the 'workspace' relation.");
+    test:assertTrue(configureResultCache('client, "invoices", Invoice) is Error);
+    test:assertEquals(getEntityCacheStats('client, "invoices"), ());
+}
+
+@test:Config {}
+function testRestrictedEntityCanBeCached() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(), "notes": new TestDatastoreClient()});
+
+    check configureEntityCache('client, "notes", Note);
+    check configureResultCache('client, "notes", Note);
+    test:assertEquals(getEntityCacheStats('client, "notes"), {hits: 0, misses: 0, evictions: 0});
+}
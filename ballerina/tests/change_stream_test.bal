@@ -0,0 +1,46 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime;
+import ballerina/test;
+
+@test:Config {}
+function testBulkChangesHaveNoKey() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}, {"id": 2, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    check attachChangeStream('client);
+    ChangeSubscription subscription = check subscribeChanges('client);
+
+    _ = check 'client->/workspaces.delete({"type": "small"});
+    ChangeEvent[] changes = check subscription.poll(timeout = 0);
+    test:assertEquals(changes, [{entity: "workspaces", operation: DELETE, key: (), before: (), after: ()}]);
+    detachChangeStream('client);
+}
+
+@test:Config {}
+function testCloseCompletesPendingReadWithNoChanges() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    check attachChangeStream('client);
+    ChangeSubscription subscription = check subscribeChanges('client);
+
+    future<ChangeEvent[]|Error> pendingRead = start subscription.poll(timeout = 10);
+    runtime:sleep(0.1);
+    subscription.close();
+    ChangeEvent[] changes = check wait pendingRead;
+    test:assertEquals(changes, []);
+    test:assertTrue(subscription.poll(timeout = 0) is Error);
+    detachChangeStream('client);
+}
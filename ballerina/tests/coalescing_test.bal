@@ -0,0 +1,67 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testConcurrentReadsShareDatastoreCall() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}], readDelay = 0.2);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    int collapsedReads = getCollapsedReadCount();
+
+    future<Workspace|Error> first = start readWorkspace('client, 1);
+    future<Workspace|Error> second = start readWorkspace('client, 1);
+    test:assertEquals(check wait first, {id: 1, 'type: "small"});
+    test:assertEquals(check wait second, {id: 1, 'type: "small"});
+    test:assertEquals(datastore.getCalls(), ["runReadByKeyQuery"]);
+    test:assertEquals(getCollapsedReadCount() - collapsedReads, 1);
+}
+
+@test:Config {}
+function testConcurrentReadsShareError() returns error? {
+    TestDatastoreClient datastore = new (readDelay = 0.2);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    future<Workspace|Error> first = start readWorkspace('client, 1);
+    future<Workspace|Error> second = start readWorkspace('client, 1);
+    Workspace|Error firstResult = wait first;
+    Workspace|Error secondResult = wait second;
+    test:assertTrue(firstResult is NotFoundError);
+    test:assertTrue(secondResult is NotFoundError);
+    test:assertEquals(datastore.getCalls(), ["runReadByKeyQuery"]);
+}
+
+@test:Config {}
+function testReadsInTransactionsAreNotCoalesced() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}], readDelay = 0.2);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    int collapsedReads = getCollapsedReadCount();
+
+    future<Workspace|error> first = start readWorkspaceInTransaction('client, 1);
+    future<Workspace|error> second = start readWorkspaceInTransaction('client, 1);
+    test:assertEquals(check wait first, {id: 1, 'type: "small"});
+    test:assertEquals(check wait second, {id: 1, 'type: "small"});
+    test:assertEquals(datastore.getCalls(), ["runReadByKeyQuery", "runReadByKeyQuery"]);
+    test:assertEquals(getCollapsedReadCount() - collapsedReads, 0);
+}
+
+function readWorkspaceInTransaction(TestPersistClient 'client, int id) returns Workspace|error {
+    transaction {
+        Workspace workspace = check 'client->/workspaces/[id];
+        check commit;
+        return workspace;
+    }
+}
@@ -0,0 +1,84 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/lang.runtime;
+import ballerina/test;
+
+@test:Config {}
+function testFrequentlyReadRecordIsKeptOverOnceReadRecords() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "medium"},
+        {"id": 3, "type": "large"}
+    ]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    check configureEntityCache('client, "workspaces", Workspace, {maxEntries: 2});
+
+    foreach int id in [1, 1, 1, 2] {
+        _ = check readWorkspace('client, id);
+    }
+    // The record read once is not admitted in place of the record read more often
+    _ = check readWorkspace('client, 3);
+    _ = check readWorkspace('client, 1);
+    _ = check readWorkspace('client, 2);
+    test:assertEquals(getEntityCacheStats('client, "workspaces"), {hits: 3, misses: 4, evictions: 2});
+    test:assertEquals(datastore.getCalls(),
+        ["runReadByKeyQuery", "runReadByKeyQuery", "runReadByKeyQuery", "runReadByKeyQuery"]);
+}
+
+@test:Config {}
+function testRecordReadBeforeWriteIsNotCached() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    check configureEntityCache('client, "workspaces", Workspace);
+    // The window delays the read, so that the record is updated after the read started
+    check configureBatchLoading('client, "workspaces", {window: 0.5});
+
+    future<Workspace|Error> read = start readWorkspace('client, 1);
+    runtime:sleep(0.1);
+    check updateRecord('client, "workspaces", 1, {"type": "large"});
+    test:assertEquals(check wait read, {id: 1, 'type: "large"});
+
+    // The record is read from the datastore again, as the read which started before the update did not cache it
+    test:assertEquals(check readWorkspace('client, 1), {id: 1, 'type: "large"});
+    test:assertEquals(getEntityCacheStats('client, "workspaces"), {hits: 0, misses: 2, evictions: 0});
+    test:assertEquals(datastore.getCalls(), ["runUpdateQuery", "runReadByKeysQuery", "runReadByKeysQuery"]);
+}
+
+@test:Config {}
+function testCachedRecordIsInvalidatedAtCommit() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    check configureEntityCache('client, "workspaces", Workspace);
+
+    future<error?> update = start updateInTransaction('client, 1, {"type": "large"});
+    runtime:sleep(0.2);
+    // The read outside the transaction caches the record while the transaction is in progress
+    _ = check readWorkspace('client, 1);
+    check wait update;
+
+    _ = check readWorkspace('client, 1);
+    test:assertEquals(getEntityCacheStats('client, "workspaces"), {hits: 0, misses: 2, evictions: 0});
+    test:assertEquals(datastore.getCalls(), ["runUpdateQuery", "runReadByKeyQuery", "runReadByKeyQuery"]);
+}
+
+function updateInTransaction(TestPersistClient 'client, int id, record {} value) returns error? {
+    transaction {
+        check updateRecord('client, "workspaces", id, value);
+        runtime:sleep(0.5);
+        check commit;
+    }
+}
@@ -0,0 +1,143 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+type AddressInsert record {|
+    int id;
+    string city;
+|};
+
+type CustomerInsert record {|
+    int id;
+    string name;
+    int addressId;
+|};
+
+type OrderInsert record {|
+    int id;
+    int customerId;
+    decimal amount;
+|};
+
+type EmployeeInsert record {|
+    int id;
+    int departmentId;
+|};
+
+type DepartmentInsert record {|
+    int id;
+    int managerId;
+|};
+
+// A customer owns the relation with its address, and an order owns the relation with its customer
+final map<GraphEntity> & readonly customerGraph = {
+    "addresses": {insertType: AddressInsert},
+    "customers": {
+        insertType: CustomerInsert,
+        relations: [
+            {'field: "address", entity: "addresses", owner: true, foreignKeys: {"addressId": "id"}},
+            {'field: "orders", entity: "orders", owner: false, foreignKeys: {"customerId": "id"}}
+        ]
+    },
+    "orders": {
+        insertType: OrderInsert,
+        relations: [{'field: "customer", entity: "customers", owner: true, foreignKeys: {"customerId": "id"}}]
+    }
+};
+
+final record {} & readonly customer = {
+    "id": 1,
+    "name": "alice",
+    "address": {"id": 10, "city": "Colombo"},
+    "orders": [{"id": 100, "amount": 10.5d}, {"id": 101, "amount": 20d}]
+};
+
+@test:Config {}
+function testGraphInsertCopiesForeignKeys() returns error? {
+    TestDatastoreClient addresses = new ();
+    TestDatastoreClient customers = new ();
+    TestDatastoreClient orders = new ();
+    TestPersistClient 'client = new ({"addresses": addresses, "customers": customers, "orders": orders});
+
+    check insertGraph('client, "customers", customer, customerGraph);
+
+    test:assertEquals(addresses.getRecords(), [{id: 10, city: "Colombo"}]);
+    test:assertEquals(customers.getRecords(), [{id: 1, name: "alice", addressId: 10}]);
+    test:assertEquals(orders.getRecords(), [
+        {id: 100, customerId: 1, amount: 10.5d},
+        {id: 101, customerId: 1, amount: 20d}
+    ]);
+    // The records of each entity are inserted with a single batch insert
+    test:assertEquals(addresses.getCalls(), ["runBatchInsertQuery"]);
+    test:assertEquals(customers.getCalls(), ["runBatchInsertQuery"]);
+    test:assertEquals(orders.getCalls(), ["runBatchInsertQuery"]);
+}
+
+@test:Config {}
+function testGraphInsertInsertsReferredRecordsFirst() returns error? {
+    // The insert of the address fails, hence the customer and the orders referring to it are not inserted
+    TestDatastoreClient addresses = new (records = [{"id": 10, "city": "Colombo"}]);
+    TestDatastoreClient customers = new ();
+    TestDatastoreClient orders = new ();
+    TestPersistClient 'client = new ({"addresses": addresses, "customers": customers, "orders": orders});
+
+    test:assertTrue(insertGraph('client, "customers", customer, customerGraph) is AlreadyExistsError);
+    test:assertEquals(addresses.getCalls(), ["runBatchInsertQuery"]);
+    test:assertEquals(customers.getCalls(), []);
+    test:assertEquals(orders.getCalls(), []);
+}
+
+@test:Config {}
+function testGraphInsertWithInsertOrder() returns error? {
+    TestDatastoreClient customers = new ();
+    TestPersistClient 'client = new ({
+        "addresses": new TestDatastoreClient(),
+        "customers": customers,
+        "orders": new TestDatastoreClient()
+    });
+
+    Error? result = insertGraph('client, "customers", customer, customerGraph, ["addresses", "customers"]);
+    if result is () {
+        test:assertFail("Expected the graph insert to fail as the orders are not in the insert order");
+    }
+    test:assertEquals(result.message(), "The entity 'orders' is not in the insert order of the graph.");
+    test:assertEquals(customers.getCalls(), []);
+}
+
+@test:Config {}
+function testGraphInsertRejectsOwnerCycle() {
+    TestDatastoreClient employees = new ();
+    TestPersistClient 'client = new ({"employees": employees, "departments": new TestDatastoreClient()});
+    map<GraphEntity> model = {
+        "employees": {
+            insertType: EmployeeInsert,
+            relations: [{'field: "department", entity: "departments", owner: true, foreignKeys: {"departmentId": "id"}}]
+        },
+        "departments": {
+            insertType: DepartmentInsert,
+            relations: [{'field: "manager", entity: "employees", owner: true, foreignKeys: {"managerId": "id"}}]
+        }
+    };
+
+    Error? result = insertGraph('client, "employees", {"id": 1, "department": {"id": 2, "managerId": 1}}, model);
+    if result is () {
+        test:assertFail("Expected the graph insert to fail on the cycle of the relation owners");
+    }
+    test:assertEquals(result.message(), "The relation owners of the entities form the cycle " +
+        "'employees -> departments -> employees', hence the graph cannot be inserted.");
+    test:assertEquals(employees.getCalls(), []);
+}
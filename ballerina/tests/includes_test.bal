@@ -0,0 +1,73 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testIncludesAreLoadedInOrderOfLoaders() returns error? {
+    final TestDatastoreClient small = new (records = [{"id": 1, "type": "small"}]);
+    final TestDatastoreClient large = new (records = [{"id": 2, "type": "large"}]);
+    check configureIncludeConcurrency("includes-order", 1);
+
+    record {}[][] results = check loadIncludes("includes-order", [
+        isolated function() returns record {}[]|error => small.getRecords(),
+        isolated function() returns record {}[]|error => large.getRecords()
+    ]);
+    test:assertEquals(results, [[{"id": 1, "type": "small"}], [{"id": 2, "type": "large"}]]);
+}
+
+@test:Config {}
+function testPanickingLoaderReleasesPermit() returns error? {
+    final TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    check configureIncludeConcurrency("includes-panic", 1);
+
+    record {}[][]|Error failed = loadIncludes("includes-panic", [
+        isolated function() returns record {}[]|error {
+            panic error("The loader failed");
+        },
+        isolated function() returns record {}[]|error => datastore.getRecords()
+    ]);
+    if failed !is Error {
+        test:assertFail("Expected the panic of the loader to be returned as an error");
+    }
+    test:assertEquals(failed.message(), "The loader failed");
+
+    // The only permit is released by the panicking load, otherwise these loads would wait for it forever
+    record {}[][] results = check loadIncludes("includes-panic", [
+        isolated function() returns record {}[]|error => datastore.getRecords(),
+        isolated function() returns record {}[]|error => datastore.getRecords()
+    ]);
+    test:assertEquals(results.length(), 2);
+}
+
+@test:Config {}
+function testNestedIncludesRunUnderPermitOfOuterLoad() returns error? {
+    final TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    check configureIncludeConcurrency("includes-nested", 1);
+    IncludeLoader nestedLoader = isolated function() returns record {}[]|error {
+        record {}[][] nested = check loadIncludes("includes-nested", [
+            isolated function() returns record {}[]|error => datastore.getRecords(),
+            isolated function() returns record {}[]|error => datastore.getRecords()
+        ]);
+        return [...nested[0], ...nested[1]];
+    };
+
+    record {}[][] results = check loadIncludes("includes-nested", [nestedLoader, nestedLoader]);
+    test:assertEquals(results, [
+        [{"id": 1, "type": "small"}, {"id": 1, "type": "small"}],
+        [{"id": 1, "type": "small"}, {"id": 1, "type": "small"}]
+    ]);
+}
@@ -0,0 +1,65 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testLoopbackDeliversToOtherNodes() returns error? {
+    // Each client stands for a node, and the long flush interval leaves the publishing to the detach
+    InvalidationBusConfig config = {channel: "loopback-nodes", flushInterval: 60};
+    TestPersistClient node1 = new ({"workspaces": new TestDatastoreClient(records = [{"id": 1, "type": "small"}])});
+    TestPersistClient node2 = new ({"workspaces": new TestDatastoreClient()});
+    TestPersistClient node3 = new ({"workspaces": new TestDatastoreClient()});
+    check attachInvalidationBus(node1, config);
+    check attachInvalidationBus(node2, config);
+    check attachInvalidationBus(node3, {channel: "loopback-other", flushInterval: 60});
+
+    check updateRecord(node1, "workspaces", 1, {"type": "large"});
+    check updateRecord(node1, "workspaces", 1, {"type": "medium"});
+    detachInvalidationBus(node1);
+
+    test:assertEquals(getInvalidationBusStats(node1), ());
+    InvalidationBusStats? node2Stats = getInvalidationBusStats(node2);
+    InvalidationBusStats? node3Stats = getInvalidationBusStats(node3);
+    test:assertEquals(node2Stats?.receivedInvalidations, 1);
+    test:assertEquals(node3Stats?.receivedInvalidations, 0);
+    detachInvalidationBus(node2);
+    detachInvalidationBus(node3);
+}
+
+@test:Config {}
+function testLoopbackCoalescesAndDoesNotEchoToOrigin() returns error? {
+    InvalidationBusConfig config = {channel: "loopback-origin", flushInterval: 60, maxKeysPerEntity: 1};
+    TestPersistClient node1 = new ({"workspaces": new TestDatastoreClient(records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "small"}
+    ])});
+    TestPersistClient node2 = new ({"workspaces": new TestDatastoreClient()});
+    check attachInvalidationBus(node1, config);
+    check attachInvalidationBus(node2, config);
+
+    check updateRecord(node1, "workspaces", 1, {"type": "large"});
+    check updateRecord(node1, "workspaces", 2, {"type": "large"});
+    InvalidationBusStats? node1Stats = getInvalidationBusStats(node1);
+    test:assertEquals(node1Stats?.publishedMessages, 0);
+    detachInvalidationBus(node1);
+
+    // The two keys exceed the limit, hence they are escalated to a single invalidation of the entity
+    InvalidationBusStats? node2Stats = getInvalidationBusStats(node2);
+    test:assertEquals(node2Stats?.receivedInvalidations, 1);
+    test:assertEquals(node2Stats?.publishedInvalidations, 0);
+    detachInvalidationBus(node2);
+}
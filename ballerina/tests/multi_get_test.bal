@@ -0,0 +1,61 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testMultiGetReturnsRecordsInKeyOrder() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "large"}
+    ])});
+
+    (Workspace?)[] workspaces = check 'client->/workspaces/many([2, 3, 1]);
+    test:assertEquals(workspaces, [{id: 2, 'type: "large"}, (), {id: 1, 'type: "small"}]);
+}
+
+@test:Config {}
+function testMultiGetFailsOnShortChunk() {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "large"}
+    ], maxRowsPerRead = 1)});
+
+    (Workspace?)[]|Error workspaces = 'client->/workspaces/many([1, 2]);
+    test:assertTrue(workspaces is Error);
+}
+
+@test:Config {}
+function testReadsOfUnknownEntity() {
+    TestPersistClient 'client = new ({});
+
+    Workspace|Error workspace = 'client->/workspaces/[1];
+    test:assertTrue(workspace is Error);
+    if workspace is Error {
+        test:assertEquals(workspace.message(), "The entity 'workspaces' does not exist in the client.");
+    }
+    (Workspace?)[]|Error workspaces = 'client->/workspaces/many([1, 2]);
+    test:assertTrue(workspaces is Error);
+}
+
+@test:Config {}
+function testWritesOfUnknownEntity() {
+    TestPersistClient 'client = new ({});
+
+    test:assertTrue(insertRecords('client, "workspaces", [{"id": 1, "type": "small"}]) is Error);
+    test:assertTrue(updateRecord('client, "workspaces", 1, {"type": "large"}) is Error);
+    test:assertTrue(deleteRecord('client, "workspaces", 1) is Error);
+}
@@ -0,0 +1,126 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+# The outbox entity of the tests.
+type OutboxEvent record {|
+    readonly string id;
+    string entity;
+    string operation;
+    string key;
+    string payload;
+    int createdAt;
+    int sequence;
+    boolean processed;
+    int leasedUntil;
+|};
+
+# Records the batches published by a relay.
+isolated class PublishedBatches {
+
+    private OutboxMessage[][] batches = [];
+
+    isolated function add(OutboxMessage[] batch) {
+        lock {
+            self.batches.push(batch.clone());
+        }
+    }
+
+    isolated function get() returns OutboxMessage[][] {
+        lock {
+            return self.batches.clone();
+        }
+    }
+}
+
+@test:Config {}
+function testOutboxCapturesOnlyWritesInTransactions() returns error? {
+    TestDatastoreClient outbox = new;
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(), "outboxevents": outbox});
+    check configureOutbox('client, "outboxevents", OutboxEvent);
+
+    check insertRecords('client, "workspaces", [{"id": 1, "type": "small"}]);
+    test:assertEquals(outbox.getRecords(), []);
+
+    transaction {
+        check insertRecords('client, "workspaces", [{"id": 2, "type": "small"}]);
+        check updateRecord('client, "workspaces", 2, {"type": "large"});
+        check commit;
+    }
+    OutboxEvent[] events = check outbox.getRecords().cloneWithType();
+    test:assertEquals(from OutboxEvent event in events order by event.sequence select [event.operation, event.key],
+            [["INSERT", "2"], ["UPDATE", "2"]]);
+    foreach OutboxEvent event in events {
+        test:assertEquals(event.entity, "workspaces");
+        test:assertFalse(event.processed);
+    }
+}
+
+@test:Config {}
+function testRelayOutboxPublishesLanesInBatches() returns error? {
+    TestDatastoreClient outbox = new;
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(), "outboxevents": outbox});
+    check configureOutbox('client, "outboxevents", OutboxEvent, {batchSize: 2, parallelism: 2});
+    transaction {
+        foreach int id in 1 ... 5 {
+            check insertRecords('client, "workspaces", [{"id": id, "type": "small"}]);
+        }
+        check updateRecord('client, "workspaces", 1, {"type": "large"});
+        check commit;
+    }
+
+    final PublishedBatches published = new;
+    int count = check relayOutbox('client, isolated function(OutboxMessage[] messages) returns error? {
+        published.add(messages);
+    });
+    test:assertEquals(count, 6);
+    OutboxMessage[][] batches = published.get();
+    int messageCount = 0;
+    string[] operationsOfKey = [];
+    foreach OutboxMessage[] batch in batches {
+        test:assertTrue(batch.length() <= 2);
+        messageCount += batch.length();
+        foreach OutboxMessage message in batch {
+            if message.key == "1" {
+                operationsOfKey.push(message.operation);
+            }
+        }
+    }
+    test:assertEquals(messageCount, 6);
+    // The changes of a key are published in order by the same lane
+    test:assertEquals(operationsOfKey, ["INSERT", "UPDATE"]);
+
+    // Each published batch is marked as processed with a single call
+    OutboxEvent[] events = check outbox.getRecords().cloneWithType();
+    foreach OutboxEvent event in events {
+        test:assertTrue(event.processed);
+    }
+    test:assertEquals(outbox.getCalls().filter(call => call == "runMarkOutboxQuery").length(), batches.length());
+    int relayed = check relayOutbox('client, isolated function(OutboxMessage[] messages) returns error? {
+        published.add(messages);
+    });
+    test:assertEquals(relayed, 0);
+}
+
+@test:Config {}
+function testRelayOutboxWithoutOutbox() {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+
+    int|Error result = relayOutbox('client, isolated function(OutboxMessage[] messages) returns error? {
+    });
+    test:assertTrue(result is Error);
+}
@@ -0,0 +1,85 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testPagesRoundTripThroughCursors() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 3, "type": "small"},
+        {"id": 1, "type": "small"},
+        {"id": 5, "type": "large"},
+        {"id": 2, "type": "large"},
+        {"id": 4, "type": "small"}
+    ]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    [Workspace[], string?] [workspaces, cursor] = check 'client->/workspaces/page(pageSize = 2);
+    test:assertEquals(workspaces, [{id: 1, 'type: "small"}, {id: 2, 'type: "large"}]);
+    test:assertTrue(cursor is string);
+    [workspaces, cursor] = check 'client->/workspaces/page(cursor, 2);
+    test:assertEquals(workspaces, [{id: 3, 'type: "small"}, {id: 4, 'type: "small"}]);
+    test:assertTrue(cursor is string);
+    [workspaces, cursor] = check 'client->/workspaces/page(cursor, 2);
+    test:assertEquals(workspaces, [{id: 5, 'type: "large"}]);
+    test:assertEquals(cursor, ());
+    test:assertEquals(datastore.getCalls(), ["runReadPageQuery", "runReadPageQuery", "runReadPageQuery"]);
+}
+
+@test:Config {}
+function testFullLastPageIsFollowedByEmptyPage() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "large"}
+    ])});
+
+    [Workspace[], string?] [workspaces, cursor] = check 'client->/workspaces/page(pageSize = 2);
+    test:assertEquals(workspaces.length(), 2);
+    test:assertTrue(cursor is string);
+    [workspaces, cursor] = check 'client->/workspaces/page(cursor, 2);
+    test:assertEquals(workspaces, []);
+    test:assertEquals(cursor, ());
+}
+
+@test:Config {}
+function testPagesOfCompositeKeys() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient(keyFields = ["type", "id"], records = [
+        {"id": 2, "type": "small"},
+        {"id": 2, "type": "large"},
+        {"id": 1, "type": "small"},
+        {"id": 1, "type": "large"}
+    ])});
+
+    [Workspace[], string?] [workspaces, cursor] = check 'client->/workspaces/page(pageSize = 3);
+    test:assertEquals(workspaces, [{id: 1, 'type: "large"}, {id: 2, 'type: "large"}, {id: 1, 'type: "small"}]);
+    test:assertTrue(cursor is string);
+    [workspaces, cursor] = check 'client->/workspaces/page(cursor, 3);
+    test:assertEquals(workspaces, [{id: 2, 'type: "small"}]);
+    test:assertEquals(cursor, ());
+}
+
+@test:Config {}
+function testMalformedCursor() {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    [Workspace[], string?]|Error page = 'client->/workspaces/page("not a cursor", 2);
+    test:assertTrue(page is Error);
+    if page is Error {
+        test:assertEquals(page.message(), "The cursor 'not a cursor' is not valid.");
+    }
+    test:assertEquals(datastore.getCalls(), []);
+}
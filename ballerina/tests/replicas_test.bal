@@ -0,0 +1,40 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testReplicaReadsAreNotCached() returns error? {
+    TestDatastoreClient primary = new (records = [{"id": 1, "type": "small"}]);
+    // The replica lags behind the primary
+    TestDatastoreClient replica = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": primary});
+    check configureReadReplicas('client, "workspaces", [new TestPersistClient({"workspaces": replica})]);
+    check configureEntityCache('client, "workspaces", Workspace);
+
+    useSession("writer");
+    check updateRecord('client, "workspaces", 1, {"type": "large"});
+    useSession(());
+    Workspace fromReplica = check 'client->/workspaces/[1];
+    test:assertEquals(fromReplica.'type, "small");
+
+    // The session, which wrote the record, reads it from the primary and not the stale row read from the replica
+    useSession("writer");
+    Workspace fromPrimary = check 'client->/workspaces/[1];
+    test:assertEquals(fromPrimary.'type, "large");
+    test:assertEquals(primary.getCalls(), ["runUpdateQuery", "runReadByKeyQuery"]);
+    useSession(());
+}
@@ -0,0 +1,54 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testUncachedResultIsNotFrozen() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+
+    CacheMiss|stream<Workspace, Error?> lookup = getCachedResult('client, "workspaces", "all");
+    if lookup !is CacheMiss {
+        test:assertFail("Expected a cache miss as no result cache is configured");
+    }
+    Workspace[] rows = [{id: 1, 'type: "small"}];
+    stream<Workspace, Error?> result = cacheResult('client, "workspaces", "all", rows, lookup);
+    Workspace[] readRows = check from Workspace row in result select row;
+    readRows[0].'type = "large";
+    test:assertEquals(readRows[0].'type, "large");
+    test:assertFalse(rows is readonly);
+}
+
+@test:Config {}
+function testCachedResultIsReplayed() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    check configureResultCache('client, "workspaces", Workspace, {ttl: 30});
+
+    CacheMiss|stream<Workspace, Error?> lookup = getCachedResult('client, "workspaces", "all");
+    if lookup !is CacheMiss {
+        test:assertFail("Expected a cache miss before the result is cached");
+    }
+    Workspace[] rows = [{id: 1, 'type: "small"}];
+    _ = cacheResult('client, "workspaces", "all", rows, lookup);
+    test:assertTrue(rows is readonly);
+
+    CacheMiss|stream<Workspace, Error?> cached = getCachedResult('client, "workspaces", "all");
+    if cached is CacheMiss {
+        test:assertFail("Expected the cached result");
+    }
+    Workspace[] readRows = check from Workspace row in cached select row;
+    test:assertEquals(readRows, rows);
+}
@@ -0,0 +1,60 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testShardedInsertReportsPartialWrite() returns error? {
+    record {}[] workspaces = from int id in 1 ... 20 select {"id": id, "type": "small"};
+    TestDatastoreClient first = new ();
+    // The second shard already has all the records, hence its partition fails after the first one is inserted
+    TestDatastoreClient second = new (records = workspaces);
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    check configureSharding('client, "workspaces", [
+        new TestPersistClient({"workspaces": first}),
+        new TestPersistClient({"workspaces": second})
+    ]);
+
+    Error? result = insertRecords('client, "workspaces", workspaces);
+    if result is () {
+        test:assertFail("Expected the insert into the second shard to fail");
+    }
+    test:assertTrue(result.message().startsWith("The insert into the shard 1 of the entity 'workspaces' failed " +
+        "after the records of the shards [0] were inserted."));
+    test:assertTrue(result.cause() is AlreadyExistsError);
+    test:assertTrue(first.getRecords().length() > 0);
+}
+
+@test:Config {}
+function testShardedInsertRequiresKeys() returns error? {
+    TestDatastoreClient shard = new ();
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    check configureSharding('client, "workspaces", [new TestPersistClient({"workspaces": shard})]);
+
+    Error? result = insertRecords('client, "workspaces", [{"type": "small"}]);
+    test:assertTrue(result is Error);
+    test:assertEquals(shard.getCalls(), []);
+}
+
+@test:Config {}
+function testScanOfUnshardedEntity() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+
+    record {}[] records = check scanShards('client, "workspaces",
+        isolated function(AbstractPersistClient shard) returns stream<record {}, error?> =>
+            [{"id": 1, "type": "small"}].toStream());
+    test:assertEquals(records, [{"id": 1, "type": "small"}]);
+}
@@ -0,0 +1,63 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testUpdatesOfSameFieldsInDifferentOrders() {
+    map<anydata> row = {"id": 1, "name": "old", "type": "small"};
+
+    bindUpdate(row, {"name": "first", "type": "medium"});
+    test:assertEquals(row, {"id": 1, "name": "first", "type": "medium"});
+
+    // The same fields in the other order must not reuse the statement built for the first order
+    bindUpdate(row, {"type": "large", "name": "second"});
+    test:assertEquals(row, {"id": 1, "name": "second", "type": "large"});
+    test:assertEquals(getCachedUpdateStatement("orderedWorkspaces", ["name", "type"]),
+        "UPDATE Workspace SET name = ?, type = ?");
+    test:assertEquals(getCachedUpdateStatement("orderedWorkspaces", ["type", "name"]),
+        "UPDATE Workspace SET type = ?, name = ?");
+}
+
+// Applies an update in the way a SQL datastore does, with a cached statement whose parameters are bound by position
+// to the values of the changed fields in their order.
+function bindUpdate(map<anydata> row, map<anydata> changes) {
+    string[] fields = changes.keys();
+    string? statement = getCachedUpdateStatement("orderedWorkspaces", fields);
+    if statement is () {
+        statement = string `UPDATE Workspace SET ${string:'join(", ", ...from string f in fields select f + " = ?")}`;
+        cacheUpdateStatement("orderedWorkspaces", fields, <string>statement);
+    }
+    string[] columns = from string assignment in re `, `.split((<string>statement).substring(21))
+        select re ` = \?`.replace(assignment, "");
+    anydata[] parameters = from string f in fields select changes[f];
+    foreach int i in 0 ..< columns.length() {
+        row[columns[i]] = parameters[i];
+    }
+}
+
+@test:Config {}
+function testStatementCacheStats() {
+    CacheStats before = getStatementCacheStats();
+    string[] fields = ["id", "type"];
+    test:assertEquals(getCachedStatement("countedWorkspaces", fields, [], ["id"]), ());
+    cacheStatement("countedWorkspaces", fields, [], ["id"], "SELECT id, type FROM Workspace");
+    test:assertEquals(getCachedStatement("countedWorkspaces", fields, [], ["id"]), "SELECT id, type FROM Workspace");
+
+    CacheStats after = getStatementCacheStats();
+    test:assertEquals(after.hits - before.hits, 1);
+    test:assertEquals(after.misses - before.misses, 1);
+}
@@ -0,0 +1,391 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+import ballerina/lang.runtime;
+
+# The entity of the test persist client.
+type Workspace record {|
+    int id;
+    string 'type;
+    decimal? budget?;
+|};
+
+# A datastore client of an entity, which keeps the records in memory and records the methods called on it, so that
+# the tests can verify how the operations of a persist client are dispatched to the datastore.
+isolated client class TestDatastoreClient {
+
+    public final string[] & readonly keyFields;
+    private final map<record {}> records = {};
+    private string[] calls = [];
+    // The maximum number of rows returned by a read of multiple keys, which stands for a faulty datastore
+    private final int maxRowsPerRead;
+    // The time in seconds taken by a read by key, which keeps the read in flight while other reads are issued
+    private final decimal readDelay;
+
+    isolated function init(string[] keyFields = ["id"], record {}[] records = [],
+            int maxRowsPerRead = int:MAX_VALUE, decimal readDelay = 0) {
+        self.keyFields = keyFields.cloneReadOnly();
+        self.maxRowsPerRead = maxRowsPerRead;
+        self.readDelay = readDelay;
+        lock {
+            foreach record {} value in records.clone() {
+                self.records[getKey(value, self.keyFields).toString()] = value;
+            }
+        }
+    }
+
+    isolated function getCalls() returns string[] {
+        lock {
+            return self.calls.clone();
+        }
+    }
+
+    isolated function getRecords() returns record {}[] {
+        lock {
+            return self.records.toArray().clone();
+        }
+    }
+
+    public isolated function runReadByKeyQuery(typedesc<record {}> rowType, typedesc<record {}> rowTypeWithIdFields,
+            anydata key, string[] fields = [], string[] include = [], typedesc<record {}>[] typeDescriptions = [])
+            returns record {}|Error {
+        lock {
+            self.calls.push("runReadByKeyQuery");
+        }
+        runtime:sleep(self.readDelay);
+        lock {
+            record {}? value = self.records[key.toString()];
+            if value is () {
+                return getNotFoundError("test", key.clone());
+            }
+            record {}|error result = value.cloneWithType(rowType);
+            return result is error ? error Error(result.message()) : result.clone();
+        }
+    }
+
+    public isolated function runReadByKeysQuery(typedesc<record {}> rowType, typedesc<record {}> rowTypeWithIdFields,
+            anydata[] keys, string[] fields = [], string[] include = [], typedesc<record {}>[] typeDescriptions = [])
+            returns (record {}?)[]|Error {
+        lock {
+            self.calls.push("runReadByKeysQuery");
+            (record {}?)[] rows = [];
+            foreach anydata key in keys.clone() {
+                if rows.length() >= self.maxRowsPerRead {
+                    break;
+                }
+                record {}? value = self.records[key.toString()];
+                if value is () {
+                    rows.push(());
+                } else {
+                    record {}|error row = value.cloneWithType(rowType);
+                    if row is error {
+                        return error Error(row.message());
+                    }
+                    rows.push(row);
+                }
+            }
+            return rows.clone();
+        }
+    }
+
+    public isolated function runReadPageQuery(typedesc<record {}> rowType, typedesc<record {}> rowTypeWithIdFields,
+            anydata lastKey, int pageSize, string[] fields = [], string[] include = [],
+            typedesc<record {}>[] typeDescriptions = []) returns [record {}[], anydata]|Error {
+        lock {
+            self.calls.push("runReadPageQuery");
+            // The records are sorted by their keys, and the records up to the last key are skipped
+            record {}[] sorted = [];
+            foreach record {} value in self.records {
+                if lastKey !is () && compareKeys(getKey(value, self.keyFields), lastKey, self.keyFields) <= 0 {
+                    continue;
+                }
+                sorted.push(value);
+                int index = sorted.length() - 1;
+                while index > 0 && compareKeys(getKey(sorted[index - 1], self.keyFields),
+                        getKey(value, self.keyFields), self.keyFields) > 0 {
+                    sorted[index] = sorted[index - 1];
+                    index -= 1;
+                }
+                sorted[index] = value;
+            }
+            record {}[] page = sorted.slice(0, int:min(pageSize, sorted.length()));
+            record {}[] rows = [];
+            foreach record {} value in page {
+                record {}|error row = value.cloneWithType(rowType);
+                if row is error {
+                    return error Error(row.message());
+                }
+                rows.push(row);
+            }
+            anydata lastRowKey = page.length() == 0 ? () : getKey(page[page.length() - 1], self.keyFields);
+            return [rows, lastRowKey].clone();
+        }
+    }
+
+    public isolated function runReadTreeQuery(anydata rootKey, string[] fields, map<string> parentKeys, int maxDepth)
+            returns map<anydata>[]|Error {
+        lock {
+            self.calls.push("runReadTreeQuery");
+            // The records are walked one level at a time, and a record is read once, as with the union of a recursive
+            // common table expression, so that the walk ends on cyclic parent keys
+            map<record {}> visited = {};
+            record {}[] level = [];
+            foreach record {} value in self.records {
+                if getKey(value, self.keyFields) == rootKey {
+                    visited[getKey(value, self.keyFields).toString()] = value;
+                    level.push(value);
+                }
+            }
+            int depth = 0;
+            while level.length() > 0 && (maxDepth == -1 || depth < maxDepth) {
+                record {}[] nextLevel = [];
+                foreach record {} parent in level {
+                    anydata parentKey = getKey(parent, self.keyFields);
+                    foreach record {} value in self.records {
+                        string key = getKey(value, self.keyFields).toString();
+                        if !visited.hasKey(key) && getParentKey(value, parentKeys) == parentKey {
+                            visited[key] = value;
+                            nextLevel.push(value);
+                        }
+                    }
+                }
+                level = nextLevel;
+                depth += 1;
+            }
+            map<anydata>[] rows = [];
+            foreach record {} value in visited {
+                map<anydata> row = {};
+                foreach string 'field in fields {
+                    row['field] = value['field];
+                }
+                rows.push(row);
+            }
+            return rows.clone();
+        }
+    }
+
+    public isolated function runAggregateQuery(Aggregation[] aggregations, string[] groupBy, anydata filter)
+            returns map<anydata>[]|Error {
+        lock {
+            self.calls.push("runAggregateQuery");
+            return [{"count": self.records.length()}];
+        }
+    }
+
+    public isolated function runBatchInsertQuery(record {}[] data) returns Error? {
+        lock {
+            self.calls.push("runBatchInsertQuery");
+            foreach record {} value in data.clone() {
+                string key = getKey(value, self.keyFields).toString();
+                if self.records.hasKey(key) {
+                    return getAlreadyExistsError("test", key);
+                }
+                self.records[key] = value;
+            }
+        }
+    }
+
+    public isolated function runUpdateQuery(anydata key, record {} updateRecord) returns Error? {
+        lock {
+            self.calls.push("runUpdateQuery");
+            record {}? value = self.records[key.toString()];
+            if value is () {
+                return getNotFoundError("test", key.clone());
+            }
+            foreach [string, anydata] [fieldName, fieldValue] in updateRecord.clone().entries() {
+                value[fieldName] = fieldValue;
+            }
+        }
+    }
+
+    public isolated function runVersionedUpdateQuery(anydata key, record {} updateRecord, string versionField,
+            int expectedVersion) returns int|Error {
+        lock {
+            self.calls.push("runVersionedUpdateQuery");
+            record {}? value = self.records[key.toString()];
+            if value is () || value[versionField] != expectedVersion {
+                return 0;
+            }
+            foreach [string, anydata] [fieldName, fieldValue] in updateRecord.clone().entries() {
+                value[fieldName] = fieldValue;
+            }
+            return 1;
+        }
+    }
+
+    public isolated function runDeleteQuery(anydata key) returns Error? {
+        lock {
+            self.calls.push("runDeleteQuery");
+            if self.records.removeIfHasKey(key.toString()) is () {
+                return getNotFoundError("test", key.clone());
+            }
+        }
+    }
+
+    public isolated function runClaimOutboxQuery(int maxRecords, int now, int leasedUntil)
+            returns record {}[]|Error {
+        lock {
+            self.calls.push("runClaimOutboxQuery");
+            record {}[] claimed = from record {} value in self.records
+                where value["processed"] == false && <int>value["leasedUntil"] < now
+                order by <int>value["sequence"] ascending
+                limit maxRecords
+                select value;
+            foreach record {} value in claimed {
+                value["leasedUntil"] = leasedUntil;
+            }
+            return claimed.clone();
+        }
+    }
+
+    public isolated function runMarkOutboxQuery(string[] ids) returns int|Error {
+        lock {
+            self.calls.push("runMarkOutboxQuery");
+            int count = 0;
+            foreach string id in ids.clone() {
+                record {}? value = self.records[id];
+                if value !is () {
+                    value["processed"] = true;
+                    count += 1;
+                }
+            }
+            return count;
+        }
+    }
+
+    public isolated function runUpdateWhereQuery(record {} value, map<anydata> filter) returns int|Error {
+        lock {
+            self.calls.push("runUpdateWhereQuery");
+            int count = 0;
+            foreach record {} row in self.records {
+                if matches(row, filter.clone()) {
+                    foreach [string, anydata] [fieldName, fieldValue] in value.clone().entries() {
+                        row[fieldName] = fieldValue;
+                    }
+                    count += 1;
+                }
+            }
+            return count;
+        }
+    }
+
+    public isolated function runDeleteWhereQuery(map<anydata> filter) returns int|Error {
+        lock {
+            self.calls.push("runDeleteWhereQuery");
+            string[] keys = from [string, record {}] [key, row] in self.records.entries()
+                where matches(row, filter.clone())
+                select key;
+            foreach string key in keys {
+                _ = self.records.remove(key);
+            }
+            return keys.length();
+        }
+    }
+}
+
+isolated function compareKeys(anydata key, anydata otherKey, string[] keyFields) returns int {
+    if keyFields.length() == 1 {
+        return compareKeyValues(key, otherKey);
+    }
+    if key !is map<anydata> || otherKey !is map<anydata> {
+        return compareKeyValues(key, otherKey);
+    }
+    foreach string keyField in keyFields {
+        int result = compareKeyValues(key[keyField], otherKey[keyField]);
+        if result != 0 {
+            return result;
+        }
+    }
+    return 0;
+}
+
+isolated function getParentKey(record {} row, map<string> parentKeys) returns anydata {
+    if parentKeys.length() == 1 {
+        return row[parentKeys.keys()[0]];
+    }
+    map<anydata> parentKey = {};
+    foreach [string, string] [foreignKey, keyField] in parentKeys.entries() {
+        parentKey[keyField] = row[foreignKey];
+    }
+    return parentKey;
+}
+
+isolated function compareKeyValues(anydata value, anydata otherValue) returns int {
+    if value is int && otherValue is int {
+        return value < otherValue ? -1 : value > otherValue ? 1 : 0;
+    }
+    string text = value.toString();
+    string otherText = otherValue.toString();
+    return text < otherText ? -1 : text > otherText ? 1 : 0;
+}
+
+isolated function matches(record {} row, map<anydata> filter) returns boolean {
+    foreach [string, anydata] [fieldName, fieldValue] in filter.entries() {
+        if row[fieldName] != fieldValue {
+            return false;
+        }
+    }
+    return true;
+}
+
+# A persist client of the `workspaces` entity, whose resource methods are bound to the native operations in the same
+# way as the resource methods of the generated clients.
+client class TestPersistClient {
+    *AbstractPersistClient;
+
+    private final map<TestDatastoreClient> persistClients;
+
+    function init(map<TestDatastoreClient> persistClients) {
+        self.persistClients = persistClients;
+    }
+
+    isolated resource function get workspaces/[int id](typedesc<record {}> targetType = <>)
+            returns targetType|Error = @java:Method {
+        'class: "io.ballerina.stdlib.persist.QueryProcessor",
+        name: "queryOne"
+    } external;
+
+    isolated resource function get workspaces/many(anydata[] keys, typedesc<record {}> targetType = <>)
+            returns (targetType?)[]|Error = @java:Method {
+        'class: "io.ballerina.stdlib.persist.QueryProcessor",
+        name: "queryMany"
+    } external;
+
+    isolated resource function get workspaces/page(string? cursor = (), int pageSize = 10,
+            typedesc<record {}> targetType = <>) returns [targetType[], string?]|Error = @java:Method {
+        'class: "io.ballerina.stdlib.persist.QueryProcessor",
+        name: "queryPage"
+    } external;
+
+    isolated resource function get workspaces/aggregate(Aggregation[] aggregations, string[] groupBy = [],
+            anydata filter = (), typedesc<record {}> entityType = Workspace) returns map<anydata>[]|Error =
+    @java:Method {
+        'class: "io.ballerina.stdlib.persist.AggregateProcessor",
+        name: "aggregate"
+    } external;
+
+    isolated resource function put workspaces(record {} value, map<anydata> filter) returns int|Error =
+    @java:Method {
+        'class: "io.ballerina.stdlib.persist.BulkOperationProcessor",
+        name: "updateWhere"
+    } external;
+
+    isolated resource function delete workspaces(map<anydata> filter) returns int|Error = @java:Method {
+        'class: "io.ballerina.stdlib.persist.BulkOperationProcessor",
+        name: "deleteWhere"
+    } external;
+}
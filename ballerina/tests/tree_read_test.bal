@@ -0,0 +1,161 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+# A self-referencing entity, whose records are read together with their descendants.
+type Category record {|
+    readonly int id;
+    string name;
+    int? parentId;
+    Category[] children = [];
+|};
+
+# A self-referencing entity with a composite key, whose records refer to their parents with two foreign keys.
+type TenantCategory record {|
+    readonly string tenant;
+    readonly int id;
+    string name;
+    string? parentTenant;
+    int? parentId;
+    TenantCategory[] children = [];
+|};
+
+function getCategoriesClient(record {}[] records) returns TestPersistClient =>
+    new ({"categories": new TestDatastoreClient(records = records)});
+
+final record {}[] & readonly categories = [
+    {"id": 1, "name": "root", "parentId": ()},
+    {"id": 2, "name": "books", "parentId": 1},
+    {"id": 3, "name": "music", "parentId": 1},
+    {"id": 4, "name": "novels", "parentId": 2},
+    {"id": 5, "name": "classics", "parentId": 4}
+];
+
+@test:Config {}
+function testReadTreeOfAllLevels() returns error? {
+    TestDatastoreClient datastore = new (records = categories);
+    TestPersistClient 'client = new ({"categories": datastore});
+
+    Category root = check readTree('client, "categories", 1, {parentKeys: {"parentId": "id"}});
+    test:assertEquals(root, {
+        id: 1,
+        name: "root",
+        parentId: (),
+        children: [
+            {
+                id: 2,
+                name: "books",
+                parentId: 1,
+                children: [
+                    {
+                        id: 4,
+                        name: "novels",
+                        parentId: 2,
+                        children: [{id: 5, name: "classics", parentId: 4, children: []}]
+                    }
+                ]
+            },
+            {id: 3, name: "music", parentId: 1, children: []}
+        ]
+    });
+    test:assertEquals(datastore.getCalls(), ["runReadTreeQuery"]);
+
+    Category subtree = check readTree('client, "categories", 4, {parentKeys: {"parentId": "id"}});
+    test:assertEquals(subtree, {
+        id: 4,
+        name: "novels",
+        parentId: 2,
+        children: [{id: 5, name: "classics", parentId: 4, children: []}]
+    });
+}
+
+@test:Config {}
+function testReadTreeUpToMaxDepth() returns error? {
+    TestPersistClient 'client = getCategoriesClient(categories);
+
+    Category root = check readTree('client, "categories", 1, {parentKeys: {"parentId": "id"}, maxDepth: 1});
+    test:assertEquals(root, {
+        id: 1,
+        name: "root",
+        parentId: (),
+        children: [
+            {id: 2, name: "books", parentId: 1, children: []},
+            {id: 3, name: "music", parentId: 1, children: []}
+        ]
+    });
+
+    Category leaf = check readTree('client, "categories", 1, {parentKeys: {"parentId": "id"}, maxDepth: 0});
+    test:assertEquals(leaf, {id: 1, name: "root", parentId: (), children: []});
+}
+
+@test:Config {}
+function testReadTreeOfMissingRoot() {
+    TestPersistClient 'client = getCategoriesClient(categories);
+
+    Category|Error root = readTree('client, "categories", 6, {parentKeys: {"parentId": "id"}});
+    test:assertTrue(root is NotFoundError);
+    if root is NotFoundError {
+        test:assertEquals(root.message(), getNotFoundError("categories", 6).message());
+    }
+}
+
+@test:Config {}
+function testReadTreeOfCompositeParentKeys() returns error? {
+    TestPersistClient 'client = new ({"categories": new TestDatastoreClient(keyFields = ["tenant", "id"], records = [
+        {"tenant": "a", "id": 1, "name": "root", "parentTenant": (), "parentId": ()},
+        {"tenant": "b", "id": 1, "name": "root", "parentTenant": (), "parentId": ()},
+        {"tenant": "a", "id": 2, "name": "books", "parentTenant": "a", "parentId": 1},
+        {"tenant": "b", "id": 2, "name": "music", "parentTenant": "b", "parentId": 1},
+        {"tenant": "b", "id": 3, "name": "novels", "parentTenant": "a", "parentId": 2}
+    ])});
+
+    TenantCategory root = check readTree('client, "categories", {tenant: "a", id: 1},
+        {parentKeys: {"parentTenant": "tenant", "parentId": "id"}});
+    test:assertEquals(root, {
+        tenant: "a",
+        id: 1,
+        name: "root",
+        parentTenant: (),
+        parentId: (),
+        children: [
+            {
+                tenant: "a",
+                id: 2,
+                name: "books",
+                parentTenant: "a",
+                parentId: 1,
+                children: [{tenant: "b", id: 3, name: "novels", parentTenant: "a", parentId: 2, children: []}]
+            }
+        ]
+    });
+}
+
+@test:Config {}
+function testReadTreeOfCyclicParentKeys() {
+    TestPersistClient 'client = getCategoriesClient([
+        {"id": 1, "name": "root", "parentId": 3},
+        {"id": 2, "name": "books", "parentId": 1},
+        {"id": 3, "name": "novels", "parentId": 2}
+    ]);
+
+    Category|Error root = readTree('client, "categories", 1, {parentKeys: {"parentId": "id"}});
+    if root !is Error {
+        test:assertFail("Expected the cyclic parent keys to be rejected");
+    }
+    test:assertEquals(root.message(), "The parent keys of the records of the entity 'categories' form a cycle at " +
+        "the record with the key '1'.");
+}
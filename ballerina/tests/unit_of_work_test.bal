@@ -0,0 +1,129 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+@test:Config {}
+function testUnitOfWorkCoalescesWrites() returns error? {
+    TestDatastoreClient datastore = new (records = [
+        {"id": 1, "type": "small"},
+        {"id": 2, "type": "small"},
+        {"id": 3, "type": "small"}
+    ]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+    UnitOfWork unitOfWork = beginUnitOfWork('client);
+
+    // The update of an inserted record is merged into the insert
+    check unitOfWork.insert("workspaces", {"id": 4, "type": "small"});
+    check unitOfWork.update("workspaces", 4, {"type": "large"});
+    // The updates of a record are merged into a single update
+    check unitOfWork.update("workspaces", 1, {"type": "medium"});
+    check unitOfWork.update("workspaces", 1, {"type": "large"});
+    // An insert followed by a delete cancels both
+    check unitOfWork.insert("workspaces", {"id": 5, "type": "small"});
+    check unitOfWork.delete("workspaces", 5);
+    // A delete followed by an insert replaces the record
+    check unitOfWork.delete("workspaces", 2);
+    check unitOfWork.insert("workspaces", {"id": 2, "type": "large"});
+    check unitOfWork.delete("workspaces", 3);
+    check unitOfWork.flush();
+
+    // The replaced record is deleted before the inserts, and the deletes follow the updates
+    test:assertEquals(datastore.getCalls(),
+            ["runDeleteQuery", "runBatchInsertQuery", "runUpdateQuery", "runDeleteQuery"]);
+    test:assertEquals(from record {} value in datastore.getRecords() order by <int>value["id"] select value, [
+        {"id": 1, "type": "large"},
+        {"id": 2, "type": "large"},
+        {"id": 4, "type": "large"}
+    ]);
+}
+
+@test:Config {}
+function testUnitOfWorkRejectsConflictingWrites() returns error? {
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    UnitOfWork unitOfWork = beginUnitOfWork('client);
+
+    check unitOfWork.insert("workspaces", {"id": 1, "type": "small"});
+    test:assertTrue(unitOfWork.insert("workspaces", {"id": 1, "type": "large"}) is Error);
+    check unitOfWork.delete("workspaces", 2);
+    test:assertTrue(unitOfWork.update("workspaces", 2, {"type": "large"}) is Error);
+    test:assertTrue(unitOfWork.insert("unknown", {"id": 1}) is Error);
+    unitOfWork.discard();
+    test:assertTrue(unitOfWork.flush() is Error);
+}
+
+@test:Config {}
+function testUnitOfWorkFlushesInsertsInFlushOrder() returns error? {
+    // The insert of the user fails, hence the workspaces listed after the users are not written
+    TestDatastoreClient users = new (records = [{"id": 1, "name": "alice"}]);
+    TestDatastoreClient workspaces = new ();
+    TestPersistClient 'client = new ({"users": users, "workspaces": workspaces});
+    UnitOfWork unitOfWork = beginUnitOfWork('client, {flushOrder: ["users", "workspaces"]});
+
+    check unitOfWork.insert("workspaces", {"id": 1, "type": "small"});
+    check unitOfWork.insert("users", {"id": 1, "name": "alice"});
+    test:assertTrue(unitOfWork.flush() is AlreadyExistsError);
+    test:assertEquals(users.getCalls(), ["runBatchInsertQuery"]);
+    test:assertEquals(workspaces.getCalls(), []);
+}
+
+@test:Config {}
+function testUnitOfWorkFlushesDeletesInReverseFlushOrder() returns error? {
+    // The delete of the workspace fails, hence the users listed before the workspaces are not deleted
+    TestDatastoreClient users = new (records = [{"id": 1, "name": "alice"}]);
+    TestDatastoreClient workspaces = new ();
+    TestPersistClient 'client = new ({"users": users, "workspaces": workspaces});
+    UnitOfWork unitOfWork = beginUnitOfWork('client, {flushOrder: ["users", "workspaces"]});
+
+    check unitOfWork.delete("users", 1);
+    check unitOfWork.delete("workspaces", 1);
+    test:assertTrue(unitOfWork.flush() is NotFoundError);
+    test:assertEquals(workspaces.getCalls(), ["runDeleteQuery"]);
+    test:assertEquals(users.getCalls(), []);
+}
+
+@test:Config {}
+function testUnitOfWorkRejectsShardedEntity() returns error? {
+    TestDatastoreClient shard = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": new TestDatastoreClient()});
+    check configureSharding('client, "workspaces", [new TestPersistClient({"workspaces": shard})]);
+    UnitOfWork unitOfWork = beginUnitOfWork('client);
+
+    test:assertTrue(unitOfWork.insert("workspaces", {"id": 2, "type": "small"}) is Error);
+    test:assertTrue(unitOfWork.update("workspaces", 1, {"type": "large"}) is Error);
+    test:assertTrue(unitOfWork.delete("workspaces", 1) is Error);
+    check unitOfWork.flush();
+    test:assertEquals(shard.getCalls(), []);
+}
+
+@test:Config {}
+function testUnitOfWorkFlushIsReadBySession() returns error? {
+    TestDatastoreClient primary = new (records = [{"id": 1, "type": "small"}]);
+    // The replica lags behind the primary
+    TestDatastoreClient replica = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": primary});
+    check configureReadReplicas('client, "workspaces", [new TestPersistClient({"workspaces": replica})]);
+
+    useSession("flusher");
+    UnitOfWork unitOfWork = beginUnitOfWork('client);
+    check unitOfWork.update("workspaces", 1, {"type": "large"});
+    check unitOfWork.flush();
+    // The session, which flushed the update, reads the record from the primary
+    Workspace workspace = check 'client->/workspaces/[1];
+    test:assertEquals(workspace.'type, "large");
+    test:assertEquals(replica.getCalls(), []);
+    useSession(());
+}
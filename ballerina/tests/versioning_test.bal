@@ -0,0 +1,49 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/test;
+
+type VersionedWorkspace record {|
+    readonly int id;
+    string 'type;
+    @Version
+    int revision;
+|};
+
+@test:Config {}
+function testVersionedUpdateUsesAnnotatedField() returns error? {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small", "revision": 3}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    check updateVersionedRecord('client, "workspaces", 1, {"type": "large"}, 3, VersionedWorkspace);
+    test:assertEquals(datastore.getRecords(), [{"id": 1, "type": "large", "revision": 4}]);
+
+    Error? conflict = updateVersionedRecord('client, "workspaces", 1, {"type": "medium"}, 3, VersionedWorkspace);
+    test:assertTrue(conflict is VersionConflictError);
+    if conflict is VersionConflictError {
+        test:assertEquals(conflict.message(), getVersionConflictError("workspaces", 1, 3).message());
+    }
+}
+
+@test:Config {}
+function testVersionedUpdateWithoutVersionField() {
+    TestDatastoreClient datastore = new (records = [{"id": 1, "type": "small"}]);
+    TestPersistClient 'client = new ({"workspaces": datastore});
+
+    Error? result = updateVersionedRecord('client, "workspaces", 1, {"type": "large"}, 0, Workspace);
+    test:assertTrue(result is Error);
+    test:assertEquals(datastore.getCalls(), []);
+}
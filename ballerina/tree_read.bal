@@ -0,0 +1,43 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents the configuration of a tree read of a self-referencing entity.
+#
+# + childrenField - The field of the target type holding the child records
+# + parentKeys - The foreign key fields referring to the parent record, mapped to the identity fields of the parent
+# + maxDepth - The number of levels read below the root record. `-1` reads all the descendants of the root record
+public type TreeConfig record {|
+    string childrenField = "children";
+    map<string> parentKeys;
+    int maxDepth = -1;
+|};
+
+# Reads a record of a self-referencing entity together with its descendants, nested in the children field of the
+# target type. The subtree is read with a single query of the datastore, instead of a query per level.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity
+# + rootKey - The key of the root record of the subtree
+# + config - The configuration of the tree read
+# + targetType - The type of the records of the tree, whose children field is an array of the type itself
+# + return - The root record with its descendants, a `persist:NotFoundError` if the root record does not exist, or a
+# `persist:Error` if the parent keys of the records form a cycle
+public isolated function readTree(AbstractPersistClient 'client, string entity, anydata rootKey, TreeConfig config,
+        typedesc<record {}> targetType = <>) returns targetType|Error = @java:Method {
+    'class: "io.ballerina.stdlib.persist.TreeReader"
+} external;
@@ -0,0 +1,86 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+import ballerina/jballerina.java;
+
+# Represents the configuration of a unit of work.
+#
+# + flushOrder - The resource names of the entities in the order in which their inserts and updates are flushed.
+# An entity referenced by a relation should be listed before the entity owning the relation. The deletes are
+# flushed in the reverse order, and the entities which are not listed follow the listed entities
+public type UnitOfWorkConfig record {|
+    string[] flushOrder = [];
+|};
+
+# Represents a unit of work, which buffers and coalesces the writes of a business flow and flushes them together.
+public isolated class UnitOfWork {
+
+    # Buffers the insert of a record. The insert of a record deleted in the unit of work is flushed as the delete
+    # followed by the insert, just before the inserts of the entity.
+    #
+    # + entity - The resource name of the entity in the persist client
+    # + value - The record to insert
+    # + return - A `persist:Error` if a record with the same key is already inserted or updated in the unit of work,
+    # or if the entity is sharded
+    public isolated function insert(string entity, record {} value) returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.UnitOfWork"
+    } external;
+
+    # Buffers the update of a record. The updates of a record are merged into a single update.
+    #
+    # + entity - The resource name of the entity in the persist client
+    # + key - The key of the record
+    # + value - The fields to update
+    # + return - A `persist:Error` if the record is deleted in the unit of work, or if the entity is sharded
+    public isolated function update(string entity, anydata key, record {} value) returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.UnitOfWork"
+    } external;
+
+    # Buffers the delete of a record. The delete of a record inserted in the unit of work cancels the insert.
+    #
+    # + entity - The resource name of the entity in the persist client
+    # + key - The key of the record
+    # + return - A `persist:Error` if the entity does not exist in the client, or if it is sharded
+    public isolated function delete(string entity, anydata key) returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.UnitOfWork"
+    } external;
+
+    # Flushes the buffered writes and closes the unit of work. The inserts of an entity are sent with a single batch
+    # insert, and the updates and the deletes one key at a time. The flush joins the transaction of the caller, and
+    # stops at the first failed write, hence it should be called within a transaction so that the writes are
+    # committed together. It is not run by the commit itself.
+    #
+    # + return - A `persist:Error` if a write fails
+    public isolated function flush() returns Error? = @java:Method {
+        'class: "io.ballerina.stdlib.persist.UnitOfWork"
+    } external;
+
+    # Discards the buffered writes and closes the unit of work.
+    public isolated function discard() = @java:Method {
+        'class: "io.ballerina.stdlib.persist.UnitOfWork"
+    } external;
+}
+
+# Begins a unit of work on a persist client. The inserts of an entity are flushed with a single batch insert, and
+# the writes of each record are coalesced before they are flushed.
+#
+# + 'client - The persist client
+# + config - The configuration of the unit of work
+# + return - The unit of work
+public isolated function beginUnitOfWork(AbstractPersistClient 'client, UnitOfWorkConfig config = {})
+        returns UnitOfWork = @java:Method {
+    'class: "io.ballerina.stdlib.persist.UnitOfWork"
+} external;
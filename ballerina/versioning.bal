@@ -0,0 +1,41 @@
+// Copyright (c) 2024 WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 LLC. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+
+import ballerina/jballerina.java;
+
+# Marks the `int` field of an entity, which holds the version of a record. The versioned updates of the record are
+# conditional on the version, which is incremented by each of them. The compiler plugin validates that an entity has
+# at most one version field, and that it is of the non-nillable `int` type.
+public annotation Version on record field;
+
+# Updates the record with the given key only if its version is still the version when it was read, increments the
+# version, and removes the record from the caches of the entity. This does not hold a lock on the record between
+# reading and updating it.
+#
+# + 'client - The persist client
+# + entity - The resource name of the entity in the persist client
+# + key - The key of the record
+# + value - The values of the fields to update
+# + expectedVersion - The version of the record when it was read
+# + entityType - The record type of the entity, whose field annotated with `@persist:Version` holds the version
+# + return - A `persist:VersionConflictError` if the record has been updated or deleted since it was read, or
+# another `persist:Error` if the update fails or the entity has no version field
+public isolated function updateVersionedRecord(AbstractPersistClient 'client, string entity, anydata key,
+        record {} value, int expectedVersion, typedesc<record {}> entityType) returns Error? = @java:Method {
+    'class: "io.ballerina.stdlib.persist.QueryProcessor",
+    name: "updateVersioned"
+} external;
@@ -94,6 +94,8 @@ public class CodeActionTest {
                         "PERSIST_306", "CHANGE_TYPE_TO_INT", "Change to 'int' type"},
                 {"project_2", "field-types-valid.bal", LinePosition.from(15, 6), "field-types-string.bal",
                         "PERSIST_306", "CHANGE_TYPE_TO_STRING", "Change to 'string' type"},
+                {"project_6", "array-field-types.bal", LinePosition.from(8, 6), "field-types-postgresql-int[].bal",
+                        "PERSIST_306", "CHANGE_TYPE_TO_INT_ARRAY", "Change to 'int[]' type"},
                 {"project_3", "field-types.bal", LinePosition.from(13, 4), "field-types-nillable.bal",
                         "PERSIST_308", "CHANGE_TYPE_TO_NOT_NILLABLE", "Change to 'float' type"},
 
@@ -105,6 +107,10 @@ public class CodeActionTest {
                         "self-referenced-entity.bal", "PERSIST_401", "REMOVE_DIAGNOSTIC_LOCATION",
                         "Remove self-referenced field"},
 
+                {"project_2", "self-referenced-entity.bal", LinePosition.from(8, 10),
+                        "self-referenced-entity-parent.bal", "PERSIST_005", "ADD_SINGLE_TEXT",
+                        "Add corresponding parent relation field in 'Building' entity"},
+
                 {"project_2", "mandatory-relation-field.bal", LinePosition.from(8, 21),
                         "mandatory-relation-entity[]-type.bal", "PERSIST_005", "ADD_SINGLE_TEXT",
                         "Add corresponding relation field in 'Workspace' entity"},
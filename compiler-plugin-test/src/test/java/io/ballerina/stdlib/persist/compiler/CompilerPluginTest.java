@@ -37,6 +37,7 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_101;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_102;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_201;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_202;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_203;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_301;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_302;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_303;
@@ -46,6 +47,12 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_306;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_307;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_308;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_309;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_310;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_311;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_312;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_313;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_314;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_315;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_401;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_402;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_403;
@@ -53,7 +60,11 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_404;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_405;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_406;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_420;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_421;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_422;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_423;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_424;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_425;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_501;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_502;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_503;
@@ -315,6 +326,27 @@ public class CompilerPluginTest {
         );
     }
 
+    @Test
+    public void validateArrayFieldTypesForPostgresql() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_6", "array-field-types.bal", 2);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_306.getCode(),
+                        PERSIST_503.getCode()
+                },
+                new String[]{
+                        "an entity does not support boolean array field type",
+                        "only 'int', 'string', 'float', 'boolean', 'decimal' types " +
+                                "are supported as identity fields, found 'int[]'"
+                },
+                new String[]{
+                        "(8:4,8:13)",
+                        "(12:13,12:18)"
+                }
+        );
+    }
+
     @Test
     public void validateEntityFieldTypeForGoogleSheets() {
         List<Diagnostic> diagnostics = getErrorDiagnostics("project_3", "field-types.bal", 12);
@@ -412,6 +444,167 @@ public class CompilerPluginTest {
         );
     }
 
+    @Test
+    public void validateMeasureFields() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "measure-fields.bal", 3);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_310.getCode(),
+                        PERSIST_310.getCode(),
+                        PERSIST_310.getCode()
+                },
+                new String[]{
+                        "only 'int', 'float' and 'decimal' fields can be aggregated, found 'string'",
+                        "only 'int', 'float' and 'decimal' fields can be aggregated, found 'boolean'",
+                        "only 'int', 'float' and 'decimal' fields can be aggregated, found 'byte[]'"
+                },
+                new String[]{
+                        "(9:4,9:10)",
+                        "(11:4,11:11)",
+                        "(13:4,13:10)"
+                }
+        );
+    }
+
+    @Test
+    public void validateVersionField() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "version-field.bal", 3);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_311.getCode(),
+                        PERSIST_311.getCode(),
+                        PERSIST_312.getCode()
+                },
+                new String[]{
+                        "a version field must be of the non-nillable 'int' type, found 'int?'",
+                        "a version field must be of the non-nillable 'int' type, found 'string'",
+                        "an entity can have only one version field"
+                },
+                new String[]{
+                        "(11:4,11:8)",
+                        "(17:4,17:10)",
+                        "(19:4,19:7)"
+                }
+        );
+    }
+
+    @Test
+    public void validateCachedEntityFieldTypes() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "cached-entity.bal", 2);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_313.getCode(),
+                        PERSIST_313.getCode()
+                },
+                new String[]{
+                        "the redis cache of a cached entity does not support 'decimal?'-typed field",
+                        "the redis cache of a cached entity does not support 'byte[]'-typed field"
+                },
+                new String[]{
+                        "(7:4,7:12)",
+                        "(8:4,8:10)"
+                }
+        );
+    }
+
+    @Test
+    public void validateCachedEntityDatastore() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_4", "cached-entity.bal", 1);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_203.getCode()
+                },
+                new String[]{
+                        "a cached entity is not supported by the 'inmemory' datastore"
+                },
+                new String[]{
+                        "(3:5,3:12)"
+                }
+        );
+    }
+
+    @Test
+    public void validateOutboxEntity() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "outbox-entity.bal", 2);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_315.getCode(),
+                        PERSIST_314.getCode()
+                },
+                new String[]{
+                        "the 'key' field of an outbox entity must be of the 'string' type, found 'int'",
+                        "an outbox entity must have the 'createdAt' field of the 'int' type"
+                },
+                new String[]{
+                        "(7:4,7:7)",
+                        "(3:5,3:16)"
+                }
+        );
+    }
+
+    @Test
+    public void validateDeletePolicy() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "delete-policy.bal", 1);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_424.getCode()
+                },
+                new String[]{
+                        "a delete policy can only be set on the relation field of the owner of the relation"
+                },
+                new String[]{
+                        "(5:4,6:19)"
+                }
+        );
+    }
+
+    @Test
+    public void validateCascadedCachedEntity() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "cached-cascade.bal", 1);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_425.getCode()
+                },
+                new String[]{
+                        "the records of a cached entity cannot be deleted by a cascade, as the cascaded deletes do " +
+                                "not remove them from the cache"
+                },
+                new String[]{
+                        "(12:4,13:22)"
+                }
+        );
+    }
+
+    @Test
+    public void validateRelationOwnerCycle() {
+        getErrorDiagnostics("project_2", "relation-owner-cycle.bal", 0);
+        List<Diagnostic> diagnostics = loadPersistModelFile("project_2", "relation-owner-cycle.bal")
+                .getCompilation().diagnosticResult().diagnostics().stream()
+                .filter(r -> r.diagnosticInfo().severity().equals(DiagnosticSeverity.WARNING))
+                .collect(Collectors.toList());
+        Assert.assertEquals(diagnostics.size(), 1);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_423.getCode()
+                },
+                new String[]{
+                        "the relation owners of the entities form the cycle 'Employee -> Department -> Building -> " +
+                                "Employee', hence a graph of their records cannot be inserted"
+                },
+                new String[]{
+                        "(2:5,2:13)"
+                }
+        );
+    }
+
     @Test
     public void validateSelfReferencedEntity() {
         List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "self-referenced-entity.bal", 1);
@@ -421,7 +614,8 @@ public class CompilerPluginTest {
                         PERSIST_401.getCode()
                 },
                 new String[]{
-                        "an entity cannot reference itself in a relation field"
+                        "a self-referencing relation must have a 'Building' or 'Building?' field referring to " +
+                                "the parent record and a 'Building[]' field holding the child records"
                 },
                 new String[]{
                         "(8:4,8:26)"
@@ -429,6 +623,33 @@ public class CompilerPluginTest {
         );
     }
 
+    @Test
+    public void validateSelfRelation() {
+        getErrorDiagnostics("project_2", "self-relation.bal", 0);
+    }
+
+    @Test
+    public void validateSelfRelationWithMultipleChildren() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "self-relation-multiple-children.bal", 2);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_401.getCode(),
+                        PERSIST_401.getCode()
+                },
+                new String[]{
+                        "a self-referencing relation must have a 'Category' or 'Category?' field referring to " +
+                                "the parent record and a 'Category[]' field holding the child records",
+                        "a self-referencing relation must have a 'Category' or 'Category?' field referring to " +
+                                "the parent record and a 'Category[]' field holding the child records"
+                },
+                new String[]{
+                        "(5:4,5:24)",
+                        "(6:4,6:23)"
+                }
+        );
+    }
+
     @Test
     public void validateNillableRelationField() {
         List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "nillable-relation-field.bal", 6);
@@ -465,7 +686,12 @@ public class CompilerPluginTest {
 
     @Test
     public void validateManyToManyRelationship() {
-        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "many-to-many.bal", 2);
+        getErrorDiagnostics("project_2", "many-to-many.bal", 0);
+    }
+
+    @Test
+    public void validateManyToManyRelationshipForGoogleSheets() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_3", "many-to-many.bal", 2);
         testDiagnostic(
                 diagnostics,
                 new String[]{
@@ -473,8 +699,8 @@ public class CompilerPluginTest {
                         PERSIST_420.getCode()
                 },
                 new String[]{
-                        "many-to-many relation is not supported yet",
-                        "many-to-many relation is not supported yet"
+                        "many-to-many relation is not supported by the 'googlesheets' datastore",
+                        "many-to-many relation is not supported by the 'googlesheets' datastore"
                 },
                 new String[]{
                         "(14:4,14:24)",
@@ -483,6 +709,24 @@ public class CompilerPluginTest {
         );
     }
 
+    @Test
+    public void validateManyToManyJoinTable() {
+        List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "many-to-many-join-table.bal", 1);
+        testDiagnostic(
+                diagnostics,
+                new String[]{
+                        PERSIST_421.getCode()
+                },
+                new String[]{
+                        "the join table 'BuildingWorkspace' of the many-to-many relation is already used by " +
+                                "another relation or entity"
+                },
+                new String[]{
+                        "(11:4,11:24)"
+                }
+        );
+    }
+
     @Test
     public void validateMandatoryRelationField() {
         List<Diagnostic> diagnostics = getErrorDiagnostics("project_2", "mandatory-relation-field.bal", 4);
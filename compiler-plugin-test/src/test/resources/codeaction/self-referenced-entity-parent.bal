@@ -0,0 +1,11 @@
+import ballerina/persist as _;
+
+type Building record {|
+    readonly string buildingCode;
+    string city;
+    string state;
+    string country;
+    string postalCode;
+    Building[] workspaces;
+	Building? parent;
+|};
@@ -0,0 +1,24 @@
+import ballerina/persist;
+
+type Customer record {|
+    readonly int id;
+    string name;
+    Order[] orders;
+|};
+
+@persist:Cached {ttl: 60}
+type Order record {|
+    readonly int id;
+    string status;
+    @persist:Cascade
+    Customer customer;
+    OrderItem[] items;
+|};
+
+@persist:Cached {ttl: 60}
+type OrderItem record {|
+    readonly int id;
+    int quantity;
+    @persist:Cascade {onDelete: persist:RESTRICT}
+    Order parentOrder;
+|};
@@ -0,0 +1,11 @@
+import ballerina/persist;
+import ballerina/time;
+
+@persist:Cached {ttl: 60}
+type Product record {|
+    readonly int id;
+    string name;
+    decimal? price;
+    byte[] image;
+    time:Civil createdAt;
+|};
@@ -0,0 +1,15 @@
+import ballerina/persist;
+
+type Customer record {|
+    readonly int id;
+    string name;
+    @persist:Cascade
+    Order[] orders;
+|};
+
+type Order record {|
+    readonly int id;
+    string status;
+    @persist:Cascade
+    Customer customer;
+|};
@@ -0,0 +1,18 @@
+import ballerina/persist as _;
+
+type Building record {|
+    readonly string buildingCode;
+    string city;
+    Workspace[] workspaces;
+|};
+
+type Workspace record {|
+    readonly string workspaceId;
+    string workspaceType;
+    Building[] location;
+|};
+
+type BuildingWorkspace record {|
+    readonly string id;
+    string description;
+|};
@@ -0,0 +1,15 @@
+import ballerina/persist;
+
+type Employee record {|
+    readonly int id;
+    @persist:Measure
+    decimal salary;
+    @persist:Measure
+    int? age;
+    @persist:Measure
+    string name;
+    @persist:Measure
+    boolean active;
+    @persist:Measure
+    byte[] photo;
+|};
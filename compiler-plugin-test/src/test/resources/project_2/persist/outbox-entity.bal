@@ -0,0 +1,13 @@
+import ballerina/persist;
+
+@persist:Outbox
+type OutboxEvent record {|
+    readonly string id;
+    string entity;
+    string operation;
+    int key;
+    string payload;
+    boolean processed;
+    int sequence;
+    int leasedUntil;
+|};
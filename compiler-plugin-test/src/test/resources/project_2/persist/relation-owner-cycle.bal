@@ -0,0 +1,22 @@
+import ballerina/persist as _;
+
+type Employee record {|
+    readonly string employeeId;
+    string name;
+    Department department;
+    Building[] managedBuildings;
+|};
+
+type Department record {|
+    readonly string departmentId;
+    string name;
+    Employee[] employees;
+    Building building;
+|};
+
+type Building record {|
+    readonly string buildingCode;
+    string city;
+    Department[] departments;
+    Employee manager;
+|};
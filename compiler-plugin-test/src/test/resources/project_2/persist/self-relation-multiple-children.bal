@@ -0,0 +1,8 @@
+import ballerina/persist as _;
+
+type Category record {|
+    readonly int id;
+    string name;
+    Category[] children;
+    Category[] related;
+|};
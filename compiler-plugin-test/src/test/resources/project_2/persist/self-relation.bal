@@ -0,0 +1,9 @@
+import ballerina/persist;
+
+type Category record {|
+    readonly int id;
+    string name;
+    @persist:Cascade
+    Category? parent;
+    Category[] children;
+|};
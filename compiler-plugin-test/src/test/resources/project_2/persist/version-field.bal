@@ -0,0 +1,21 @@
+import ballerina/persist;
+
+type Account record {|
+    readonly int id;
+    @persist:Version
+    int version;
+|};
+
+type Payment record {|
+    readonly int id;
+    @persist:Version
+    int? version;
+|};
+
+type Invoice record {|
+    readonly int id;
+    @persist:Version
+    string revision;
+    @persist:Version
+    int version;
+|};
@@ -0,0 +1,7 @@
+import ballerina/persist;
+
+@persist:Cached
+type Product record {|
+    readonly int id;
+    string name;
+|};
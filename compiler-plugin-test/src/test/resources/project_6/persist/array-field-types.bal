@@ -0,0 +1,15 @@
+import ballerina/persist as _;
+
+public type MedicalNeed record {|
+    readonly int needId;
+    int[] intArray;
+    string[] stringArray;
+    decimal[] decimalArray;
+    float[] floatArray;
+    boolean[] booleanArray;
+|};
+
+public type MedicalItem record {|
+    readonly int[] itemIds;
+    string name;
+|};
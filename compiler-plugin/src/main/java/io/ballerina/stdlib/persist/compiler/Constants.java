@@ -33,6 +33,13 @@ public final class Constants {
     public static final String LS = System.lineSeparator();
     public static final String SQL_RELATION_MAPPING_ANNOTATION_NAME = "sql:Relation";
     public static final String ANNOTATION_REFS_FIELD = "refs";
+    public static final String MEASURE_ANNOTATION_NAME = "persist:Measure";
+    public static final String VERSION_ANNOTATION_NAME = "persist:Version";
+    public static final String CACHED_ANNOTATION_NAME = "persist:Cached";
+    public static final String OUTBOX_ANNOTATION_NAME = "persist:Outbox";
+    public static final String CASCADE_ANNOTATION_NAME = "persist:Cascade";
+    public static final String ANNOTATION_ON_DELETE_FIELD = "onDelete";
+    public static final String RESTRICT_DELETE_POLICY = "RESTRICT";
 
     private Constants() {
     }
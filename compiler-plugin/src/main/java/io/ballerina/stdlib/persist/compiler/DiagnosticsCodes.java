@@ -22,6 +22,7 @@ import io.ballerina.tools.diagnostics.DiagnosticSeverity;
 
 import static io.ballerina.tools.diagnostics.DiagnosticSeverity.ERROR;
 import static io.ballerina.tools.diagnostics.DiagnosticSeverity.INTERNAL;
+import static io.ballerina.tools.diagnostics.DiagnosticSeverity.WARNING;
 
 /**
  * Persist related diagnostic codes.
@@ -45,6 +46,7 @@ public enum DiagnosticsCodes {
 
     PERSIST_201("PERSIST_201", "an entity should be a closed record", ERROR),
     PERSIST_202("PERSIST_202", "redeclared entity ''{0}''", ERROR),
+    PERSIST_203("PERSIST_203", "a cached entity is not supported by the ''{0}'' datastore", ERROR),
 
     PERSIST_301("PERSIST_301", "an entity does not support rest descriptor field", ERROR),
     PERSIST_302("PERSIST_302", "an entity does not support defaultable field", ERROR),
@@ -55,9 +57,20 @@ public enum DiagnosticsCodes {
     PERSIST_307("PERSIST_307", "redeclared field ''{0}''", ERROR),
     PERSIST_308("PERSIST_308", "an entity does not support nillable field", ERROR),
     PERSIST_309("PERSIST_309", "an entity does not support optional readonly field", ERROR),
+    PERSIST_310("PERSIST_310", "only ''int'', ''float'' and ''decimal'' fields can be aggregated, found ''{0}''",
+            ERROR),
+    PERSIST_311("PERSIST_311", "a version field must be of the non-nillable ''int'' type, found ''{0}''", ERROR),
+    PERSIST_312("PERSIST_312", "an entity can have only one version field", ERROR),
+    PERSIST_313("PERSIST_313", "the redis cache of a cached entity does not support ''{0}''-typed field", ERROR),
+    PERSIST_314("PERSIST_314", "an outbox entity must have the ''{0}'' field of the ''{1}'' type", ERROR),
+    PERSIST_315("PERSIST_315", "the ''{0}'' field of an outbox entity must be of the ''{1}'' type, found ''{2}''",
+            ERROR),
+    PERSIST_316("PERSIST_316", "an outbox entity must only have the ''id'' field as its identity field and " +
+            "cannot have relation fields", ERROR),
 
 
-    PERSIST_401("PERSIST_401", "an entity cannot reference itself in a relation field", ERROR),
+    PERSIST_401("PERSIST_401", "a self-referencing relation must have a ''{0}'' or ''{0}?'' field referring to " +
+            "the parent record and a ''{0}[]'' field holding the child records", ERROR),
     PERSIST_402("PERSIST_402",
             "the related entity ''{0}'' does not have the corresponding relation field", ERROR),
     PERSIST_403("PERSIST_403", "All relation between two entities should have a single owner", ERROR),
@@ -66,10 +79,18 @@ public enum DiagnosticsCodes {
     PERSIST_405("PERSIST_405", "1-1 relationship should have only one nillable relation field", ERROR),
     PERSIST_406("PERSIST_406", "1-n relationship does not support nillable relation field", ERROR),
 
-    PERSIST_420("PERSIST_420", "many-to-many relation is not supported yet", ERROR),
+    PERSIST_420("PERSIST_420", "many-to-many relation is not supported by the ''{0}'' datastore", ERROR),
+    PERSIST_421("PERSIST_421", "the join table ''{0}'' of the many-to-many relation is already used by another " +
+            "relation or entity", ERROR),
     PERSIST_422("PERSIST_422",
             "the entity should not contain foreign key field ''{0}'' for relation ''{1}''",
             ERROR),
+    PERSIST_423("PERSIST_423", "the relation owners of the entities form the cycle ''{0}'', hence a graph of " +
+            "their records cannot be inserted", WARNING),
+    PERSIST_424("PERSIST_424", "a delete policy can only be set on the relation field of the owner of the relation",
+            ERROR),
+    PERSIST_425("PERSIST_425", "the records of a cached entity cannot be deleted by a cascade, as the cascaded " +
+            "deletes do not remove them from the cache", ERROR),
     PERSIST_501("PERSIST_501", "''{0}'' entity must have at least one identity readonly field", ERROR),
     PERSIST_502("PERSIST_502", "an identity field cannot be nillable", ERROR),
     PERSIST_503("PERSIST_503", "only ''int'', ''string'', ''float'', ''boolean'', ''decimal'' " +
@@ -27,9 +27,13 @@ import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeNotNillable;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToBoolean;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToByteArray;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToDecimal;
+import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToDecimalArray;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToFloat;
+import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToFloatArray;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToInt;
+import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToIntArray;
 import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToString;
+import io.ballerina.stdlib.persist.compiler.codeaction.ChangeTypeToStringArray;
 import io.ballerina.stdlib.persist.compiler.codeaction.RemoveDiagnosticLocation;
 import io.ballerina.stdlib.persist.compiler.codeaction.RemoveTextRange;
 import io.ballerina.stdlib.persist.compiler.codeaction.SwitchRelationOwner;
@@ -59,6 +63,10 @@ public class PersistCompilerPlugin extends CompilerPlugin {
                 new ChangeTypeToFloat(),
                 new ChangeTypeToDecimal(),
                 new ChangeTypeToByteArray(),
+                new ChangeTypeToIntArray(),
+                new ChangeTypeToStringArray(),
+                new ChangeTypeToDecimalArray(),
+                new ChangeTypeToFloatArray(),
                 new SwitchRelationOwner(),
                 new ChangeTypeNotNillable()
         );
@@ -48,6 +48,7 @@ import io.ballerina.stdlib.persist.compiler.model.IdentityField;
 import io.ballerina.stdlib.persist.compiler.model.RelationField;
 import io.ballerina.stdlib.persist.compiler.model.RelationType;
 import io.ballerina.stdlib.persist.compiler.model.SimpleTypeField;
+import io.ballerina.stdlib.persist.compiler.utils.InsertOrder;
 import io.ballerina.stdlib.persist.compiler.utils.ValidatorsByDatastore;
 import io.ballerina.tools.diagnostics.DiagnosticFactory;
 import io.ballerina.tools.diagnostics.DiagnosticInfo;
@@ -61,9 +62,12 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import static io.ballerina.stdlib.persist.compiler.Constants.ANNOTATION_REFS_FIELD;
 import static io.ballerina.stdlib.persist.compiler.Constants.BallerinaTypes.BOOLEAN;
@@ -82,6 +86,7 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_101;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_102;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_201;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_202;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_203;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_301;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_302;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_303;
@@ -90,6 +95,13 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_305;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_306;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_307;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_309;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_310;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_311;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_312;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_313;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_314;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_315;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_316;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_401;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_402;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_403;
@@ -97,7 +109,11 @@ import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_404;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_405;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_406;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_420;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_421;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_422;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_423;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_424;
+import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_425;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_501;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_502;
 import static io.ballerina.stdlib.persist.compiler.DiagnosticsCodes.PERSIST_503;
@@ -107,6 +123,7 @@ import static io.ballerina.stdlib.persist.compiler.model.RelationType.ONE_TO_ONE
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.getDatastore;
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.getFieldName;
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.getTypeName;
+import static io.ballerina.stdlib.persist.compiler.utils.Utils.hasAnnotation;
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.hasCompilationErrors;
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.readStringArrayValueFromAnnotation;
 import static io.ballerina.stdlib.persist.compiler.utils.Utils.stripEscapeCharacter;
@@ -115,11 +132,27 @@ import static io.ballerina.stdlib.persist.compiler.utils.Utils.stripEscapeCharac
  * Persist model definition validator.
  */
 public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeAnalysisContext> {
+    private static final String OUTBOX_ID_FIELD = "id";
+    private static final Map<String, String> OUTBOX_FIELDS = new LinkedHashMap<>();
+    static {
+        OUTBOX_FIELDS.put(OUTBOX_ID_FIELD, Constants.BallerinaTypes.STRING);
+        OUTBOX_FIELDS.put("entity", Constants.BallerinaTypes.STRING);
+        OUTBOX_FIELDS.put("operation", Constants.BallerinaTypes.STRING);
+        OUTBOX_FIELDS.put("key", Constants.BallerinaTypes.STRING);
+        OUTBOX_FIELDS.put("payload", Constants.BallerinaTypes.STRING);
+        OUTBOX_FIELDS.put("createdAt", Constants.BallerinaTypes.INT);
+        OUTBOX_FIELDS.put("sequence", Constants.BallerinaTypes.INT);
+        OUTBOX_FIELDS.put("processed", Constants.BallerinaTypes.BOOLEAN);
+        OUTBOX_FIELDS.put("leasedUntil", Constants.BallerinaTypes.INT);
+    }
+
     private final Map<String, Entity> entities = new HashMap<>();
     private final List<String> entityNames = new ArrayList<>();
     private final List<String> enumTypes = new ArrayList<>();
     private final Map<String, List<RelationField>> deferredRelationKeyEntities = new HashMap<>();
     private final Map<String, List<GroupedRelationField>> deferredGroupedRelationKeyEntities = new HashMap<>();
+    private final Set<String> joinTables = new HashSet<>();
+    private String datastore;
 
     @Override
     public void perform(SyntaxNodeAnalysisContext ctx) {
@@ -137,6 +170,7 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         } catch (BalException e) {
             throw new RuntimeException(e);
         }
+        this.datastore = datastore;
 
         if (ctx.node() instanceof ImportPrefixNode) {
             Token prefix = ((ImportPrefixNode) ctx.node()).prefix();
@@ -193,6 +227,10 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
                     ((RecordTypeDescriptorNode) typeDescriptorNode), annotations);
             validateEntityRecordProperties(entity);
             validateEntityFields(entity, datastore);
+            validateMeasureFields(entity);
+            validateVersionField(entity);
+            validateCachedEntity(entity, datastore);
+            validateOutboxEntity(entity);
             validateIdentityFields(entity);
             validateEntityRelations(entity);
 
@@ -212,6 +250,7 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
             this.entities.put(entityName, entity);
             entity.getDiagnostics().forEach(ctx::reportDiagnostic);
         }
+        validateInsertOrder(ctx);
     }
 
     private void validateEntityRecordProperties(Entity entity) {
@@ -386,7 +425,8 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
                 }
             }
             if (isIdentityField) {
-                identityField.setType(fieldType);
+                // An array field, which some datastores store in a native array column, cannot be an identity field
+                identityField.setType(isArrayType ? fieldType + Constants.ARRAY : fieldType);
                 identityField.setValidType(isValidType);
                 identityField.setNullable(isOptionalType);
                 identityField.setNullableStartOffset(nullableStartOffset);
@@ -403,6 +443,129 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         }
     }
 
+    private void validateMeasureFields(Entity entity) {
+        // Aggregations are executed in the datastore, hence only numeric fields can be marked as measures
+        for (SimpleTypeField field : entity.getNonRelationFields()) {
+            if (!field.isValidType() || !hasAnnotation(field.getAnnotations(), Constants.MEASURE_ANNOTATION_NAME)) {
+                continue;
+            }
+            if (field.isArrayType() || !getAggregatableTypes().contains(field.getType())) {
+                String fieldType = field.isArrayType() ? field.getType() + Constants.ARRAY : field.getType();
+                entity.reportDiagnostic(PERSIST_310.getCode(), MessageFormat.format(PERSIST_310.getMessage(),
+                        field.isNullable() ? fieldType + "?" : fieldType), PERSIST_310.getSeverity(),
+                        field.getTypeLocation());
+            }
+        }
+    }
+
+    private void validateVersionField(Entity entity) {
+        // Updates are conditional on the version field, which is incremented by the datastore on each update
+        boolean hasVersionField = false;
+        for (SimpleTypeField field : entity.getNonRelationFields()) {
+            if (!hasAnnotation(field.getAnnotations(), Constants.VERSION_ANNOTATION_NAME)) {
+                continue;
+            }
+            if (hasVersionField) {
+                entity.reportDiagnostic(PERSIST_312.getCode(), PERSIST_312.getMessage(), PERSIST_312.getSeverity(),
+                        field.getTypeLocation());
+                continue;
+            }
+            hasVersionField = true;
+            if (field.isValidType() && (field.isNullable() || field.isArrayType() || !field.getType().equals(INT))) {
+                String fieldType = field.isArrayType() ? field.getType() + Constants.ARRAY : field.getType();
+                entity.reportDiagnostic(PERSIST_311.getCode(), MessageFormat.format(PERSIST_311.getMessage(),
+                        field.isNullable() ? fieldType + "?" : fieldType), PERSIST_311.getSeverity(),
+                        field.getTypeLocation());
+            }
+        }
+    }
+
+    private void validateCachedEntity(Entity entity, String datastore) {
+        // A cached entity is stored in the redis cache as well, hence its fields must be supported by both datastores
+        if (!hasAnnotation(entity.getAnnotations(), Constants.CACHED_ANNOTATION_NAME)) {
+            return;
+        }
+        if (!datastore.equals(Constants.Datastores.MYSQL) && !datastore.equals(Constants.Datastores.MSSQL) &&
+                !datastore.equals(Constants.Datastores.POSTGRESQL)) {
+            entity.reportDiagnostic(PERSIST_203.getCode(), MessageFormat.format(PERSIST_203.getMessage(),
+                    datastore), PERSIST_203.getSeverity(), entity.getEntityNameLocation());
+            return;
+        }
+        for (SimpleTypeField field : entity.getNonRelationFields()) {
+            if (!field.isValidType()) {
+                continue;
+            }
+            String fieldType = field.getType();
+            boolean isValidCacheType;
+            if (field.isArrayType()) {
+                isValidCacheType = ValidatorsByDatastore.isValidArrayType(fieldType, Constants.Datastores.REDIS);
+                fieldType = fieldType + Constants.ARRAY;
+            } else if (fieldType.contains(":")) {
+                String[] qualifiedName = fieldType.split(":", 2);
+                isValidCacheType = ValidatorsByDatastore.isValidImportedType(qualifiedName[0], qualifiedName[1],
+                        Constants.Datastores.REDIS);
+            } else {
+                isValidCacheType = ValidatorsByDatastore.isValidSimpleType(
+                        this.enumTypes.contains(fieldType) ? Constants.BallerinaTypes.ENUM : fieldType,
+                        Constants.Datastores.REDIS);
+            }
+            if (field.isNullable()) {
+                isValidCacheType = false;
+                fieldType = fieldType + "?";
+            }
+            if (!isValidCacheType) {
+                entity.reportDiagnostic(PERSIST_313.getCode(), MessageFormat.format(PERSIST_313.getMessage(),
+                        fieldType), PERSIST_313.getSeverity(), field.getTypeLocation());
+            }
+        }
+        // The datastore deletes the records of a cascade on its own, hence the cache never learns of these deletes
+        for (RelationField relationField : entity.getRelationFields().values()) {
+            if (isCascaded(relationField)) {
+                entity.reportDiagnostic(PERSIST_425.getCode(), PERSIST_425.getMessage(), PERSIST_425.getSeverity(),
+                        relationField.getLocation());
+            }
+        }
+    }
+
+    private static boolean isCascaded(RelationField relationField) {
+        if (!hasAnnotation(relationField.getAnnotations(), Constants.CASCADE_ANNOTATION_NAME)) {
+            return false;
+        }
+        List<String> deletePolicy = readStringArrayValueFromAnnotation(relationField.getAnnotations(),
+                Constants.CASCADE_ANNOTATION_NAME, Constants.ANNOTATION_ON_DELETE_FIELD);
+        return deletePolicy.stream().noneMatch(policy -> policy.endsWith(Constants.RESTRICT_DELETE_POLICY));
+    }
+
+    private void validateOutboxEntity(Entity entity) {
+        // The outbox relay reads and marks the outbox records through these fields
+        if (!hasAnnotation(entity.getAnnotations(), Constants.OUTBOX_ANNOTATION_NAME)) {
+            return;
+        }
+        if (entity.isContainsRelations() || entity.getIdentityFields().size() != 1 ||
+                !entity.getIdentityFieldNames().contains(OUTBOX_ID_FIELD)) {
+            entity.reportDiagnostic(PERSIST_316.getCode(), PERSIST_316.getMessage(), PERSIST_316.getSeverity(),
+                    entity.getEntityNameLocation());
+        }
+        Map<String, SimpleTypeField> fields = new HashMap<>();
+        entity.getNonRelationFields().forEach(field -> fields.put(field.getName(), field));
+        for (Map.Entry<String, String> requiredField : OUTBOX_FIELDS.entrySet()) {
+            SimpleTypeField field = fields.get(requiredField.getKey());
+            if (field == null) {
+                entity.reportDiagnostic(PERSIST_314.getCode(), MessageFormat.format(PERSIST_314.getMessage(),
+                        requiredField.getKey(), requiredField.getValue()), PERSIST_314.getSeverity(),
+                        entity.getEntityNameLocation());
+                continue;
+            }
+            String fieldType = field.getType() + (field.isArrayType() ? Constants.ARRAY : "") +
+                    (field.isNullable() ? "?" : "");
+            if (!fieldType.equals(requiredField.getValue())) {
+                entity.reportDiagnostic(PERSIST_315.getCode(), MessageFormat.format(PERSIST_315.getMessage(),
+                        requiredField.getKey(), requiredField.getValue(), fieldType), PERSIST_315.getSeverity(),
+                        field.getTypeLocation());
+            }
+        }
+    }
+
     private void validateIdentityFields(Entity entity) {
         if (entity.getIdentityFields().isEmpty()) {
             entity.reportDiagnostic(PERSIST_501.getCode(), MessageFormat.format(PERSIST_501.getMessage(),
@@ -450,6 +613,12 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         );
     }
 
+    private List<String> getAggregatableTypes() {
+        return List.of(
+                INT, DECIMAL, FLOAT
+        );
+    }
+
     private void validateEntityRelations(Entity entity) {
         if (!entity.isContainsRelations()) {
             return;
@@ -459,9 +628,8 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
             String referredEntity = relationField.getType();
 
             if (referredEntity.equals(relationField.getContainingEntity())) {
-                entity.reportDiagnostic(PERSIST_401.getCode(), PERSIST_401.getMessage(),
-                        PERSIST_401.getSeverity(), relationField.getLocation());
-                break;
+                reportIncompleteSelfRelation(relationField, entity);
+                continue;
             }
 
             if (this.entities.containsKey(referredEntity)) {
@@ -481,11 +649,8 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         for (GroupedRelationField relationField : entity.getGroupedRelationFields().values()) {
             String referredEntity = relationField.getRelationFields().get(0).getType();
             if (referredEntity.equals(relationField.getContainingEntity())) {
-                relationField.getRelationFields()
-                        .forEach((field) -> entity.reportDiagnostic(PERSIST_401.getCode(), PERSIST_401.getMessage(),
-                                PERSIST_401.getSeverity(), field.getLocation())
-                        );
-                break;
+                validateSelfRelation(relationField, entity);
+                continue;
             }
 
             if (this.entities.containsKey(referredEntity)) {
@@ -503,6 +668,57 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         }
     }
 
+    private void validateSelfRelation(GroupedRelationField groupedRelationField, Entity entity) {
+        // A self-referencing relation is a 1-n relation of the entity with itself. The parent field is the owner,
+        // and it may be nillable, as the root records of the hierarchy do not have a parent
+        RelationField parentField = null;
+        RelationField childrenField = null;
+        boolean isValid = groupedRelationField.getRelationFields().size() == 2;
+        for (RelationField field : groupedRelationField.getRelationFields()) {
+            if (field.isArrayType() && childrenField == null) {
+                childrenField = field;
+            } else if (!field.isArrayType() && parentField == null) {
+                parentField = field;
+            } else {
+                isValid = false;
+            }
+        }
+        if (!isValid || parentField == null || childrenField == null) {
+            groupedRelationField.getRelationFields().forEach(field -> entity.reportDiagnostic(PERSIST_401.getCode(),
+                    MessageFormat.format(PERSIST_401.getMessage(), entity.getEntityName()),
+                    PERSIST_401.getSeverity(), field.getLocation()));
+            return;
+        }
+        validateNillableTypeFor1ToMany(childrenField, entity);
+        parentField.setRelationType(ONE_TO_MANY);
+        parentField.setOwnerIdentifiable(true);
+        parentField.setOwner(entity.getEntityName());
+        validatePresenceOfForeignKey(parentField, entity, entity, entity);
+        validateDeletePolicy(childrenField, entity);
+    }
+
+    private void reportIncompleteSelfRelation(RelationField relationField, Entity entity) {
+        entity.reportDiagnostic(PERSIST_401.getCode(),
+                MessageFormat.format(PERSIST_401.getMessage(), entity.getEntityName()),
+                PERSIST_401.getSeverity(), relationField.getLocation());
+
+        NodeList<Node> fields = entity.getTypeDescriptorNode().fields();
+        ArrayList<String> fieldNames = new ArrayList<>();
+        for (Node field : fields) {
+            fieldNames.add(((RecordFieldNode) field).fieldName().text());
+        }
+        int addFieldLocation = fields.get(fields.size() - 1).location().textRange().endOffset();
+        String relation = relationField.isArrayType() ? "parent" : "children";
+        String fieldType = relationField.isArrayType() ? entity.getEntityName() + "?" : entity.getEntityName() + "[]";
+        entity.reportDiagnostic(PERSIST_005.getCode(), PERSIST_005.getMessage(), PERSIST_005.getSeverity(),
+                relationField.getLocation(), List.of(
+                        new BNumericProperty(addFieldLocation),
+                        new BStringProperty(MessageFormat.format("Add corresponding {0} relation field in ''{1}'' " +
+                                "entity", relation, entity.getEntityName())),
+                        new BStringProperty(MessageFormat.format(LS + "\t{0} {1};", fieldType,
+                                getFieldName(relation, fieldNames)))));
+    }
+
     private void removeDeferredRelationsFromFirstEntity(Entity entity, String referredEntity) {
         if (this.deferredRelationKeyEntities.containsKey(entity.getEntityName())) {
             List<RelationField> referredFields =
@@ -689,9 +905,11 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
                 if (processingField.isOptionalType()) {
                     validatePresenceOfForeignKey(referredField, referredEntity, processingEntity,
                             reportDiagnosticsEntity);
+                    validateDeletePolicy(processingField, reportDiagnosticsEntity);
                 } else {
                     validatePresenceOfForeignKey(processingField, processingEntity, referredEntity,
                             reportDiagnosticsEntity);
+                    validateDeletePolicy(referredField, reportDiagnosticsEntity);
                 }
             }
             return;
@@ -699,14 +917,19 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
 
         // n:m relations
         if (processingField.isArrayType() && referredField.isArrayType()) {
-            reportDiagnosticsEntity.reportDiagnostic(PERSIST_420.getCode(),
-                    MessageFormat.format(PERSIST_420.getMessage(), referredEntity.getEntityName()),
-                    PERSIST_420.getSeverity(), processingField.getLocation());
-            reportDiagnosticsEntity.reportDiagnostic(PERSIST_420.getCode(),
-                    MessageFormat.format(PERSIST_420.getMessage(), referredEntity.getEntityName()),
-                    PERSIST_420.getSeverity(), referredField.getLocation());
+            // Neither entity holds a foreign key, as the relation is stored in an implicit join table
             processingField.setOwnerIdentifiable(false);
             processingField.setRelationType(MANY_TO_MANY);
+            if (!ValidatorsByDatastore.isManyToManySupported(this.datastore)) {
+                reportDiagnosticsEntity.reportDiagnostic(PERSIST_420.getCode(),
+                        MessageFormat.format(PERSIST_420.getMessage(), this.datastore),
+                        PERSIST_420.getSeverity(), processingField.getLocation());
+                reportDiagnosticsEntity.reportDiagnostic(PERSIST_420.getCode(),
+                        MessageFormat.format(PERSIST_420.getMessage(), this.datastore),
+                        PERSIST_420.getSeverity(), referredField.getLocation());
+                return;
+            }
+            validateJoinTable(processingField, processingEntity, referredEntity, reportDiagnosticsEntity);
             return;
         }
 
@@ -724,8 +947,24 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         }
         if (!processingField.isArrayType()) {
             validatePresenceOfForeignKey(processingField, processingEntity, referredEntity, reportDiagnosticsEntity);
+            validateDeletePolicy(referredField, reportDiagnosticsEntity);
         } else {
             validatePresenceOfForeignKey(referredField, referredEntity, processingEntity, reportDiagnosticsEntity);
+            validateDeletePolicy(processingField, reportDiagnosticsEntity);
+        }
+    }
+
+    private void validateJoinTable(RelationField processingField, Entity processingEntity, Entity referredEntity,
+                                   Entity reportDiagnosticsEntity) {
+        // The join table is named after the two entities in alphabetical order, so that both sides of the relation
+        // resolve the same table
+        String joinTable = processingEntity.getEntityName().compareTo(referredEntity.getEntityName()) < 0 ?
+                processingEntity.getEntityName() + referredEntity.getEntityName() :
+                referredEntity.getEntityName() + processingEntity.getEntityName();
+        if (this.entityNames.contains(joinTable) || !this.joinTables.add(joinTable)) {
+            reportDiagnosticsEntity.reportDiagnostic(PERSIST_421.getCode(),
+                    MessageFormat.format(PERSIST_421.getMessage(), joinTable), PERSIST_421.getSeverity(),
+                    processingField.getLocation());
         }
     }
 
@@ -853,6 +1092,46 @@ public class PersistModelDefinitionValidator implements AnalysisTask<SyntaxNodeA
         }
     }
 
+    private void validateDeletePolicy(RelationField nonOwnerRelationField, Entity reportDiagnosticsEntity) {
+        // The delete policy is applied by the foreign key of the owner, hence it is set on the relation field of the
+        // owner, along with its `sql:Relation` mapping
+        if (hasAnnotation(nonOwnerRelationField.getAnnotations(), Constants.CASCADE_ANNOTATION_NAME)) {
+            reportDiagnosticsEntity.reportDiagnostic(PERSIST_424.getCode(), PERSIST_424.getMessage(),
+                    PERSIST_424.getSeverity(), nonOwnerRelationField.getLocation());
+        }
+    }
+
+    private void validateInsertOrder(SyntaxNodeAnalysisContext ctx) {
+        // The owner of a relation holds the foreign key, hence the records of the entity it refers to are inserted
+        // before its records. A cycle of owners leaves no order in which a graph of records can be inserted
+        InsertOrder insertOrder = new InsertOrder();
+        for (String entityName : this.entityNames) {
+            Entity entity = this.entities.get(entityName);
+            if (entity == null) {
+                continue;
+            }
+            List<RelationField> relationFields = new ArrayList<>(entity.getRelationFields().values());
+            entity.getGroupedRelationFields().values()
+                    .forEach(groupedField -> relationFields.addAll(groupedField.getRelationFields()));
+            for (RelationField relationField : relationFields) {
+                if (!relationField.isOwnerIdentifiable() || relationField.getOwner() == null) {
+                    continue;
+                }
+                String owner = relationField.getOwner();
+                insertOrder.addReference(owner, owner.equals(relationField.getContainingEntity()) ?
+                        relationField.getType() : relationField.getContainingEntity());
+            }
+        }
+
+        if (insertOrder.compute(this.entityNames) == null) {
+            List<String> cycle = insertOrder.getCycle();
+            Entity entity = this.entities.get(cycle.get(0));
+            ctx.reportDiagnostic(DiagnosticFactory.createDiagnostic(new DiagnosticInfo(PERSIST_423.getCode(),
+                    MessageFormat.format(PERSIST_423.getMessage(), String.join(" -> ", cycle)),
+                    PERSIST_423.getSeverity()), entity.getEntityNameLocation()));
+        }
+    }
+
     private boolean isPersistModelDefinitionDocument(SyntaxNodeAnalysisContext ctx) {
         try {
             if (ctx.currentPackage().project().kind().equals(ProjectKind.SINGLE_FILE_PROJECT)) {
@@ -35,6 +35,10 @@ public enum PersistCodeActionName {
     CHANGE_TYPE_TO_BOOLEAN("CHANGE_TYPE_TO_BOOLEAN"),
     CHANGE_TYPE_TO_DECIMAL("CHANGE_TYPE_TO_DECIMAL"),
     CHANGE_TYPE_TO_BYTE_ARRAY("CHANGE_TYPE_TO_BYTE_ARRAY"),
+    CHANGE_TYPE_TO_INT_ARRAY("CHANGE_TYPE_TO_INT_ARRAY"),
+    CHANGE_TYPE_TO_STRING_ARRAY("CHANGE_TYPE_TO_STRING_ARRAY"),
+    CHANGE_TYPE_TO_DECIMAL_ARRAY("CHANGE_TYPE_TO_DECIMAL_ARRAY"),
+    CHANGE_TYPE_TO_FLOAT_ARRAY("CHANGE_TYPE_TO_FLOAT_ARRAY"),
     CHANGE_TYPE_TO_NOT_NILLABLE("CHANGE_TYPE_TO_NOT_NILLABLE");
 
     private final String name;
@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package io.ballerina.stdlib.persist.compiler.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the order in which the records of the entities of a model are inserted, so that each entity is inserted
+ * after the entities it refers to through the relations it owns, as the owner of a relation holds the foreign key.
+ * A cycle of owners leaves no such order, hence a graph of records of such entities cannot be inserted.
+ *
+ * @since 1.3.0
+ */
+public class InsertOrder {
+
+    private final Map<String, List<String>> referredEntities = new LinkedHashMap<>();
+    private List<String> cycle;
+
+    /**
+     * Adds a relation, which the given entity owns.
+     *
+     * @param owner          the entity owning the relation
+     * @param referredEntity the entity referred to by the relation
+     */
+    public void addReference(String owner, String referredEntity) {
+        List<String> ownerReferredEntities = referredEntities.computeIfAbsent(owner, key -> new ArrayList<>());
+        if (!owner.equals(referredEntity) && !ownerReferredEntities.contains(referredEntity)) {
+            ownerReferredEntities.add(referredEntity);
+        }
+    }
+
+    /**
+     * Returns the given entities and the entities they refer to, each listed after the entities it refers to.
+     *
+     * @param entities the entities, in the order in which the independent entities are listed
+     * @return the entities in the order in which their records are inserted, or `null` if the owners form a cycle
+     */
+    public List<String> compute(Collection<String> entities) {
+        cycle = null;
+        List<String> insertOrder = new ArrayList<>();
+        List<String> path = new ArrayList<>();
+        for (String entity : entities) {
+            if (!visit(entity, insertOrder, path)) {
+                return null;
+            }
+        }
+        return insertOrder;
+    }
+
+    /**
+     * Returns the cycle found by the last computation, which starts and ends with the same entity.
+     *
+     * @return the entities of the cycle, or `null` if there is no cycle
+     */
+    public List<String> getCycle() {
+        return cycle;
+    }
+
+    private boolean visit(String entity, List<String> insertOrder, List<String> path) {
+        if (insertOrder.contains(entity)) {
+            return true;
+        }
+        int pathIndex = path.indexOf(entity);
+        if (pathIndex >= 0) {
+            cycle = new ArrayList<>(path.subList(pathIndex, path.size()));
+            cycle.add(entity);
+            return false;
+        }
+        path.add(entity);
+        for (String referredEntity : referredEntities.getOrDefault(entity, Collections.emptyList())) {
+            if (!visit(referredEntity, insertOrder, path)) {
+                return false;
+            }
+        }
+        path.remove(path.size() - 1);
+        insertOrder.add(entity);
+        return true;
+    }
+}
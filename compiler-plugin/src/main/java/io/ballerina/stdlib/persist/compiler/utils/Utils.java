@@ -269,4 +269,13 @@ public final class Utils {
         }
         return Collections.emptyList();
     }
+
+    public static boolean hasAnnotation(List<AnnotationNode> annotationNodes, String annotation) {
+        for (AnnotationNode annotationNode : annotationNodes) {
+            if (annotationNode.annotReference().toSourceCode().trim().equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
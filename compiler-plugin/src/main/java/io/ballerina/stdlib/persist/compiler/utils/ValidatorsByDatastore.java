@@ -184,6 +184,20 @@ public final class ValidatorsByDatastore {
         }
     }
 
+    public static boolean isManyToManySupported(String datastore) {
+        // The SQL datastores store a many-to-many relation in a join table, and the in-memory datastore in a join
+        // index
+        switch (datastore) {
+            case Constants.Datastores.MYSQL:
+            case Constants.Datastores.MSSQL:
+            case Constants.Datastores.POSTGRESQL:
+            case Constants.Datastores.IN_MEMORY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     public static boolean isValidMysqlType(String type) {
         switch (type) {
             case INT:
@@ -279,6 +293,10 @@ public final class ValidatorsByDatastore {
     public static boolean isValidPostgresqlArrayType(String type) {
         switch (type) {
             case BYTE:
+            case INT:
+            case STRING:
+            case DECIMAL:
+            case FLOAT:
                 return true;
             default:
                 return false;
@@ -0,0 +1,182 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getEntity;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * This class provides the aggregate reads of the generated clients. The aggregations are validated against the
+ * fields of the entity type and given their default aliases here, and are executed in the datastore through the
+ * `runAggregateQuery` method of the datastore client, so that only the aggregated rows are returned to the
+ * application. Only the `int`, `float` and `decimal` fields, including their optional forms, can be aggregated with
+ * a function other than `COUNT`.
+ *
+ * @since 1.3.0
+ */
+public class AggregateProcessor {
+
+    private static final String AGGREGATION = "Aggregation";
+    private static final String FUNCTION = "function";
+    private static final String FIELD = "field";
+    private static final String ALIAS = "alias";
+    private static final String COUNT = "COUNT";
+
+    private static final Type RETURN_TYPE = TypeCreator.createUnionType(
+            TypeCreator.createArrayType(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA)),
+            PredefinedTypes.TYPE_ERROR);
+
+    private AggregateProcessor() {
+    }
+
+    public static Object aggregate(Environment env, BObject client, BArray aggregations, BArray groupBy,
+                                   Object filter, BTypedesc entityType) {
+        // This method will return `map<anydata>[]|persist:Error`
+        if (aggregations.size() == 0) {
+            return ErrorGenerator.getBasicPersistError("At least one aggregation must be provided.");
+        }
+        Map<String, Field> entityFields = ((RecordType) TypeUtils.getReferredType(entityType.getDescribingType()))
+                .getFields();
+        Set<String> columns = new HashSet<>();
+        for (String field : groupBy.getStringArray()) {
+            if (!entityFields.containsKey(field)) {
+                return ErrorGenerator.getBasicPersistError(
+                        String.format("The grouped field '%s' does not exist in the entity.", field));
+            }
+            if (!columns.add(field)) {
+                return ErrorGenerator.getBasicPersistError(
+                        String.format("The field '%s' is grouped by more than once.", field));
+            }
+        }
+
+        List<BMap<BString, Object>> resolvedAggregations = new ArrayList<>(aggregations.size());
+        for (int i = 0; i < aggregations.size(); i++) {
+            BMap<?, ?> aggregation = (BMap<?, ?>) aggregations.get(i);
+            String function = aggregation.get(StringUtils.fromString(FUNCTION)).toString();
+            Object field = aggregation.get(StringUtils.fromString(FIELD));
+            Object alias = aggregation.get(StringUtils.fromString(ALIAS));
+            if (field == null && !COUNT.equals(function)) {
+                return ErrorGenerator.getBasicPersistError(
+                        String.format("A field must be provided for the '%s' aggregation.", function));
+            }
+            if (field != null) {
+                BError fieldError = validateAggregatedField(entityFields.get(field.toString()), field.toString(),
+                        function);
+                if (fieldError != null) {
+                    return fieldError;
+                }
+            }
+            String resolvedAlias = alias != null ? alias.toString() : getDefaultAlias(function, field);
+            if (!columns.add(resolvedAlias)) {
+                return ErrorGenerator.getBasicPersistError(String.format(
+                        "The aggregation alias '%s' conflicts with another aggregation or grouped field.",
+                        resolvedAlias));
+            }
+
+            Map<String, Object> values = new HashMap<>();
+            values.put(FUNCTION, StringUtils.fromString(function));
+            if (field != null) {
+                values.put(FIELD, field);
+            }
+            values.put(ALIAS, StringUtils.fromString(resolvedAlias));
+            resolvedAggregations.add(ValueCreator.createRecordValue(getModule(), AGGREGATION, values));
+        }
+        // The array is typed with the `persist:Aggregation` record type of the module, taken from its records
+        BArray aggregationArray = ValueCreator.createArrayValue(
+                TypeCreator.createArrayType(resolvedAggregations.get(0).getType()));
+        resolvedAggregations.forEach(aggregationArray::append);
+
+        BString entity = getEntity(env);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "aggregation");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        return PersistClientInvoker.invoke(env, ReplicaRouter.routeRead(env, persistClient),
+                Constants.RUN_AGGREGATE_QUERY_METHOD, RETURN_TYPE, aggregationArray, groupBy, filter);
+    }
+
+    private static BError validateAggregatedField(Field entityField, String field, String function) {
+        if (entityField == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The aggregated field '%s' does not exist in the entity.", field));
+        }
+        if (COUNT.equals(function) || isNumeric(entityField.getFieldType())) {
+            return null;
+        }
+        return ErrorGenerator.getBasicPersistError(String.format("The field '%s' cannot be aggregated with '%s', " +
+                "as only 'int', 'float' and 'decimal' fields can be aggregated.", field, function));
+    }
+
+    private static boolean isNumeric(Type type) {
+        Type fieldType = TypeUtils.getReferredType(type);
+        if (fieldType.getTag() == TypeTags.UNION_TAG) {
+            // An optional numeric field can be aggregated, as the datastores skip the nil values
+            for (Type memberType : ((UnionType) fieldType).getMemberTypes()) {
+                if (memberType.getTag() != TypeTags.NULL_TAG && !isNumeric(memberType)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return TypeTags.isIntegerTypeTag(fieldType.getTag()) || fieldType.getTag() == TypeTags.FLOAT_TAG ||
+                fieldType.getTag() == TypeTags.DECIMAL_TAG;
+    }
+
+    private static String getDefaultAlias(String function, Object field) {
+        // e.g. `count` for a count of the records and `sumSalary` for the sum of the `salary` field
+        String prefix = function.toLowerCase(Locale.ROOT);
+        if (field == null) {
+            return prefix;
+        }
+        String fieldName = field.toString();
+        return prefix + fieldName.substring(0, 1).toUpperCase(Locale.ROOT) + fieldName.substring(1);
+    }
+}
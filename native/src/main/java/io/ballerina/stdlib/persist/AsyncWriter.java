@@ -0,0 +1,398 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.TypeChecker;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.cache.CacheInvalidator;
+import io.ballerina.stdlib.persist.changes.ChangeCapture;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getCurrentTransactionContext;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Inserts the records of an entity asynchronously. The records are queued and inserted in micro-batches, which are
+ * dispatched once they reach the maximum batch size or once the linger time of their first record elapses. Up to
+ * the configured number of batches are in flight at a time, so that the round trips of the batches overlap.
+ * <p>
+ * Each insert returns a receipt, which completes with the result of the batch of the record. The queue is bounded:
+ * an insert waits while the queue is full, so that the producers are held back by the datastore. A flush dispatches
+ * the queued records at once and completes when all the records queued before it are inserted, so that a producer
+ * can acknowledge its upstream messages only after they are durable.
+ * <p>
+ * The batches go through the same hooks as the direct inserts. The sessions of the inserted records are recorded as
+ * writers for read-your-writes once the batch is inserted, and the records are written to the cache tier of the
+ * entity with write-through.
+ *
+ * @since 1.3.0
+ */
+public class AsyncWriter {
+
+    private static final String ASYNC_WRITER = "asyncWriter";
+    private static final String ASYNC_WRITER_CLASS = "AsyncWriter";
+    private static final String WRITE_RECEIPT_CLASS = "WriteReceipt";
+    private static final String BATCH = "batch";
+    private static final BString MAX_BATCH_SIZE = fromString("maxBatchSize");
+    private static final BString LINGER_TIME = fromString("lingerTime");
+    private static final BString QUEUE_CAPACITY = fromString("queueCapacity");
+    private static final BString MAX_IN_FLIGHT_BATCHES = fromString("maxInFlightBatches");
+    private static final UnionType OPTIONAL_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ANYDATA, PredefinedTypes.TYPE_ERROR);
+    private static final ScheduledExecutorService LINGER_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "persist-async-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Runtime runtime;
+    private final BObject client;
+    private final BString entity;
+    private final BObject persistClient;
+    private final Type insertType;
+    private final int maxBatchSize;
+    private final long lingerTime;
+    private final int queueCapacity;
+    private final int maxInFlightBatches;
+
+    private Batch currentBatch;
+    private final Deque<Batch> readyBatches = new ArrayDeque<>();
+    private final Set<Batch> inFlightBatches = new HashSet<>();
+    private final Deque<PendingInsert> blockedInserts = new ArrayDeque<>();
+    private int queuedRecords = 0;
+    private boolean closed = false;
+
+    private AsyncWriter(Runtime runtime, BObject client, BString entity, BObject persistClient, Type insertType,
+                        int maxBatchSize, long lingerTime, int queueCapacity, int maxInFlightBatches) {
+        this.runtime = runtime;
+        this.client = client;
+        this.entity = entity;
+        this.persistClient = persistClient;
+        this.insertType = insertType;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerTime = lingerTime;
+        this.queueCapacity = queueCapacity;
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public static Object createAsyncWriter(Environment env, BObject client, BString entity, BTypedesc insertType,
+                                           BMap<BString, Object> config) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "asynchronous insert");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        long maxBatchSize = config.getIntValue(MAX_BATCH_SIZE);
+        long queueCapacity = config.getIntValue(QUEUE_CAPACITY);
+        long maxInFlightBatches = config.getIntValue(MAX_IN_FLIGHT_BATCHES);
+        if (maxBatchSize <= 0 || queueCapacity <= 0 || maxInFlightBatches <= 0) {
+            return getBasicPersistError("The batch size, the queue capacity and the number of batches in flight " +
+                    "of an asynchronous writer should be positive.");
+        }
+        long lingerTime = ((BDecimal) config.get(LINGER_TIME)).decimalValue().multiply(BigDecimal.valueOf(1_000_000))
+                .longValue();
+        AsyncWriter writer = new AsyncWriter(env.getRuntime(), client, entity, persistClient,
+                insertType.getDescribingType(), (int) Math.min(maxBatchSize, Integer.MAX_VALUE),
+                Math.max(lingerTime, 0), (int) Math.min(Math.max(queueCapacity, maxBatchSize), Integer.MAX_VALUE),
+                (int) Math.min(maxInFlightBatches, Integer.MAX_VALUE));
+        BObject writerObject = ValueCreator.createObjectValue(getModule(), ASYNC_WRITER_CLASS);
+        writerObject.addNativeData(ASYNC_WRITER, writer);
+        return writerObject;
+    }
+
+    public static Object insert(Environment env, BObject writerObject, BMap<BString, Object> value) {
+        // This method will return `persist:WriteReceipt|persist:Error`
+        AsyncWriter writer = (AsyncWriter) writerObject.getNativeData(ASYNC_WRITER);
+        if (getCurrentTransactionContext() != null) {
+            return getBasicPersistError("The asynchronous inserts cannot be used within transactions.");
+        }
+        // The records are checked as they are queued, as a batch holds the records of the insert type only
+        if (!TypeChecker.checkIsType(value, writer.insertType)) {
+            return getBasicPersistError(String.format("The record is not of the insert type of the entity '%s'.",
+                    writer.entity));
+        }
+        Object sessionToken = ReplicaRouter.getSessionToken(env);
+        List<Batch> dispatched = new ArrayList<>();
+        Object result;
+        synchronized (writer) {
+            if (writer.closed) {
+                return getBasicPersistError("The asynchronous writer is closed.");
+            }
+            if (writer.queuedRecords < writer.queueCapacity && writer.blockedInserts.isEmpty()) {
+                result = writer.createReceipt(writer.add(value, sessionToken, dispatched));
+            } else {
+                writer.blockedInserts.add(new PendingInsert(env.markAsync(), value, sessionToken));
+                result = null;
+            }
+        }
+        dispatched.forEach(writer::dispatch);
+        return result;
+    }
+
+    public static Object flush(Environment env, BObject writerObject) {
+        // This method will return `persist:Error?`
+        AsyncWriter writer = (AsyncWriter) writerObject.getNativeData(ASYNC_WRITER);
+        List<Batch> dispatched = new ArrayList<>();
+        List<Batch> barrier;
+        synchronized (writer) {
+            // The inserts waiting for space are queued before the flush, so they are covered by it as well
+            writer.sealCurrentBatch();
+            barrier = new ArrayList<>(writer.inFlightBatches);
+            barrier.addAll(writer.readyBatches);
+            for (PendingInsert blockedInsert : writer.blockedInserts) {
+                barrier.add(blockedInsert.batchPromise);
+            }
+            writer.dispatchReady(dispatched);
+        }
+        dispatched.forEach(writer::dispatch);
+        if (barrier.isEmpty()) {
+            return null;
+        }
+        Future future = env.markAsync();
+        Barrier flushBarrier = new Barrier(barrier.size(), future);
+        barrier.forEach(batch -> batch.onComplete(flushBarrier::arrive));
+        return null;
+    }
+
+    public static Object close(Environment env, BObject writerObject) {
+        // This method will return `persist:Error?`
+        AsyncWriter writer = (AsyncWriter) writerObject.getNativeData(ASYNC_WRITER);
+        synchronized (writer) {
+            writer.closed = true;
+        }
+        return flush(env, writerObject);
+    }
+
+    public static Object awaitReceipt(Environment env, BObject receipt) {
+        // This method will return `persist:Error?`
+        Batch batch = (Batch) receipt.getNativeData(BATCH);
+        Future future = env.markAsync();
+        batch.onComplete(result -> future.complete(result instanceof BError ? result : null));
+        return null;
+    }
+
+    private BObject createReceipt(Batch batch) {
+        BObject receipt = ValueCreator.createObjectValue(getModule(), WRITE_RECEIPT_CLASS);
+        receipt.addNativeData(BATCH, batch);
+        return receipt;
+    }
+
+    private Batch add(BMap<BString, Object> value, Object sessionToken, List<Batch> dispatched) {
+        if (currentBatch == null) {
+            Batch batch = new Batch();
+            currentBatch = batch;
+            LINGER_EXECUTOR.schedule(() -> dispatchIfLingering(batch), lingerTime, TimeUnit.MICROSECONDS);
+        }
+        Batch batch = currentBatch;
+        batch.rows.add(value);
+        if (sessionToken != null) {
+            batch.sessionTokens.add(sessionToken);
+        }
+        queuedRecords++;
+        if (batch.rows.size() >= maxBatchSize) {
+            sealCurrentBatch();
+            dispatchReady(dispatched);
+        }
+        return batch;
+    }
+
+    private void sealCurrentBatch() {
+        if (currentBatch != null) {
+            readyBatches.add(currentBatch);
+            currentBatch = null;
+        }
+    }
+
+    private void dispatchReady(List<Batch> dispatched) {
+        while (inFlightBatches.size() < maxInFlightBatches && !readyBatches.isEmpty()) {
+            Batch batch = readyBatches.poll();
+            inFlightBatches.add(batch);
+            dispatched.add(batch);
+        }
+    }
+
+    private void dispatchIfLingering(Batch batch) {
+        List<Batch> dispatched = new ArrayList<>();
+        synchronized (this) {
+            if (currentBatch != batch) {
+                return;
+            }
+            sealCurrentBatch();
+            dispatchReady(dispatched);
+        }
+        dispatched.forEach(this::dispatch);
+    }
+
+    private void dispatch(Batch batch) {
+        BArray rows = batch.toArray();
+        Function<Object, Object> resultMapper = batch.createResultMapper(rows);
+        PersistClientInvoker.invokeDetached(runtime, persistClient, Constants.RUN_BATCH_INSERT_QUERY_METHOD,
+                OPTIONAL_RESULT_TYPE, result -> {
+                    Object mappedResult = resultMapper.apply(result);
+                    if (mappedResult instanceof DeferredResult) {
+                        ((DeferredResult) mappedResult).onReady(batchResult -> complete(batch, batchResult));
+                    } else {
+                        complete(batch, mappedResult);
+                    }
+                }, rows);
+    }
+
+    private void complete(Batch batch, Object result) {
+        List<Batch> dispatched = new ArrayList<>();
+        List<Runnable> admitted = new ArrayList<>();
+        synchronized (this) {
+            inFlightBatches.remove(batch);
+            queuedRecords -= batch.rows.size();
+            // The space freed by the batch is given to the waiting inserts in the order in which they arrived
+            while (queuedRecords < queueCapacity && !blockedInserts.isEmpty()) {
+                PendingInsert blockedInsert = blockedInserts.poll();
+                Batch receiptBatch = add(blockedInsert.value, blockedInsert.sessionToken, dispatched);
+                receiptBatch.onComplete(blockedInsert.batchPromise::complete);
+                admitted.add(() -> blockedInsert.future.complete(createReceipt(receiptBatch)));
+            }
+            dispatchReady(dispatched);
+        }
+        batch.complete(result);
+        admitted.forEach(Runnable::run);
+        dispatched.forEach(this::dispatch);
+    }
+
+    private class Batch {
+        private final List<BMap<BString, Object>> rows = new ArrayList<>();
+        private final Set<Object> sessionTokens = new HashSet<>();
+        private final List<Consumer<Object>> listeners = new ArrayList<>();
+        private Object result;
+        private boolean completed = false;
+
+        Function<Object, Object> createResultMapper(BArray insertedRows) {
+            // The batches are inserted on detached strands, outside transactions
+            CacheTier cacheTier = CacheTier.getCacheTier(persistClient);
+            Function<Object, Object> writeThroughMapper = cacheTier == null ? Function.identity() :
+                    cacheTier.getWriteThroughMapper(runtime, insertedRows);
+            return writeThroughMapper.andThen(insertResult -> {
+                // The sessions read their records from the primaries once they are inserted
+                sessionTokens.forEach(ReplicaRouter::recordWrite);
+                CacheInvalidator.invalidateResults(client, entity);
+                return insertResult instanceof BError ? insertResult : null;
+            }).andThen(ChangeCapture.captureOutsideTransaction(client,
+                    () -> QueryProcessor.getInsertChanges(persistClient, entity, insertedRows)));
+        }
+
+        void onComplete(Consumer<Object> listener) {
+            synchronized (this) {
+                if (!completed) {
+                    listeners.add(listener);
+                    return;
+                }
+            }
+            listener.accept(result);
+        }
+
+        void complete(Object batchResult) {
+            List<Consumer<Object>> completedListeners;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+                result = batchResult;
+                completedListeners = new ArrayList<>(listeners);
+                listeners.clear();
+            }
+            completedListeners.forEach(listener -> listener.accept(batchResult));
+        }
+
+        BArray toArray() {
+            BArray rowArray = ValueCreator.createArrayValue(TypeCreator.createArrayType(insertType));
+            rows.forEach(rowArray::append);
+            return rowArray;
+        }
+    }
+
+    private class PendingInsert {
+        private final Future future;
+        private final BMap<BString, Object> value;
+        private final Object sessionToken;
+        // Completes with the result of the batch, which the record is added to once the queue has space
+        private final Batch batchPromise = new Batch();
+
+        PendingInsert(Future future, BMap<BString, Object> value, Object sessionToken) {
+            this.future = future;
+            this.value = value;
+            this.sessionToken = sessionToken;
+        }
+    }
+
+    private static class Barrier {
+        private final Future future;
+        private int remaining;
+        private Object error;
+
+        Barrier(int count, Future future) {
+            this.remaining = count;
+            this.future = future;
+        }
+
+        void arrive(Object result) {
+            boolean done;
+            synchronized (this) {
+                if (result instanceof BError && error == null) {
+                    error = result;
+                }
+                done = --remaining == 0;
+            }
+            if (done) {
+                future.complete(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BRefValue;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getNotFoundError;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Collects the reads by key of an entity issued by different strands within a short window, and dispatches them
+ * as a single read of multiple keys through `runReadByKeysQuery`. Each caller is completed individually with its
+ * record, or with a `persist:NotFoundError` if the key does not exist.
+ * <p>
+ * The reads are batched per target type, and a batch is dispatched when the window elapses or when it reaches the
+ * maximum number of distinct keys. Reads within transactions are not batched, as a batch is not bound to any
+ * transaction. Composite keys are passed to the datastore as the maps returned by {@code Utils.getKey}.
+ *
+ * @since 1.3.0
+ */
+public class BatchLoader {
+
+    private static final String BATCH_LOADER = "batchLoader";
+    private static final BString WINDOW = fromString("window");
+    private static final BString MAX_BATCH_SIZE = fromString("maxBatchSize");
+    private static final ScheduledExecutorService DISPATCH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "persist-batch-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Runtime runtime;
+    private final BObject persistClient;
+    private final String entity;
+    private final long window;
+    private final int maxBatchSize;
+    private final Map<Type, Batch> pending = new HashMap<>();
+
+    private BatchLoader(Runtime runtime, BObject persistClient, String entity, long window, int maxBatchSize) {
+        this.runtime = runtime;
+        this.persistClient = persistClient;
+        this.entity = entity;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public static Object configureBatchLoading(Environment env, BObject client, BString entity,
+                                               BMap<BString, Object> config) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        long maxBatchSize = config.getIntValue(MAX_BATCH_SIZE);
+        if (maxBatchSize <= 1) {
+            persistClient.addNativeData(BATCH_LOADER, null);
+            return null;
+        }
+        long window = ((BDecimal) config.get(WINDOW)).decimalValue().multiply(BigDecimal.valueOf(1_000_000))
+                .longValue();
+        persistClient.addNativeData(BATCH_LOADER, new BatchLoader(env.getRuntime(), persistClient,
+                entity.getValue(), Math.max(window, 0), (int) Math.min(maxBatchSize, Integer.MAX_VALUE)));
+        return null;
+    }
+
+    static BatchLoader getBatchLoader(BObject persistClient) {
+        Object batchLoader = persistClient.getNativeData(BATCH_LOADER);
+        return batchLoader instanceof BatchLoader ? (BatchLoader) batchLoader : null;
+    }
+
+    /**
+     * Adds a read by key to the current batch of its target type. The calling strand is marked async and is
+     * completed when the batch completes.
+     *
+     * @param env                    the environment of the calling strand
+     * @param key                    the key of the record
+     * @param targetType             the target type of the read
+     * @param targetTypeWithIdFields the target type including the key fields
+     * @param metadata               the metadata of the target type
+     * @param resultMapper           the mapper applied to the result of this read
+     */
+    void load(Environment env, Object key, BTypedesc targetType, BTypedesc targetTypeWithIdFields,
+              BArray[] metadata, Function<Object, Object> resultMapper) {
+        Future future = env.markAsync();
+        Type recordType = targetType.getDescribingType();
+        Batch fullBatch = null;
+        synchronized (this) {
+            Batch batch = pending.get(recordType);
+            if (batch == null) {
+                batch = new Batch(targetType, targetTypeWithIdFields, metadata);
+                pending.put(recordType, batch);
+                Batch scheduledBatch = batch;
+                DISPATCH_EXECUTOR.schedule(() -> dispatchIfPending(recordType, scheduledBatch), window,
+                        TimeUnit.MICROSECONDS);
+            }
+            batch.add(key, new Request(future, resultMapper));
+            if (batch.size() >= maxBatchSize) {
+                pending.remove(recordType);
+                fullBatch = batch;
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+    }
+
+    private void dispatchIfPending(Type recordType, Batch batch) {
+        synchronized (this) {
+            if (!pending.remove(recordType, batch)) {
+                // The batch has already been dispatched as it reached the maximum size
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        BArray keys = ValueCreator.createArrayValue(TypeCreator.createArrayType(PredefinedTypes.TYPE_ANYDATA));
+        for (KeyRequests keyRequests : batch.requests.values()) {
+            keys.append(keyRequests.key);
+        }
+        Type rowType = TypeCreator.createUnionType(batch.targetType.getDescribingType(), PredefinedTypes.TYPE_NULL);
+        Type returnType = TypeCreator.createUnionType(TypeCreator.createArrayType(rowType),
+                PredefinedTypes.TYPE_ERROR);
+        PersistClientInvoker.invokeDetached(runtime, persistClient, Constants.RUN_READ_BY_KEYS_QUERY_METHOD,
+                returnType, result -> complete(batch, result), batch.targetType, batch.targetTypeWithIdFields, keys,
+                batch.metadata[0], batch.metadata[1], batch.metadata[2]);
+    }
+
+    private void complete(Batch batch, Object result) {
+        if (result instanceof BArray && ((BArray) result).size() != batch.size()) {
+            // Every caller is completed, as a caller left waiting would never be completed
+            result = getBasicPersistError(String.format("The datastore returned %d records for the %d keys read " +
+                    "from the entity '%s'.", ((BArray) result).size(), batch.size(), entity));
+        }
+        int index = 0;
+        for (KeyRequests keyRequests : batch.requests.values()) {
+            Object value;
+            if (result instanceof BError) {
+                value = result;
+            } else {
+                Object row = ((BArray) result).get(index);
+                value = row == null ? getNotFoundError(fromString(entity), keyRequests.key) : row;
+            }
+            boolean shared = false;
+            for (Request request : keyRequests.requests) {
+                // Each caller of the same key is given its own copy of the record
+                Object requestValue = shared && value instanceof BRefValue && !(value instanceof BError) ?
+                        ((BRefValue) value).copy(new HashMap<>()) : value;
+                request.future.complete(request.resultMapper.apply(requestValue));
+                shared = true;
+            }
+            index++;
+        }
+    }
+
+    private static class Batch {
+        private final BTypedesc targetType;
+        private final BTypedesc targetTypeWithIdFields;
+        private final BArray[] metadata;
+        // The requests are kept in the order of the keys passed to the datastore
+        private final Map<String, KeyRequests> requests = new LinkedHashMap<>();
+
+        Batch(BTypedesc targetType, BTypedesc targetTypeWithIdFields, BArray[] metadata) {
+            this.targetType = targetType;
+            this.targetTypeWithIdFields = targetTypeWithIdFields;
+            this.metadata = metadata;
+        }
+
+        void add(Object key, Request request) {
+            requests.computeIfAbsent(getKeyString(key), keyString -> new KeyRequests(key)).requests.add(request);
+        }
+
+        int size() {
+            return requests.size();
+        }
+    }
+
+    private static class KeyRequests {
+        private final Object key;
+        private final List<Request> requests = new ArrayList<>();
+
+        KeyRequests(Object key) {
+            this.key = key;
+        }
+    }
+
+    private static class Request {
+        private final Future future;
+        private final Function<Object, Object> resultMapper;
+
+        Request(Future future, Function<Object, Object> resultMapper) {
+            this.future = future;
+            this.resultMapper = resultMapper;
+        }
+    }
+}
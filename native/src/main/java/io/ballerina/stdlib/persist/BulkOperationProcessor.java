@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.persist.cache.CacheInvalidator;
+import io.ballerina.stdlib.persist.changes.ChangeCapture;
+import io.ballerina.stdlib.persist.changes.ChangeEvent;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static io.ballerina.stdlib.persist.Utils.getEntity;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * This class provides the predicate based bulk update and delete operations of the generated clients.
+ * <p>
+ * The filter is passed through to the datastore as it is. The SQL datastores execute the operation as a single
+ * `UPDATE ... WHERE` or `DELETE ... WHERE` statement, while the in-memory datastore scans and mutates the table in a
+ * single pass. The change published for a bulk operation has no key, as the changed records are not known.
+ * <p>
+ * The datastore clients implement the `runUpdateWhereQuery` and `runDeleteWhereQuery` methods, and the generated
+ * clients bind their put and delete resource methods without path parameters to these operations.
+ *
+ * @since 1.3.0
+ */
+public class BulkOperationProcessor {
+
+    private static final UnionType AFFECTED_ROW_COUNT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_INT, PredefinedTypes.TYPE_ERROR);
+
+    private BulkOperationProcessor() {
+    }
+
+    public static Object updateWhere(Environment env, BObject client, BMap<BString, Object> value, Object filter) {
+        // This method will return `int|persist:Error`
+        ReplicaRouter.recordWrite(env);
+        BString entity = getEntity(env);
+        CacheInvalidator.invalidateEntityOnCommit(client, entity);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "predicate based update");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        Function<Object, Object> resultMapper = getInvalidatingMapper(client, entity).andThen(
+                ChangeCapture.capture(env, client, () -> List.of(ChangeEvent.ofUpdate(entity, null, null, value))));
+        return PersistClientInvoker.invoke(env, persistClient, Constants.RUN_UPDATE_WHERE_QUERY_METHOD,
+                AFFECTED_ROW_COUNT_TYPE, resultMapper, value, filter);
+    }
+
+    public static Object deleteWhere(Environment env, BObject client, Object filter) {
+        // This method will return `int|persist:Error`
+        ReplicaRouter.recordWrite(env);
+        BString entity = getEntity(env);
+        CacheInvalidator.invalidateEntityOnCommit(client, entity);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "predicate based delete");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        Function<Object, Object> resultMapper = getInvalidatingMapper(client, entity).andThen(
+                ChangeCapture.capture(env, client, () -> List.of(ChangeEvent.ofDelete(entity, null))));
+        return PersistClientInvoker.invoke(env, persistClient, Constants.RUN_DELETE_WHERE_QUERY_METHOD,
+                AFFECTED_ROW_COUNT_TYPE, resultMapper, filter);
+    }
+
+    private static Function<Object, Object> getInvalidatingMapper(BObject client, BString entity) {
+        // The records affected by the filter are not known, so all the cached records of the entity are invalidated
+        return result -> {
+            CacheInvalidator.invalidateEntity(client, entity);
+            return result;
+        };
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.cache.CacheInvalidator;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.checkNotCascaded;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+import static io.ballerina.stdlib.persist.Utils.getTypeAnnotation;
+
+/**
+ * A cache-aside tier in front of the datastore of an entity, which is served by the persist client of the entity in
+ * a client of a Redis model. The tier holds whole records with a TTL.
+ * <p>
+ * The reads by key outside transactions are served from the tier, and fall back to the datastore if the record is
+ * not in the tier or the tier fails. With read-through, a record read from the primary datastore as the whole entity
+ * type is written to the tier. With write-through, the inserted records are written to the tier after they are
+ * inserted. The policy is taken from the {@code @persist:Cached} annotation of the entity type. The tier is written
+ * through the `runCacheWriteQuery` method of the tier client, which overwrites the records and sets their TTL.
+ * <p>
+ * The updated and the deleted records are removed from the tier once the datastore operation completes, and again
+ * when the transaction of the write commits. Every write and invalidation of the entity increments the write
+ * version of the tier, and a record read from the datastore is written to the tier only if no write happened while
+ * it was read, so that a concurrent read does not put a stale record back. The records changed by a bulk operation
+ * are not known, hence the tier is bypassed for one TTL after them, so that the records cached before are not served
+ * until they expire.
+ *
+ * @since 1.3.0
+ */
+public class CacheTier {
+
+    private static final String CACHE_TIER = "cacheTier";
+    private static final String CACHED_ANNOTATION = "Cached";
+    private static final String CACHE_POLICY_RECORD = "CachePolicy";
+    private static final BString TTL = fromString("ttl");
+    private static final BString READ_THROUGH = fromString("readThrough");
+    private static final BString WRITE_THROUGH = fromString("writeThrough");
+    private static final UnionType OPTIONAL_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ANYDATA, PredefinedTypes.TYPE_ERROR);
+
+    private final BObject tierPersistClient;
+    private final Type entityType;
+    private final long ttl;
+    private final boolean readThrough;
+    private final boolean writeThrough;
+    private final AtomicLong writeVersion = new AtomicLong();
+    private final AtomicLong bypassUntil = new AtomicLong(System.nanoTime());
+
+    private CacheTier(BObject tierPersistClient, Type entityType, long ttl, boolean readThrough,
+                      boolean writeThrough) {
+        this.tierPersistClient = tierPersistClient;
+        this.entityType = entityType;
+        this.ttl = ttl;
+        this.readThrough = readThrough;
+        this.writeThrough = writeThrough;
+    }
+
+    public static Object configureCacheTier(BObject client, BString entity, Object tierClient, BTypedesc entityType) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        if (tierClient == null) {
+            persistClient.addNativeData(CACHE_TIER, null);
+            return null;
+        }
+        BObject tierPersistClient = getPersistClient((BObject) tierClient, entity);
+        if (tierPersistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the cache tier client.",
+                    entity));
+        }
+        Type type = TypeUtils.getReferredType(entityType.getDescribingType());
+        Object annotation = type instanceof RecordType ?
+                getTypeAnnotation((RecordType) type, CACHED_ANNOTATION) : null;
+        if (annotation == null) {
+            return getBasicPersistError(String.format("The type of the entity '%s' must be annotated with " +
+                    "'@persist:Cached' to configure a cache tier.", entity));
+        }
+        BError cascadeError = checkNotCascaded(entity, entityType);
+        if (cascadeError != null) {
+            return cascadeError;
+        }
+        // The annotation holds the policy, or `true` if it is given without a value
+        BMap<?, ?> policy = annotation instanceof BMap ? (BMap<?, ?>) annotation :
+                ValueCreator.createRecordValue(getModule(), CACHE_POLICY_RECORD);
+        long ttl = (Long) policy.get(TTL);
+        if (ttl <= 0) {
+            return getBasicPersistError("The TTL of a cache tier must be a positive integer.");
+        }
+        persistClient.addNativeData(CACHE_TIER, new CacheTier(tierPersistClient, entityType.getDescribingType(), ttl,
+                (Boolean) policy.get(READ_THROUGH), (Boolean) policy.get(WRITE_THROUGH)));
+        return null;
+    }
+
+    /**
+     * Invalidates the tier of an entity, if any, after its records are invalidated in the caches of the client. A
+     * read of the datastore in progress is not written to the tier after this. The tier is bypassed for one TTL
+     * after an invalidation of all the records, as the records to remove from the tier are not known.
+     *
+     * @param persistClient the persist client of the entity
+     * @param allRecords    whether all the records of the entity are invalidated
+     */
+    public static void invalidate(BObject persistClient, boolean allRecords) {
+        CacheTier cacheTier = getCacheTier(persistClient);
+        if (cacheTier == null) {
+            return;
+        }
+        cacheTier.writeVersion.incrementAndGet();
+        if (allRecords) {
+            cacheTier.bypassUntil.set(System.nanoTime() + TimeUnit.SECONDS.toNanos(cacheTier.ttl));
+        }
+    }
+
+    static CacheTier getCacheTier(BObject persistClient) {
+        Object cacheTier = persistClient.getNativeData(CACHE_TIER);
+        return cacheTier instanceof CacheTier ? (CacheTier) cacheTier : null;
+    }
+
+    /**
+     * Reads a record by its key from the tier, or from the datastore if the tier does not have it.
+     *
+     * @param env                    the environment of the calling strand
+     * @param datastorePersistClient the persist client to read from, if the record is not in the tier
+     * @param fromReplica            whether the persist client is a replica, whose records are not written to the
+     *                               tier as the replica may lag behind the writes
+     * @param returnType             the return type of the read
+     * @param resultMapper           the mapper applied to the record read
+     * @param args                   the arguments of `runReadByKeyQuery`
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    Object read(Environment env, BObject datastorePersistClient, boolean fromReplica, Type returnType,
+                Function<Object, Object> resultMapper, Object... args) {
+        Type targetType = ((BTypedesc) args[0]).getDescribingType();
+        boolean writable = readThrough && !fromReplica && targetType == entityType;
+        long version = writeVersion.get();
+        Future future = env.markAsync();
+        Runnable readDatastore = () -> PersistClientInvoker.invokeAsync(env, null,
+                datastorePersistClient, Constants.RUN_READ_BY_KEY_QUERY_METHOD, returnType, result -> {
+                    // The record is not written if the entity has been written since the read started
+                    if (writable && !(result instanceof BError) && writeVersion.get() == version) {
+                        writeToTier(env.getRuntime(), createArray(result));
+                    }
+                    future.complete(resultMapper.apply(result));
+                }, args);
+        if (System.nanoTime() - bypassUntil.get() < 0) {
+            readDatastore.run();
+            return null;
+        }
+        PersistClientInvoker.invokeAsync(env, null, tierPersistClient, Constants.RUN_READ_BY_KEY_QUERY_METHOD,
+                returnType, cachedRecord -> {
+                    if (!(cachedRecord instanceof BError)) {
+                        future.complete(resultMapper.apply(cachedRecord));
+                    } else {
+                        readDatastore.run();
+                    }
+                }, args);
+        return null;
+    }
+
+    /**
+     * Inserts the given records into the datastore, and writes them to the tier with write-through.
+     *
+     * @param env                    the environment of the calling strand
+     * @param datastorePersistClient the persist client to insert the records with
+     * @param resultMapper           the mapper applied to the result of the insert
+     * @param data                   the records to insert
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    Object insert(Environment env, BObject datastorePersistClient, Function<Object, Object> resultMapper,
+                  BArray data) {
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        // Records inserted within a transaction are cached when they are read after the commit
+        Function<Object, Object> insertMapper = trxContextProperties == null ?
+                getWriteThroughMapper(env.getRuntime(), data).andThen(resultMapper) : resultMapper;
+        Future future = env.markAsync();
+        PersistClientInvoker.invokeAsync(env, trxContextProperties, datastorePersistClient,
+                Constants.RUN_BATCH_INSERT_QUERY_METHOD, OPTIONAL_RESULT_TYPE,
+                result -> PersistClientInvoker.complete(future, insertMapper.apply(result)), data);
+        return null;
+    }
+
+    /**
+     * Returns a result mapper, which writes the records inserted outside transactions to the tier with
+     * write-through, once the insert succeeds. The mapper must be created before the insert is dispatched.
+     *
+     * @param runtime the runtime, which the tier is written with
+     * @param data    the inserted records
+     * @return the mapper, which returns the result of the insert
+     */
+    Function<Object, Object> getWriteThroughMapper(Runtime runtime, BArray data) {
+        long version = writeVersion.get();
+        return result -> {
+            // The records written since the insert started may have been changed by the write
+            if (writeThrough && !(result instanceof BError) && writeVersion.get() == version) {
+                writeToTier(runtime, data);
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Runs a write of a record in the datastore, and removes the record from the tier before completing the calling
+     * strand, so that the caller does not read the record as it was before the write. Within a transaction, the
+     * record is removed again when the transaction commits.
+     *
+     * @param env                    the environment of the calling strand
+     * @param datastorePersistClient the persist client to write with
+     * @param methodName             the name of the write method
+     * @param returnType             the return type of the write method
+     * @param resultMapper           the mapper applied to the result of the write
+     * @param key                    the key of the record
+     * @param args                   the arguments of the write method
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    Object write(Environment env, BObject datastorePersistClient, String methodName, Type returnType,
+                 Function<Object, Object> resultMapper, Object key, Object... args) {
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        removeOnCommit(env, key);
+        writeVersion.incrementAndGet();
+        Future future = env.markAsync();
+        PersistClientInvoker.invokeAsync(env, trxContextProperties, datastorePersistClient, methodName, returnType,
+                result -> remove(env, key, () -> PersistClientInvoker.complete(future, resultMapper.apply(result))),
+                args);
+        return null;
+    }
+
+    /**
+     * Removes a record from the tier after it is written to the datastore.
+     *
+     * @param env       the environment of the calling strand
+     * @param key       the key of the record
+     * @param onRemoved called once the record is removed, or once the removal fails
+     */
+    void remove(Environment env, Object key, Runnable onRemoved) {
+        writeVersion.incrementAndGet();
+        PersistClientInvoker.invokeAsync(env, null, tierPersistClient, Constants.RUN_DELETE_QUERY_METHOD,
+                OPTIONAL_RESULT_TYPE, ignored -> onRemoved.run(), key);
+    }
+
+    /**
+     * Registers the removal of a record from the tier when the transaction of the calling strand commits, as a read
+     * outside the transaction may put the record back into the tier before the commit. This must be called on the
+     * strand of the write, and has no effect outside transactions.
+     *
+     * @param env the environment of the calling strand
+     * @param key the key of the record
+     */
+    void removeOnCommit(Environment env, Object key) {
+        CacheInvalidator.onCommit(() -> {
+            writeVersion.incrementAndGet();
+            PersistClientInvoker.invokeDetached(env.getRuntime(), tierPersistClient, Constants.RUN_DELETE_QUERY_METHOD,
+                    OPTIONAL_RESULT_TYPE, ignored -> { }, key);
+        });
+    }
+
+    private void writeToTier(Runtime runtime, BArray data) {
+        // The tier is a cache, hence a failure to write to it does not fail the operation
+        PersistClientInvoker.invokeDetached(runtime, tierPersistClient, Constants.RUN_CACHE_WRITE_QUERY_METHOD,
+                OPTIONAL_RESULT_TYPE, ignored -> { }, data, ttl);
+    }
+
+    private BArray createArray(Object value) {
+        BArray array = ValueCreator.createArrayValue(TypeCreator.createArrayType(entityType));
+        array.append(value);
+        return array;
+    }
+}
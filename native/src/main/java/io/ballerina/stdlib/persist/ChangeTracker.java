@@ -0,0 +1,114 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BValue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * This class finds the fields of a record which are changed from the record as it was read, so that an update only
+ * writes the changed columns. Untouched fields, including large `byte[]` and `string` values, are never sent to the
+ * datastore. A field holding the same value instance as the original record is unchanged without comparing the
+ * values.
+ *
+ * @since 1.3.0
+ */
+public class ChangeTracker {
+
+    private ChangeTracker() {
+    }
+
+    public static BMap<BString, Object> getChangedFields(BMap<BString, Object> original,
+                                                        BMap<BString, Object> modified) {
+        BMap<BString, Object> changedFields =
+                ValueCreator.createMapValue(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA));
+        for (BString field : modified.getKeys()) {
+            Object value = modified.get(field);
+            if (!original.containsKey(field)) {
+                changedFields.put(field, value);
+                continue;
+            }
+            Object originalValue = original.get(field);
+            if (!isEqual(originalValue, value)) {
+                changedFields.put(field, value);
+            }
+        }
+        return changedFields;
+    }
+
+    public static Object updateChanged(Environment env, BObject client, BString entity, Object key,
+                                       BMap<BString, Object> original, BMap<BString, Object> modified) {
+        // This method will return `persist:Error?`
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BMap<BString, Object> changedFields = getChangedFields(original, modified);
+        List<String> keyFields = Arrays.asList(((BArray) persistClient.get(Constants.KEY_FIELDS)).getStringArray());
+        for (BString field : changedFields.getKeys()) {
+            if (keyFields.contains(field.getValue())) {
+                return ErrorGenerator.getBasicPersistError(String.format(
+                        "The key field '%s' of the entity '%s' cannot be updated.", field.getValue(),
+                        entity.getValue()));
+            }
+        }
+        if (changedFields.isEmpty()) {
+            return null;
+        }
+        return QueryProcessor.update(env, client, entity, key, changedFields, original);
+    }
+
+    private static boolean isEqual(Object originalValue, Object value) {
+        if (originalValue == value) {
+            return true;
+        }
+        if (originalValue == null || value == null) {
+            return false;
+        }
+        if (originalValue instanceof BArray && value instanceof BArray &&
+                ((BArray) originalValue).getElementType().getTag() == TypeTags.BYTE_TAG &&
+                ((BArray) value).getElementType().getTag() == TypeTags.BYTE_TAG) {
+            return Arrays.equals(((BArray) originalValue).getBytes(), ((BArray) value).getBytes());
+        }
+        if (originalValue instanceof BValue || value instanceof BValue) {
+            if (originalValue instanceof BString && value instanceof BString) {
+                return ((BString) originalValue).getValue().equals(((BString) value).getValue());
+            }
+            // Structured values such as `time:Civil` records are compared by their expression string
+            return StringUtils.getExpressionStringValue(originalValue)
+                    .equals(StringUtils.getExpressionStringValue(value));
+        }
+        return originalValue.equals(value);
+    }
+}
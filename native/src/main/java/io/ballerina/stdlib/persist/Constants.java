@@ -34,12 +34,29 @@ public final class Constants {
     public static final BString PERSIST_CLIENTS = fromString("persistClients");
     public static final BString KEY_FIELDS = fromString("keyFields");
     public static final String ERROR = "Error";
+    public static final String NOT_FOUND_ERROR = "NotFoundError";
+    public static final String VERSION_CONFLICT_ERROR = "VersionConflictError";
 
     public static final String RUN_READ_QUERY_METHOD = "runReadQuery";
     public static final String RUN_READ_BY_KEY_QUERY_METHOD = "runReadByKeyQuery";
+    public static final String RUN_READ_BY_KEYS_QUERY_METHOD = "runReadByKeysQuery";
+    public static final String RUN_READ_PAGE_QUERY_METHOD = "runReadPageQuery";
+    public static final String RUN_READ_TREE_QUERY_METHOD = "runReadTreeQuery";
+    public static final String RUN_BATCH_INSERT_QUERY_METHOD = "runBatchInsertQuery";
+    public static final String RUN_UPDATE_QUERY_METHOD = "runUpdateQuery";
+    public static final String RUN_VERSIONED_UPDATE_QUERY_METHOD = "runVersionedUpdateQuery";
+    public static final String RUN_DELETE_QUERY_METHOD = "runDeleteQuery";
+    public static final String RUN_CACHE_WRITE_QUERY_METHOD = "runCacheWriteQuery";
+    public static final String RUN_UPDATE_WHERE_QUERY_METHOD = "runUpdateWhereQuery";
+    public static final String RUN_DELETE_WHERE_QUERY_METHOD = "runDeleteWhereQuery";
+    public static final String RUN_AGGREGATE_QUERY_METHOD = "runAggregateQuery";
+    public static final String RUN_CLAIM_OUTBOX_QUERY_METHOD = "runClaimOutboxQuery";
+    public static final String RUN_MARK_OUTBOX_QUERY_METHOD = "runMarkOutboxQuery";
     public static final Module BALLERINA_ANNOTATIONS_MODULE = new Module("ballerina", "lang.annotations", "0.0.0");
     public static final String DEFAULT_STREAM_CONSTRAINT_NAME = "$stream$anon$constraint$";
     public static final String CURRENT_TRANSACTION_CONTEXT = "currentTrxContext";
+    public static final String VERSION_ANNOTATION = "Version";
+    public static final String CASCADE_ANNOTATION = "Cascade";
 
     /**
      * Constant related to the Ballerina time types.
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import java.util.function.Consumer;
+
+/**
+ * The result of an operation, which is returned to the caller only once a condition is met. A result mapper returns
+ * this to hold the completion of the calling strand, such as while the change stream of the client has no space for
+ * the events of a write, or while the outbox records of a write are inserted.
+ *
+ * @since 1.3.0
+ */
+public class DeferredResult {
+
+    private Object result;
+    private Consumer<Object> completion;
+    private boolean ready = false;
+
+    public DeferredResult() {
+    }
+
+    public DeferredResult(Object result) {
+        this.result = result;
+    }
+
+    /**
+     * Sets the consumer of the result, which is called immediately if the result is already released.
+     *
+     * @param completion the consumer of the result
+     */
+    public void onReady(Consumer<Object> completion) {
+        synchronized (this) {
+            if (!ready) {
+                this.completion = completion;
+                return;
+            }
+        }
+        completion.accept(result);
+    }
+
+    /**
+     * Releases the result to its consumer.
+     */
+    public void release() {
+        Consumer<Object> consumer;
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            ready = true;
+            consumer = completion;
+        }
+        if (consumer != null) {
+            consumer.accept(result);
+        }
+    }
+
+    /**
+     * Sets the result and releases it to its consumer.
+     *
+     * @param result the result
+     */
+    public void release(Object result) {
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            this.result = result;
+        }
+        release();
+    }
+}
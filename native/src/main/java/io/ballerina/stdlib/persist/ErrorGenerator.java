@@ -25,6 +25,8 @@ import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BString;
 
 import static io.ballerina.stdlib.persist.Constants.ERROR;
+import static io.ballerina.stdlib.persist.Constants.NOT_FOUND_ERROR;
+import static io.ballerina.stdlib.persist.Constants.VERSION_CONFLICT_ERROR;
 import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
 
 /**
@@ -45,6 +47,43 @@ public class ErrorGenerator {
         return generatePersistError(StringUtils.fromString(message), null, null);
     }
 
+    public static BError getBasicPersistError(String message, BError cause) {
+        return generatePersistError(StringUtils.fromString(message), cause, null);
+    }
+
+    /**
+     * Generates a `persist:NotFoundError`. This implements the `persist:getNotFoundError` function, so that the
+     * datastores and the native operations report the missing records in the same way.
+     *
+     * @param entity the name of the entity
+     * @param key    the key of the record
+     * @return the error
+     */
+    public static BError getNotFoundError(BString entity, Object key) {
+        String keyString = key instanceof BMap ? StringUtils.getExpressionStringValue(key) :
+                StringUtils.getStringValue(key);
+        String message = String.format("A record with the key '%s' does not exist for the entity '%s'.", keyString,
+                entity);
+        return ErrorCreator.createError(getModule(), NOT_FOUND_ERROR, StringUtils.fromString(message), null, null);
+    }
+
+    /**
+     * Generates a `persist:VersionConflictError`. This implements the `persist:getVersionConflictError` function.
+     *
+     * @param entity          the name of the entity
+     * @param key             the key of the record
+     * @param expectedVersion the version of the record when it was read
+     * @return the error
+     */
+    public static BError getVersionConflictError(BString entity, Object key, long expectedVersion) {
+        String keyString = key instanceof BMap ? StringUtils.getExpressionStringValue(key) :
+                StringUtils.getStringValue(key);
+        String message = String.format("The record with the key '%s' of the entity '%s' has been updated or deleted " +
+                "since version '%d' was read.", keyString, entity, expectedVersion);
+        return ErrorCreator.createError(getModule(), VERSION_CONFLICT_ERROR, StringUtils.fromString(message), null,
+                null);
+    }
+
     public static BError wrapError(BError error) {
         return generatePersistError(error.getErrorMessage(), error.getCause(), null);
     }
@@ -0,0 +1,266 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.Utils.getKeyOfRecord;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Inserts a graph of records of related entities. The nested records are flattened into the records of their
+ * entities, with the foreign keys of each relation copied from the referred record to the owner record, and the
+ * records are inserted with a {@link UnitOfWork} whose flush order lists each entity after the entities it refers
+ * to. Hence, the records of an entity are inserted with a single batch insert, after the records they refer to. The
+ * order is the one given with the model, such as the order generated from the persist model, and is otherwise
+ * computed from the relations of the model.
+ *
+ * @since 1.3.0
+ */
+public class GraphInsert {
+
+    private static final BString INSERT_TYPE = fromString("insertType");
+    private static final BString RELATIONS = fromString("relations");
+    private static final BString FIELD = fromString("field");
+    private static final BString ENTITY = fromString("entity");
+    private static final BString OWNER = fromString("owner");
+    private static final BString FOREIGN_KEYS = fromString("foreignKeys");
+
+    private final BObject client;
+    private final BMap<BString, Object> model;
+    private final Map<String, List<BMap<BString, Object>>> records = new LinkedHashMap<>();
+    private final Set<String> insertedKeys = new HashSet<>();
+
+    private GraphInsert(BObject client, BMap<BString, Object> model) {
+        this.client = client;
+        this.model = model;
+    }
+
+    public static Object insertGraph(Environment env, BObject client, BString entity, BMap<BString, Object> value,
+                                     BMap<BString, Object> model, BArray insertOrder) {
+        // This method will return `persist:Error?`
+        GraphInsert graphInsert = new GraphInsert(client, model);
+        UnitOfWork unitOfWork;
+        try {
+            graphInsert.flatten(entity.getValue(), value, Collections.emptyMap());
+            unitOfWork = new UnitOfWork(client, insertOrder.size() > 0 ?
+                    graphInsert.checkInsertOrder(Arrays.asList(insertOrder.getStringArray())) :
+                    graphInsert.getInsertOrder());
+        } catch (BError error) {
+            return error;
+        }
+        for (Map.Entry<String, List<BMap<BString, Object>>> entityRecords : graphInsert.records.entrySet()) {
+            for (BMap<BString, Object> entityRecord : entityRecords.getValue()) {
+                Object result = unitOfWork.bufferInsert(fromString(entityRecords.getKey()), entityRecord);
+                if (result instanceof BError) {
+                    return result;
+                }
+            }
+        }
+        return unitOfWork.flushWrites(env);
+    }
+
+    /**
+     * Flattens a nested record into a record of its entity, and the records of the related entities.
+     *
+     * @param entity           the resource name of the entity
+     * @param value            the nested record
+     * @param foreignKeyValues the values of the foreign keys referring to the parent record, if the record owns the
+     *                         relation with it
+     * @return the flattened record
+     */
+    private BMap<BString, Object> flatten(String entity, BMap<BString, Object> value,
+                                         Map<String, Object> foreignKeyValues) {
+        BMap<BString, Object> entityModel = getEntityModel(entity);
+        Map<String, BMap<BString, Object>> relations = new HashMap<>();
+        BArray relationArray = (BArray) entityModel.get(RELATIONS);
+        for (int i = 0; i < relationArray.size(); i++) {
+            BMap<BString, Object> relation = (BMap<BString, Object>) relationArray.get(i);
+            relations.put(relation.getStringValue(FIELD).getValue(), relation);
+        }
+
+        Map<String, Object> values = new HashMap<>(foreignKeyValues);
+        for (BString field : value.getKeys()) {
+            if (!relations.containsKey(field.getValue())) {
+                values.put(field.getValue(), value.get(field));
+            }
+        }
+        // The records referred by this record are flattened first, as their keys are the foreign keys of this record
+        for (BMap<BString, Object> relation : relations.values()) {
+            if (relation.getBooleanValue(OWNER)) {
+                for (BMap<BString, Object> related : getRelatedRecords(value, relation)) {
+                    BMap<BString, Object> relatedRecord = flatten(relation.getStringValue(ENTITY).getValue(),
+                            related, Collections.emptyMap());
+                    values.putAll(getForeignKeyValues(relation, relatedRecord, entity));
+                }
+            }
+        }
+
+        RecordType insertType = (RecordType) ((BTypedesc) entityModel.get(INSERT_TYPE)).getDescribingType();
+        BMap<BString, Object> entityRecord = ValueCreator.createRecordValue(insertType.getPackage(),
+                insertType.getName(), values);
+        addRecord(entity, entityRecord);
+
+        for (BMap<BString, Object> relation : relations.values()) {
+            if (!relation.getBooleanValue(OWNER)) {
+                Map<String, Object> relatedForeignKeyValues = getForeignKeyValues(relation, entityRecord, entity);
+                for (BMap<BString, Object> related : getRelatedRecords(value, relation)) {
+                    flatten(relation.getStringValue(ENTITY).getValue(), related, relatedForeignKeyValues);
+                }
+            }
+        }
+        return entityRecord;
+    }
+
+    private void addRecord(String entity, BMap<BString, Object> entityRecord) {
+        BObject persistClient = getPersistClient(client, fromString(entity));
+        if (persistClient == null) {
+            throw getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        Object key = getKeyOfRecord((BArray) persistClient.get(Constants.KEY_FIELDS), entityRecord);
+        // A record referred by several records of the graph is inserted once
+        if (insertedKeys.add(entity + ":" + getKeyString(key))) {
+            records.computeIfAbsent(entity, name -> new ArrayList<>()).add(entityRecord);
+        }
+    }
+
+    private BMap<BString, Object> getEntityModel(String entity) {
+        Object entityModel = model.get(fromString(entity));
+        if (entityModel == null) {
+            throw getBasicPersistError(String.format("The entity '%s' is not described in the graph model.", entity));
+        }
+        return (BMap<BString, Object>) entityModel;
+    }
+
+    private static List<BMap<BString, Object>> getRelatedRecords(BMap<BString, Object> value,
+                                                                 BMap<BString, Object> relation) {
+        Object related = value.get(relation.getStringValue(FIELD));
+        List<BMap<BString, Object>> relatedRecords = new ArrayList<>();
+        if (related instanceof BArray) {
+            BArray relatedArray = (BArray) related;
+            for (int i = 0; i < relatedArray.size(); i++) {
+                relatedRecords.add((BMap<BString, Object>) relatedArray.get(i));
+            }
+        } else if (related instanceof BMap) {
+            relatedRecords.add((BMap<BString, Object>) related);
+        }
+        return relatedRecords;
+    }
+
+    private static Map<String, Object> getForeignKeyValues(BMap<BString, Object> relation,
+                                                           BMap<BString, Object> referredRecord, String entity) {
+        BMap<BString, Object> foreignKeys = (BMap<BString, Object>) relation.get(FOREIGN_KEYS);
+        Map<String, Object> foreignKeyValues = new HashMap<>();
+        for (BString foreignKey : foreignKeys.getKeys()) {
+            BString keyField = foreignKeys.getStringValue(foreignKey);
+            if (!referredRecord.containsKey(keyField)) {
+                throw getBasicPersistError(String.format(
+                        "The '%s' field of the records related through '%s.%s' is required to insert the graph.",
+                        keyField, entity, relation.getStringValue(FIELD)));
+            }
+            foreignKeyValues.put(foreignKey.getValue(), referredRecord.get(keyField));
+        }
+        return foreignKeyValues;
+    }
+
+    /**
+     * Returns the entities of the graph model, each listed after the entities it refers to through the relations it
+     * owns.
+     *
+     * @return the entities in the order in which their records are inserted
+     */
+    private List<String> getInsertOrder() {
+        Map<String, List<String>> referredEntities = new LinkedHashMap<>();
+        for (BString entity : model.getKeys()) {
+            BArray relations = (BArray) ((BMap<BString, Object>) model.get(entity)).get(RELATIONS);
+            for (int i = 0; i < relations.size(); i++) {
+                BMap<BString, Object> relation = (BMap<BString, Object>) relations.get(i);
+                String relatedEntity = relation.getStringValue(ENTITY).getValue();
+                if (relation.getBooleanValue(OWNER)) {
+                    addReferredEntity(referredEntities, entity.getValue(), relatedEntity);
+                } else {
+                    addReferredEntity(referredEntities, relatedEntity, entity.getValue());
+                }
+            }
+        }
+        List<String> insertOrder = new ArrayList<>();
+        for (BString entity : model.getKeys()) {
+            visitInInsertOrder(entity.getValue(), referredEntities, insertOrder, new ArrayList<>());
+        }
+        return insertOrder;
+    }
+
+    private static void addReferredEntity(Map<String, List<String>> referredEntities, String owner,
+                                          String referredEntity) {
+        List<String> ownerReferredEntities = referredEntities.computeIfAbsent(owner, key -> new ArrayList<>());
+        if (!owner.equals(referredEntity) && !ownerReferredEntities.contains(referredEntity)) {
+            ownerReferredEntities.add(referredEntity);
+        }
+    }
+
+    private static void visitInInsertOrder(String entity, Map<String, List<String>> referredEntities,
+                                           List<String> insertOrder, List<String> path) {
+        if (insertOrder.contains(entity)) {
+            return;
+        }
+        if (path.contains(entity)) {
+            List<String> cycle = new ArrayList<>(path.subList(path.indexOf(entity), path.size()));
+            cycle.add(entity);
+            throw getBasicPersistError(String.format("The relation owners of the entities form the cycle '%s', " +
+                    "hence the graph cannot be inserted.", String.join(" -> ", cycle)));
+        }
+        path.add(entity);
+        for (String referredEntity : referredEntities.getOrDefault(entity, Collections.emptyList())) {
+            visitInInsertOrder(referredEntity, referredEntities, insertOrder, path);
+        }
+        path.remove(path.size() - 1);
+        insertOrder.add(entity);
+    }
+
+    private List<String> checkInsertOrder(List<String> insertOrder) {
+        for (String entity : records.keySet()) {
+            if (!insertOrder.contains(entity)) {
+                throw getBasicPersistError(String.format("The entity '%s' is not in the insert order of the graph.",
+                        entity));
+            }
+        }
+        return insertOrder;
+    }
+}
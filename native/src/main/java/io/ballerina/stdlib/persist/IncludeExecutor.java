@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+
+/**
+ * Limits the number of the relation includes of each datastore, which are loaded concurrently. The datastores load
+ * the independent includes of a read on parallel strands, and each load holds a permit of the datastore while it
+ * runs, so that the parallel loads of concurrent reads do not exhaust the connection pool of the datastore.
+ * <p>
+ * A strand waiting for a permit is suspended rather than blocking its thread, and the permits are handed to the
+ * waiting strands in the order in which they asked for them. The strand holding a permit of a datastore is marked,
+ * so that the nested loads of the same datastore run under the permit instead of waiting for another one, which
+ * would deadlock once all the permits are held by the outer loads.
+ *
+ * @since 1.3.0
+ */
+public class IncludeExecutor {
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 4;
+    private static final String INCLUDE_PERMIT = "includePermit:";
+    private static final Map<String, Permits> PERMITS = new ConcurrentHashMap<>();
+
+    private IncludeExecutor() {
+    }
+
+    public static Object configureIncludeConcurrency(BString datastore, long maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            return getBasicPersistError("The maximum concurrency of the includes should be positive.");
+        }
+        getPermits(datastore).setLimit((int) Math.min(maxConcurrency, Integer.MAX_VALUE));
+        return null;
+    }
+
+    public static Object acquireIncludePermit(Environment env, BString datastore) {
+        env.setStrandLocal(INCLUDE_PERMIT + datastore.getValue(), Boolean.TRUE);
+        getPermits(datastore).acquire(env);
+        return null;
+    }
+
+    public static void releaseIncludePermit(Environment env, BString datastore) {
+        env.setStrandLocal(INCLUDE_PERMIT + datastore.getValue(), null);
+        getPermits(datastore).release();
+    }
+
+    public static boolean holdsIncludePermit(Environment env, BString datastore) {
+        return env.getStrandLocal(INCLUDE_PERMIT + datastore.getValue()) != null;
+    }
+
+    private static Permits getPermits(BString datastore) {
+        return PERMITS.computeIfAbsent(datastore.getValue(), name -> new Permits());
+    }
+
+    private static class Permits {
+        private final Deque<Future> waiting = new ArrayDeque<>();
+        private int limit = DEFAULT_MAX_CONCURRENCY;
+        private int inUse = 0;
+
+        void setLimit(int limit) {
+            Deque<Future> admitted = new ArrayDeque<>();
+            synchronized (this) {
+                this.limit = limit;
+                while (inUse < limit && !waiting.isEmpty()) {
+                    inUse++;
+                    admitted.add(waiting.poll());
+                }
+            }
+            admitted.forEach(future -> future.complete(null));
+        }
+
+        void acquire(Environment env) {
+            synchronized (this) {
+                if (inUse < limit) {
+                    inUse++;
+                    return;
+                }
+                waiting.add(env.markAsync());
+            }
+        }
+
+        void release() {
+            Future next;
+            synchronized (this) {
+                // The permit is handed over to the next waiting strand, unless the limit is lowered meanwhile
+                if (inUse > limit || waiting.isEmpty()) {
+                    inUse--;
+                    return;
+                }
+                next = waiting.poll();
+            }
+            next.complete(null);
+        }
+    }
+}
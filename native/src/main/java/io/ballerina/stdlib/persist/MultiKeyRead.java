@@ -0,0 +1,177 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.cache.EntityCache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the records of multiple keys of an entity, in chunks of keys, with a single call of `runReadByKeysQuery`
+ * per chunk. The chunks are read one after the other within the transaction of the caller, if any. The records
+ * found in the second-level cache of the entity are not read from the datastore, and the records read are cached
+ * unless they are read from a replica. The keys of a sharded entity are grouped by their shard, so that each chunk
+ * is read from a single shard.
+ *
+ * @since 1.3.0
+ */
+class MultiKeyRead {
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private static volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private final Environment env;
+    private final Map<String, Object> trxContextProperties;
+    private final BObject persistClient;
+    private final BArray keys;
+    private final BTypedesc targetType;
+    private final BTypedesc targetTypeWithIdFields;
+    private final BArray[] metadata;
+    private final EntityCache entityCache;
+    private final boolean cacheReadRecords;
+    private final ShardRouter shardRouter;
+    private final Object[] records;
+    private final List<Integer> unreadIndexes = new ArrayList<>();
+    private int[] shards;
+    private final ArrayType resultType;
+    private final Type chunkReturnType;
+    private long cacheGeneration;
+    private Future future;
+
+    MultiKeyRead(Environment env, Map<String, Object> trxContextProperties, BObject persistClient, BArray keys,
+                 BTypedesc targetType, BTypedesc targetTypeWithIdFields, BArray[] metadata, EntityCache entityCache,
+                 boolean cacheReadRecords, ShardRouter shardRouter) {
+        this.env = env;
+        this.trxContextProperties = trxContextProperties;
+        this.persistClient = persistClient;
+        this.keys = keys;
+        this.targetType = targetType;
+        this.targetTypeWithIdFields = targetTypeWithIdFields;
+        this.metadata = metadata;
+        this.entityCache = entityCache;
+        this.cacheReadRecords = cacheReadRecords;
+        this.shardRouter = shardRouter;
+        this.records = new Object[keys.size()];
+        this.resultType = TypeCreator.createArrayType(
+                TypeCreator.createUnionType(targetType.getDescribingType(), PredefinedTypes.TYPE_NULL));
+        this.chunkReturnType = TypeCreator.createUnionType(resultType, PredefinedTypes.TYPE_ERROR);
+    }
+
+    static void init(long size) {
+        chunkSize = (int) Math.min(Math.max(size, 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Starts reading the records.
+     *
+     * @return the records in the order of the keys, or `null` if the calling strand is completed asynchronously
+     */
+    Object start() {
+        Type recordType = targetType.getDescribingType();
+        if (entityCache != null) {
+            cacheGeneration = entityCache.getGeneration();
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            Object cachedRecord = entityCache == null ? null : entityCache.get(keys.get(i), recordType);
+            if (cachedRecord == null) {
+                unreadIndexes.add(i);
+            } else {
+                records[i] = cachedRecord;
+            }
+        }
+        if (unreadIndexes.isEmpty()) {
+            return createResult();
+        }
+        if (shardRouter != null) {
+            shards = new int[keys.size()];
+            for (int index : unreadIndexes) {
+                shards[index] = shardRouter.getShard(keys.get(index));
+            }
+            unreadIndexes.sort(Comparator.comparingInt(index -> shards[index]));
+        }
+        future = env.markAsync();
+        readChunk(0);
+        return null;
+    }
+
+    private void readChunk(int from) {
+        int limit = Math.min(from + chunkSize, unreadIndexes.size());
+        int end = from + 1;
+        while (end < limit && (shards == null || shards[unreadIndexes.get(end)] == shards[unreadIndexes.get(from)])) {
+            end++;
+        }
+        int to = end;
+        BObject chunkPersistClient = shardRouter == null ? persistClient :
+                ShardRouter.route(persistClient, keys.get(unreadIndexes.get(from)));
+        BArray chunkKeys = ValueCreator.createArrayValue(TypeCreator.createArrayType(PredefinedTypes.TYPE_ANYDATA));
+        for (int i = from; i < to; i++) {
+            chunkKeys.append(keys.get(unreadIndexes.get(i)));
+        }
+        PersistClientInvoker.invokeAsync(env, trxContextProperties, chunkPersistClient,
+                Constants.RUN_READ_BY_KEYS_QUERY_METHOD, chunkReturnType, result -> {
+                    if (result instanceof BError) {
+                        future.complete(result);
+                        return;
+                    }
+                    BArray chunkRecords = (BArray) result;
+                    if (chunkRecords.size() != to - from) {
+                        // The strand is failed, as the records could not be matched with the keys of the chunk
+                        future.complete(ErrorGenerator.getBasicPersistError(String.format("The datastore " +
+                                "returned %d records for the %d keys of a chunk.", chunkRecords.size(), to - from)));
+                        return;
+                    }
+                    for (int i = from; i < to; i++) {
+                        int index = unreadIndexes.get(i);
+                        records[index] = chunkRecords.get(i - from);
+                        if (entityCache != null && cacheReadRecords && records[index] != null) {
+                            entityCache.put(keys.get(index), targetType.getDescribingType(), records[index],
+                                    cacheGeneration);
+                        }
+                    }
+                    if (to < unreadIndexes.size()) {
+                        readChunk(to);
+                    } else {
+                        future.complete(createResult());
+                    }
+                }, targetType, targetTypeWithIdFields, chunkKeys, metadata[0], metadata[1], metadata[2]);
+    }
+
+    private BArray createResult() {
+        BArray result = ValueCreator.createArrayValue(resultType);
+        for (Object value : records) {
+            result.append(value);
+        }
+        return result;
+    }
+}
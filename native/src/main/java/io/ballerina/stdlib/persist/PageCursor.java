@@ -0,0 +1,64 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors of the keyset pagination. A cursor holds the key of the last record of a
+ * page as returned by the datastore, which is the value of the key field or a map of the key field names to their
+ * values for a composite key, so that the next page is read with a seek predicate on the key fields.
+ *
+ * @since 1.3.0
+ */
+public class PageCursor {
+
+    private PageCursor() {
+    }
+
+    public static BString encode(Object lastKey) {
+        byte[] keyBytes = StringUtils.getExpressionStringValue(lastKey).getBytes(StandardCharsets.UTF_8);
+        return StringUtils.fromString(Base64.getUrlEncoder().withoutPadding().encodeToString(keyBytes));
+    }
+
+    /**
+     * Decodes a cursor returned by {@link #encode(Object)}.
+     *
+     * @param cursor the cursor
+     * @return the key of the last record of the previous page, or a `persist:Error` if the cursor is not valid
+     */
+    public static Object decode(BString cursor) {
+        try {
+            String lastKey = new String(Base64.getUrlDecoder().decode(cursor.getValue()), StandardCharsets.UTF_8);
+            Object value = StringUtils.parseExpressionStringValue(lastKey, null);
+            // A cursor is never issued for a `()` key, hence it is not valid either
+            if (value != null && !(value instanceof BError)) {
+                return value;
+            }
+        } catch (IllegalArgumentException | BError e) {
+            // Handled below as an invalid cursor
+        }
+        return ErrorGenerator.getBasicPersistError(String.format("The cursor '%s' is not valid.", cursor));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.async.Callback;
+import io.ballerina.runtime.api.async.StrandMetadata;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BObject;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static io.ballerina.stdlib.persist.ErrorGenerator.wrapError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * This class invokes the methods of the datastore specific persist client of an entity.
+ *
+ * @since 1.3.0
+ */
+public class PersistClientInvoker {
+
+    private PersistClientInvoker() {
+    }
+
+    /**
+     * Invokes the given method of the persist client asynchronously and completes the current strand with the
+     * result. The invocation joins the transaction of the caller, if any.
+     *
+     * @param env           the environment of the calling strand
+     * @param persistClient the datastore specific persist client of the entity
+     * @param methodName    the name of the method to invoke
+     * @param returnType    the return type of the method
+     * @param args          the arguments to the method
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    public static Object invoke(Environment env, BObject persistClient, String methodName, Type returnType,
+                                Object... args) {
+        return invoke(env, persistClient, methodName, returnType, Function.identity(), args);
+    }
+
+    /**
+     * Invokes the given method of the persist client asynchronously and completes the current strand with the
+     * result, after passing the result or the error through the given mapper.
+     *
+     * @param env           the environment of the calling strand
+     * @param persistClient the datastore specific persist client of the entity
+     * @param methodName    the name of the method to invoke
+     * @param returnType    the return type of the method
+     * @param resultMapper  the mapper applied to the value returned by the method
+     * @param args          the arguments to the method
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    public static Object invoke(Environment env, BObject persistClient, String methodName, Type returnType,
+                                Function<Object, Object> resultMapper, Object... args) {
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        Future balFuture = env.markAsync();
+        invokeAsync(env, trxContextProperties, persistClient, methodName, returnType,
+                result -> complete(balFuture, resultMapper.apply(result)), args);
+        return null;
+    }
+
+    /**
+     * Completes the calling strand with the given result. A {@link DeferredResult} completes the strand once it is
+     * released.
+     *
+     * @param future the future of the calling strand
+     * @param result the result
+     */
+    public static void complete(Future future, Object result) {
+        if (result instanceof DeferredResult) {
+            ((DeferredResult) result).onReady(future::complete);
+        } else {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Invokes the given method of the persist client asynchronously within the given transaction context, and
+     * passes the result or the error to the given consumer. The calling strand must already be marked async.
+     *
+     * @param env                  the environment of the calling strand
+     * @param trxContextProperties the transaction context properties of the calling strand
+     * @param persistClient        the datastore specific persist client of the entity
+     * @param methodName           the name of the method to invoke
+     * @param returnType           the return type of the method
+     * @param resultConsumer       the consumer of the value returned by the method
+     * @param args                 the arguments to the method
+     */
+    public static void invokeAsync(Environment env, Map<String, Object> trxContextProperties, BObject persistClient,
+                                   String methodName, Type returnType, Consumer<Object> resultConsumer,
+                                   Object... args) {
+        String strandName = env.getStrandName().isPresent() ? env.getStrandName().get() : null;
+        env.getRuntime().invokeMethodAsyncSequentially(
+                persistClient, methodName, strandName, env.getStrandMetadata(), new Callback() {
+                    @Override
+                    public void notifySuccess(Object result) {
+                        resultConsumer.accept(result);
+                    }
+
+                    @Override
+                    public void notifyFailure(BError error) {
+                        resultConsumer.accept(wrapError(error));
+                    }
+                }, trxContextProperties, returnType, getArgsWithProvidedFlags(args)
+        );
+    }
+
+    /**
+     * Invokes the given method of the persist client asynchronously on a new strand, which does not belong to a
+     * transaction, and passes the result or the error to the given consumer. This is used to dispatch the operations
+     * collected from multiple strands.
+     *
+     * @param runtime        the Ballerina runtime
+     * @param persistClient  the datastore specific persist client of the entity
+     * @param methodName     the name of the method to invoke
+     * @param returnType     the return type of the method
+     * @param resultConsumer the consumer of the value returned by the method
+     * @param args           the arguments to the method
+     */
+    public static void invokeDetached(Runtime runtime, BObject persistClient, String methodName, Type returnType,
+                                      Consumer<Object> resultConsumer, Object... args) {
+        StrandMetadata metadata = new StrandMetadata(getModule().getOrg(), getModule().getName(),
+                getModule().getMajorVersion(), methodName);
+        runtime.invokeMethodAsyncConcurrently(persistClient, methodName, null, metadata, new Callback() {
+            @Override
+            public void notifySuccess(Object result) {
+                resultConsumer.accept(result);
+            }
+
+            @Override
+            public void notifyFailure(BError error) {
+                resultConsumer.accept(wrapError(error));
+            }
+        }, null, returnType, getArgsWithProvidedFlags(args));
+    }
+
+    /**
+     * Returns the arguments of a method invocation, with each argument followed by the flag marking it as provided.
+     *
+     * @param args the arguments
+     * @return the arguments with the flags
+     */
+    public static Object[] getArgsWithProvidedFlags(Object... args) {
+        Object[] argsWithFlags = new Object[args.length * 2];
+        for (int i = 0; i < args.length; i++) {
+            argsWithFlags[i * 2] = args[i];
+            argsWithFlags[i * 2 + 1] = true;
+        }
+        return argsWithFlags;
+    }
+}
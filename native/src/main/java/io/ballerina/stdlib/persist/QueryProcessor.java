@@ -0,0 +1,355 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.MapType;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.TupleType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.cache.CacheInvalidator;
+import io.ballerina.stdlib.persist.cache.EntityCache;
+import io.ballerina.stdlib.persist.changes.ChangeCapture;
+import io.ballerina.stdlib.persist.changes.ChangeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.Utils.getAnnotatedField;
+import static io.ballerina.stdlib.persist.Utils.getCachedMetadata;
+import static io.ballerina.stdlib.persist.Utils.getEntity;
+import static io.ballerina.stdlib.persist.Utils.getKey;
+import static io.ballerina.stdlib.persist.Utils.getKeyOfRecord;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getRecordTypeWithKeyFields;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * This class provides the key based read and write operations of the generated clients, which go through the
+ * second-level cache of the entity when it is configured. The reads of multiple keys return the records in the order
+ * of the keys, with `()` for the keys which do not exist.
+ * <p>
+ * Concurrent reads of the same record outside transactions share a single datastore call, and the reads of the
+ * entities configured for batch loading are dispatched in batches. The cache, the coalescing and the batching are
+ * bypassed within transactions, so that a transaction always reads its own writes from the datastore.
+ * The writes invalidate the cached records and the cached stream results of the entity once the datastore call
+ * returns, and again when the transaction commits if the write is made within a transaction, as a concurrent read
+ * may cache the records before they are committed. The writes publish their changes to the change stream of the
+ * client, if any.
+ *
+ * @since 1.3.0
+ */
+public class QueryProcessor {
+
+    private static final UnionType OPTIONAL_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ANYDATA, PredefinedTypes.TYPE_ERROR);
+
+    private static final UnionType VERSIONED_UPDATE_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_INT, PredefinedTypes.TYPE_ERROR);
+    private static final MapType VERSIONED_VALUE_TYPE = TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA);
+
+    private QueryProcessor() {
+    }
+
+    public static Object queryOne(Environment env, BObject client, BArray path, BTypedesc targetType) {
+        // This method will return `targetType|persist:Error`
+        BString entity = getEntity(env);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BArray keyFields = (BArray) persistClient.get(Constants.KEY_FIELDS);
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        RecordType recordTypeWithIdFields = getRecordTypeWithKeyFields(keyFields, recordType);
+        BTypedesc targetTypeWithIdFields = ValueCreator.createTypedescValue(recordTypeWithIdFields);
+        BArray[] metadata = getCachedMetadata(recordType);
+        Object key = getKey(env, path);
+        Type returnType = TypeCreator.createUnionType(recordType, PredefinedTypes.TYPE_ERROR);
+
+        boolean inTransaction = getTransactionContextProperties() != null;
+        // The read is routed before the cache is looked up, so that the rows read from a replica are known
+        BObject shardPersistClient = ShardRouter.route(persistClient, key);
+        BObject readPersistClient = shardPersistClient == persistClient ?
+                ReplicaRouter.routeRead(env, persistClient) : shardPersistClient;
+        boolean fromReplica = shardPersistClient == persistClient && readPersistClient != persistClient;
+        EntityCache entityCache = EntityCache.getEntityCache(persistClient);
+        Function<Object, Object> resultMapper = Function.identity();
+        if (entityCache != null && !inTransaction) {
+            // The cache only holds the records read from the primaries, which are never older than the replicas
+            Object cachedRecord = entityCache.get(key, recordType);
+            if (cachedRecord != null) {
+                return cachedRecord;
+            }
+            if (!fromReplica) {
+                // A replica may lag behind the writes, which have invalidated the cache, hence its rows are not cached
+                long generation = entityCache.getGeneration();
+                resultMapper = result -> {
+                    if (!(result instanceof BError)) {
+                        entityCache.put(key, recordType, result, generation);
+                    }
+                    return result;
+                };
+            }
+        }
+        // The cache tier is used for the reads of whole records and of their projections, but not of the relations
+        CacheTier cacheTier = inTransaction || metadata[1].size() > 0 ? null : CacheTier.getCacheTier(persistClient);
+        // The batches are read from the primary, hence the reads routed to a shard, a replica or the cache tier are
+        // not batched
+        BatchLoader batchLoader = BatchLoader.getBatchLoader(persistClient);
+        if (batchLoader != null && !inTransaction && readPersistClient == persistClient && cacheTier == null) {
+            // The batch reads each key once, so the reads of the same record are coalesced by the batch itself
+            batchLoader.load(env, key, targetType, targetTypeWithIdFields, metadata, resultMapper);
+            return null;
+        }
+        if (ReadCoalescer.isEnabled() && !inTransaction) {
+            // The reads are coalesced per routed client, so that a read of the primary never joins a replica read
+            ReadCoalescer.Flight flight = ReadCoalescer.join(env, readPersistClient, key, recordType);
+            if (flight == null) {
+                return null;
+            }
+            resultMapper = resultMapper.andThen(flight::complete);
+        }
+        if (cacheTier != null) {
+            return cacheTier.read(env, readPersistClient, fromReplica, returnType, resultMapper, targetType,
+                    targetTypeWithIdFields, key, metadata[0], metadata[1], metadata[2]);
+        }
+        return PersistClientInvoker.invoke(env, readPersistClient, Constants.RUN_READ_BY_KEY_QUERY_METHOD,
+                returnType, resultMapper, targetType, targetTypeWithIdFields, key, metadata[0], metadata[1],
+                metadata[2]);
+    }
+
+    public static Object queryMany(Environment env, BObject client, BArray keys, BTypedesc targetType) {
+        // This method will return `(targetType?)[]|persist:Error`
+        BString entity = getEntity(env);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BArray keyFields = (BArray) persistClient.get(Constants.KEY_FIELDS);
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        RecordType recordTypeWithIdFields = getRecordTypeWithKeyFields(keyFields, recordType);
+        BTypedesc targetTypeWithIdFields = ValueCreator.createTypedescValue(recordTypeWithIdFields);
+        BArray[] metadata = getCachedMetadata(recordType);
+
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        EntityCache entityCache = trxContextProperties == null ? EntityCache.getEntityCache(persistClient) : null;
+        ShardRouter shardRouter = ShardRouter.getShardRouter(persistClient);
+        BObject readPersistClient = shardRouter == null ? ReplicaRouter.routeRead(env, persistClient) : persistClient;
+        // The records read from a replica are not cached, as a replica may lag behind the writes
+        return new MultiKeyRead(env, trxContextProperties, readPersistClient, keys, targetType,
+                targetTypeWithIdFields, metadata, entityCache, readPersistClient == persistClient, shardRouter)
+                .start();
+    }
+
+    public static Object queryPage(Environment env, BObject client, Object cursor, long pageSize,
+                                   BTypedesc targetType) {
+        // This method will return `[targetType[], string?]|persist:Error`
+        if (pageSize <= 0) {
+            return ErrorGenerator.getBasicPersistError("The page size must be a positive integer.");
+        }
+        Object lastKey = null;
+        if (cursor != null) {
+            lastKey = PageCursor.decode((BString) cursor);
+            if (lastKey instanceof BError) {
+                return lastKey;
+            }
+        }
+        BString entity = getEntity(env);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "keyset pagination");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        BArray keyFields = (BArray) persistClient.get(Constants.KEY_FIELDS);
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        RecordType recordTypeWithIdFields = getRecordTypeWithKeyFields(keyFields, recordType);
+        BTypedesc targetTypeWithIdFields = ValueCreator.createTypedescValue(recordTypeWithIdFields);
+        BArray[] metadata = getCachedMetadata(recordType);
+
+        Type pageType = TypeCreator.createTupleType(List.of(
+                TypeCreator.createArrayType(PredefinedTypes.TYPE_ANYDATA),
+                PredefinedTypes.TYPE_ANYDATA));
+        Type returnType = TypeCreator.createUnionType(pageType, PredefinedTypes.TYPE_ERROR);
+        TupleType resultType = TypeCreator.createTupleType(List.of(TypeCreator.createArrayType(recordType),
+                TypeCreator.createUnionType(PredefinedTypes.TYPE_STRING, PredefinedTypes.TYPE_NULL)));
+        return PersistClientInvoker.invoke(env, ReplicaRouter.routeRead(env, persistClient),
+                Constants.RUN_READ_PAGE_QUERY_METHOD, returnType,
+                result -> {
+                    if (result instanceof BError) {
+                        return result;
+                    }
+                    BArray page = (BArray) result;
+                    BArray rows = (BArray) page.get(0);
+                    Object lastRowKey = page.get(1);
+                    // A full page may be followed by more records, so the cursor of its last record is returned
+                    boolean fullPage = rows.size() == pageSize;
+                    if (fullPage && lastRowKey == null) {
+                        // Ending the pagination here would silently drop the records of the next pages
+                        return ErrorGenerator.getBasicPersistError(String.format(
+                                "The datastore did not return the key of the last record of a page of '%s'.",
+                                entity));
+                    }
+                    BArray pageResult = ValueCreator.createTupleValue(resultType);
+                    pageResult.add(0, Utils.convertToArray(targetType, rows));
+                    pageResult.add(1, fullPage ? PageCursor.encode(lastRowKey) : null);
+                    return pageResult;
+                }, targetType, targetTypeWithIdFields, lastKey, pageSize, metadata[0], metadata[1], metadata[2]);
+    }
+
+    public static Object insert(Environment env, BObject client, BString entity, BArray data) {
+        // This method will return `persist:Error?`
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        ReplicaRouter.recordWrite(env);
+        Function<Object, Object> resultMapper = ((Function<Object, Object>) result -> {
+            CacheInvalidator.invalidateResults(client, entity);
+            return result instanceof BError ? result : null;
+        }).andThen(ChangeCapture.capture(env, client, () -> getInsertChanges(persistClient, entity, data)));
+        ShardRouter shardRouter = ShardRouter.getShardRouter(persistClient);
+        if (shardRouter != null) {
+            return shardRouter.insert(env, data, OPTIONAL_RESULT_TYPE, resultMapper);
+        }
+        CacheTier cacheTier = CacheTier.getCacheTier(persistClient);
+        if (cacheTier != null) {
+            return cacheTier.insert(env, persistClient, resultMapper, data);
+        }
+        return PersistClientInvoker.invoke(env, persistClient, Constants.RUN_BATCH_INSERT_QUERY_METHOD,
+                OPTIONAL_RESULT_TYPE, resultMapper, data);
+    }
+
+    public static Object update(Environment env, BObject client, BString entity, Object key,
+                                BMap<BString, Object> value) {
+        // This method will return `persist:Error?`
+        return update(env, client, entity, key, value, null);
+    }
+
+    static Object update(Environment env, BObject client, BString entity, Object key, BMap<BString, Object> value,
+                         BMap<BString, Object> original) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        ReplicaRouter.recordWrite(env);
+        CacheInvalidator.invalidateKeyOnCommit(client, entity, key);
+        return invokeWrite(env, persistClient, Constants.RUN_UPDATE_QUERY_METHOD, OPTIONAL_RESULT_TYPE,
+                getInvalidatingMapper(client, entity, key).andThen(ChangeCapture.capture(env, client,
+                        () -> List.of(ChangeEvent.ofUpdate(entity, key, original, value)))), key, key, value);
+    }
+
+    public static Object updateVersioned(Environment env, BObject client, BString entity, Object key,
+                                         BMap<BString, Object> value, long expectedVersion, BTypedesc entityType) {
+        // This method will return `persist:Error?`
+        String versionFieldName = getAnnotatedField(
+                (RecordType) TypeUtils.getReferredType(entityType.getDescribingType()), Constants.VERSION_ANNOTATION);
+        if (versionFieldName == null) {
+            return ErrorGenerator.getBasicPersistError(String.format(
+                    "The entity '%s' does not have a field annotated with '@persist:Version'.", entity));
+        }
+        BString versionField = fromString(versionFieldName);
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        ReplicaRouter.recordWrite(env);
+        CacheInvalidator.invalidateKeyOnCommit(client, entity, key);
+        BMap<BString, Object> versionedValue = ValueCreator.createMapValue(VERSIONED_VALUE_TYPE);
+        for (BString field : value.getKeys()) {
+            versionedValue.put(field, value.get(field));
+        }
+        versionedValue.put(versionField, expectedVersion + 1);
+        return invokeWrite(env, persistClient, Constants.RUN_VERSIONED_UPDATE_QUERY_METHOD,
+                VERSIONED_UPDATE_RESULT_TYPE, ((Function<Object, Object>) result -> {
+                    CacheInvalidator.invalidateKey(client, entity, key);
+                    if (result instanceof BError) {
+                        return result;
+                    }
+                    // No record is updated if the record is deleted or its version is changed since it was read
+                    return (Long) result == 0 ?
+                            ErrorGenerator.getVersionConflictError(entity, key, expectedVersion) : null;
+                }).andThen(ChangeCapture.capture(env, client,
+                        () -> List.of(ChangeEvent.ofUpdate(entity, key, null, versionedValue)))),
+                key, key, versionedValue, versionField, expectedVersion);
+    }
+
+    public static Object delete(Environment env, BObject client, BString entity, Object key) {
+        // This method will return `persist:Error?`
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return ErrorGenerator.getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        ReplicaRouter.recordWrite(env);
+        CacheInvalidator.invalidateKeyOnCommit(client, entity, key);
+        return invokeWrite(env, persistClient, Constants.RUN_DELETE_QUERY_METHOD, OPTIONAL_RESULT_TYPE,
+                getInvalidatingMapper(client, entity, key).andThen(ChangeCapture.capture(env, client,
+                        () -> List.of(ChangeEvent.ofDelete(entity, key)))), key, key);
+    }
+
+    private static Object invokeWrite(Environment env, BObject persistClient, String methodName, Type returnType,
+                                      Function<Object, Object> resultMapper, Object key, Object... args) {
+        BObject datastorePersistClient = ShardRouter.route(persistClient, key);
+        CacheTier cacheTier = CacheTier.getCacheTier(persistClient);
+        if (cacheTier != null) {
+            return cacheTier.write(env, datastorePersistClient, methodName, returnType, resultMapper, key, args);
+        }
+        return PersistClientInvoker.invoke(env, datastorePersistClient, methodName, returnType, resultMapper, args);
+    }
+
+    private static Function<Object, Object> getInvalidatingMapper(BObject client, BString entity, Object key) {
+        return result -> {
+            CacheInvalidator.invalidateKey(client, entity, key);
+            return result instanceof BError ? result : null;
+        };
+    }
+
+    static List<ChangeEvent> getInsertChanges(BObject persistClient, BString entity, BArray data) {
+        BArray keyFields = (BArray) persistClient.get(Constants.KEY_FIELDS);
+        List<ChangeEvent> changes = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            BMap<?, ?> row = (BMap<?, ?>) data.get(i);
+            changes.add(ChangeEvent.ofInsert(entity, getKeyOfRecord(keyFields, row), row));
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BRefValue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+
+/**
+ * Coalesces the concurrent reads of the same record, so that they share a single in-flight datastore call. The
+ * strands, which join an in-flight read, are completed with a copy of its result, or with the same error.
+ *
+ * @since 1.3.0
+ */
+public class ReadCoalescer {
+
+    private static final Map<FlightKey, Flight> IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final LongAdder COLLAPSED_READS = new LongAdder();
+    private static volatile boolean enabled = true;
+
+    private ReadCoalescer() {
+    }
+
+    public static void init(boolean coalesceReads) {
+        enabled = coalesceReads;
+    }
+
+    public static long getCollapsedReadCount() {
+        return COLLAPSED_READS.sum();
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Joins the in-flight read of the given record, or starts a new one. A strand, which joins an in-flight read, is
+     * marked async and is completed when the read completes.
+     *
+     * @param env           the environment of the calling strand
+     * @param persistClient the datastore specific persist client of the entity
+     * @param key           the key of the record
+     * @param targetType    the type the record is read as
+     * @return the started read, which the caller must complete, or `null` if the strand joined an in-flight read
+     */
+    static Flight join(Environment env, BObject persistClient, Object key, Type targetType) {
+        FlightKey flightKey = new FlightKey(persistClient, getKeyString(key), targetType);
+        while (true) {
+            Flight flight = new Flight(flightKey);
+            Flight inFlight = IN_FLIGHT.putIfAbsent(flightKey, flight);
+            if (inFlight == null) {
+                return flight;
+            }
+            if (inFlight.addWaiter(env)) {
+                COLLAPSED_READS.increment();
+                return null;
+            }
+            // The in-flight read completed after it was looked up, and it has already been removed
+        }
+    }
+
+    static class Flight {
+        private final FlightKey flightKey;
+        private final List<Future> waiters = new ArrayList<>();
+        private boolean completed = false;
+
+        private Flight(FlightKey flightKey) {
+            this.flightKey = flightKey;
+        }
+
+        private synchronized boolean addWaiter(Environment env) {
+            if (completed) {
+                return false;
+            }
+            waiters.add(env.markAsync());
+            return true;
+        }
+
+        /**
+         * Completes the strands, which joined this read, with the given result.
+         *
+         * @param result the result of the read
+         * @return the result, to complete the strand, which started the read
+         */
+        Object complete(Object result) {
+            IN_FLIGHT.remove(flightKey, this);
+            List<Future> completedWaiters;
+            synchronized (this) {
+                completed = true;
+                completedWaiters = new ArrayList<>(waiters);
+                waiters.clear();
+            }
+            for (Future waiter : completedWaiters) {
+                waiter.complete(result instanceof BRefValue && !(result instanceof BError) ?
+                        ((BRefValue) result).copy(new HashMap<>()) : result);
+            }
+            return result;
+        }
+    }
+
+    private static class FlightKey {
+        private final BObject persistClient;
+        private final String key;
+        private final Type targetType;
+        private final int hashCode;
+
+        FlightKey(BObject persistClient, String key, Type targetType) {
+            this.persistClient = persistClient;
+            this.key = key;
+            this.targetType = targetType;
+            this.hashCode = Objects.hash(System.identityHashCode(persistClient), key,
+                    System.identityHashCode(targetType));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey that = (FlightKey) o;
+            return persistClient == that.persistClient && targetType == that.targetType && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
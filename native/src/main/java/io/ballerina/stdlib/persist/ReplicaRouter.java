@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * Routes the reads of an entity to its read replicas in a round-robin order, while the writes are sent to the
+ * primary, which is the persist client of the entity in the generated client. The reads within transactions are
+ * sent to the primary, so that a transaction reads its own writes.
+ * <p>
+ * A strand can bind a session token with {@code persist:useSession}. The reads of a session are sent to the
+ * primary for the read-your-writes window after any write of the same session, so that they are not served by a
+ * replica which has not caught up with the write yet.
+ *
+ * @since 1.3.0
+ */
+public class ReplicaRouter {
+
+    private static final String REPLICA_ROUTER = "replicaRouter";
+    private static final String SESSION_TOKEN = "persist.sessionToken";
+    private static final BString READ_YOUR_WRITES_WINDOW = fromString("readYourWritesWindow");
+    private static final int SESSION_PURGE_THRESHOLD = 10_000;
+
+    // The time of the last write of each session, shared by all the entities as a read may follow a related write
+    private static final Map<String, Long> LAST_WRITES = new ConcurrentHashMap<>();
+    private static volatile long maxWindow = 0;
+
+    private final BObject[] replicaPersistClients;
+    private final long readYourWritesWindow;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ReplicaRouter(BObject[] replicaPersistClients, long readYourWritesWindow) {
+        this.replicaPersistClients = replicaPersistClients;
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public static Object configureReadReplicas(BObject client, BString entity, BArray replicas,
+                                               BMap<BString, Object> config) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        if (replicas.size() == 0) {
+            persistClient.addNativeData(REPLICA_ROUTER, null);
+            return null;
+        }
+        BObject[] replicaPersistClients = new BObject[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaPersistClients[i] = getPersistClient((BObject) replicas.get(i), entity);
+            if (replicaPersistClients[i] == null) {
+                return getBasicPersistError(String.format("The entity '%s' does not exist in the replica '%d'.",
+                        entity, i));
+            }
+        }
+        long window = ((BDecimal) config.get(READ_YOUR_WRITES_WINDOW)).decimalValue()
+                .multiply(BigDecimal.valueOf(1_000_000_000)).longValue();
+        window = Math.max(window, 0);
+        synchronized (ReplicaRouter.class) {
+            maxWindow = Math.max(maxWindow, window);
+        }
+        persistClient.addNativeData(REPLICA_ROUTER, new ReplicaRouter(replicaPersistClients, window));
+        return null;
+    }
+
+    public static void useSession(Environment env, Object sessionToken) {
+        env.setStrandLocal(SESSION_TOKEN, sessionToken == null ? null : ((BString) sessionToken).getValue());
+    }
+
+    /**
+     * Returns the persist client, to which a read of the entity is sent. This is a replica of the entity if it has
+     * replicas, unless the read is within a transaction or the session of the strand has written recently.
+     *
+     * @param env           the environment of the calling strand
+     * @param persistClient the persist client of the entity in the generated client
+     * @return the persist client to read from
+     */
+    static BObject routeRead(Environment env, BObject persistClient) {
+        Object replicaRouter = persistClient.getNativeData(REPLICA_ROUTER);
+        if (!(replicaRouter instanceof ReplicaRouter) || getTransactionContextProperties() != null) {
+            return persistClient;
+        }
+        return ((ReplicaRouter) replicaRouter).routeRead(env.getStrandLocal(SESSION_TOKEN), persistClient);
+    }
+
+    /**
+     * Records a write of the session of the strand, if any, so that its reads are sent to the primaries for the
+     * read-your-writes window.
+     *
+     * @param env the environment of the calling strand
+     */
+    static void recordWrite(Environment env) {
+        recordWrite(getSessionToken(env));
+    }
+
+    /**
+     * Returns the session of the strand, which is recorded with a write completed off the strand.
+     *
+     * @param env the environment of the calling strand
+     * @return the session token, or `null` if the strand has no session
+     */
+    static Object getSessionToken(Environment env) {
+        return env.getStrandLocal(SESSION_TOKEN);
+    }
+
+    /**
+     * Records a write of a session, so that its reads are sent to the primaries for the read-your-writes window.
+     *
+     * @param sessionToken the session token, or `null` if the write has no session
+     */
+    static void recordWrite(Object sessionToken) {
+        if (sessionToken == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (LAST_WRITES.size() >= SESSION_PURGE_THRESHOLD) {
+            LAST_WRITES.values().removeIf(lastWrite -> now - lastWrite > maxWindow);
+        }
+        LAST_WRITES.put((String) sessionToken, now);
+    }
+
+    private BObject routeRead(Object sessionToken, BObject primary) {
+        if (sessionToken != null) {
+            Long lastWrite = LAST_WRITES.get((String) sessionToken);
+            if (lastWrite != null && System.nanoTime() - lastWrite <= readYourWritesWindow) {
+                return primary;
+            }
+        }
+        return replicaPersistClients[Math.floorMod(next.getAndIncrement(), replicaPersistClients.length)];
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.Utils.getKeyOfRecord;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * Routes the operations of an entity to one of multiple shards, which are persist clients of the same model bound
+ * to different databases. The shard of a record is picked from a consistent hash ring of the shards, by the hash of
+ * its key, so that adding a shard only moves the records of the ring segments taken over by the new shard.
+ * <p>
+ * The reads and writes by key are routed to the shard of the key, the reads of multiple keys are split per shard, and
+ * the inserted records are partitioned per shard. Scans are fanned out to all the shards with
+ * {@code persist:scanShards}. Keyset pagination, aggregations and predicate based bulk operations span multiple
+ * shards, hence they are rejected for the sharded entities.
+ *
+ * @since 1.3.0
+ */
+public class ShardRouter {
+
+    private static final String SHARD_ROUTER = "shardRouter";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final String entity;
+    private final BArray shards;
+    private final BObject[] shardPersistClients;
+    private final BArray keyFields;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    private ShardRouter(String entity, BArray shards, BObject[] shardPersistClients, BArray keyFields,
+                        int virtualNodes) {
+        this.entity = entity;
+        this.shards = shards;
+        this.shardPersistClients = shardPersistClients;
+        this.keyFields = keyFields;
+        for (int shard = 0; shard < shardPersistClients.length; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash(shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public static Object configureSharding(BObject client, BString entity, BArray shards, long virtualNodes) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        if (shards.size() == 0) {
+            persistClient.addNativeData(SHARD_ROUTER, null);
+            return null;
+        }
+        if (virtualNodes <= 0) {
+            return getBasicPersistError("The number of virtual nodes of a shard must be a positive integer.");
+        }
+        BObject[] shardPersistClients = new BObject[shards.size()];
+        for (int i = 0; i < shards.size(); i++) {
+            shardPersistClients[i] = getPersistClient((BObject) shards.get(i), entity);
+            if (shardPersistClients[i] == null) {
+                return getBasicPersistError(String.format("The entity '%s' does not exist in the shard '%d'.",
+                        entity, i));
+            }
+        }
+        persistClient.addNativeData(SHARD_ROUTER, new ShardRouter(entity.getValue(), shards, shardPersistClients,
+                (BArray) persistClient.get(Constants.KEY_FIELDS),
+                (int) Math.min(virtualNodes, Integer.MAX_VALUE)));
+        return null;
+    }
+
+    public static Object getShards(BObject client, BString entity) {
+        BObject persistClient = getPersistClient(client, entity);
+        ShardRouter shardRouter = persistClient == null ? null : getShardRouter(persistClient);
+        return shardRouter == null ? null : shardRouter.shards;
+    }
+
+    static ShardRouter getShardRouter(BObject persistClient) {
+        Object shardRouter = persistClient.getNativeData(SHARD_ROUTER);
+        return shardRouter instanceof ShardRouter ? (ShardRouter) shardRouter : null;
+    }
+
+    /**
+     * Returns the persist client, to which the operations on the given key are sent. This is the persist client of
+     * the shard of the key if the entity is sharded, and the given persist client otherwise.
+     *
+     * @param persistClient the persist client of the entity in the generated client
+     * @param key           the key of the record
+     * @return the persist client of the key
+     */
+    static BObject route(BObject persistClient, Object key) {
+        ShardRouter shardRouter = getShardRouter(persistClient);
+        return shardRouter == null ? persistClient : shardRouter.shardPersistClients[shardRouter.getShard(key)];
+    }
+
+    /**
+     * Returns an error if the entity is sharded, for the operations which cannot be routed to a single shard.
+     *
+     * @param persistClient the persist client of the entity in the generated client
+     * @param operation     the name of the operation
+     * @return the error or `null` if the entity is not sharded
+     */
+    static BError checkNotSharded(BObject persistClient, String operation) {
+        ShardRouter shardRouter = getShardRouter(persistClient);
+        return shardRouter == null ? null : getBasicPersistError(String.format(
+                "The %s is not supported for the sharded entity '%s'.", operation, shardRouter.entity));
+    }
+
+    int getShard(Object key) {
+        Map.Entry<Long, Integer> node = ring.ceilingEntry(hash(getKeyString(key)));
+        return node == null ? ring.firstEntry().getValue() : node.getValue();
+    }
+
+    /**
+     * Inserts the given records, with a batch insert on each of the shards of their keys. The batches are inserted
+     * one after the other, within the transaction of the caller, if any. Outside a transaction, the batches inserted
+     * before a failing batch are not rolled back, and the returned error names the shards which were written. The
+     * records must have their keys, as a key generated by the datastore cannot be routed to a shard.
+     *
+     * @param env          the environment of the calling strand
+     * @param data         the records to insert
+     * @param returnType   the return type of the batch insert method
+     * @param resultMapper the mapper applied to the result of the last batch or to the first error
+     * @return `null` as the result is provided through the future of the calling strand
+     */
+    Object insert(Environment env, BArray data, Type returnType, Function<Object, Object> resultMapper) {
+        Map<Integer, BArray> partitions = new TreeMap<>();
+        for (int i = 0; i < data.size(); i++) {
+            BMap<?, ?> row = (BMap<?, ?>) data.get(i);
+            for (int j = 0; j < keyFields.size(); j++) {
+                if (row.get(keyFields.get(j)) == null) {
+                    return getBasicPersistError(String.format("The records of the sharded entity '%s' must have " +
+                            "the '%s' key field, as a key generated by the datastore cannot be routed to a shard.",
+                            entity, keyFields.get(j)));
+                }
+            }
+            partitions.computeIfAbsent(getShard(getKeyOfRecord(keyFields, row)),
+                    shard -> ValueCreator.createArrayValue(TypeCreator.createArrayType(data.getElementType())))
+                    .append(row);
+        }
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        Future future = env.markAsync();
+        insertPartitions(env, trxContextProperties, new ArrayDeque<>(partitions.entrySet()), new ArrayList<>(),
+                returnType, result -> PersistClientInvoker.complete(future, resultMapper.apply(result)));
+        return null;
+    }
+
+    private void insertPartitions(Environment env, Map<String, Object> trxContextProperties,
+                                  Deque<Map.Entry<Integer, BArray>> partitions, List<Integer> insertedShards,
+                                  Type returnType, Consumer<Object> onComplete) {
+        Map.Entry<Integer, BArray> partition = partitions.poll();
+        if (partition == null) {
+            onComplete.accept(null);
+            return;
+        }
+        PersistClientInvoker.invokeAsync(env, trxContextProperties, shardPersistClients[partition.getKey()],
+                Constants.RUN_BATCH_INSERT_QUERY_METHOD, returnType, result -> {
+                    if (!(result instanceof BError)) {
+                        insertedShards.add(partition.getKey());
+                        insertPartitions(env, trxContextProperties, partitions, insertedShards, returnType,
+                                onComplete);
+                    } else if (insertedShards.isEmpty() || trxContextProperties != null) {
+                        // Nothing is written, or the written shards are rolled back with the transaction
+                        onComplete.accept(result);
+                    } else {
+                        onComplete.accept(getBasicPersistError(String.format("The insert into the shard %d of the " +
+                                "entity '%s' failed after the records of the shards %s were inserted. The records " +
+                                "inserted into those shards are kept.", partition.getKey(), entity, insertedShards),
+                                (BError) result));
+                    }
+                }, partition.getValue());
+    }
+
+    private static long hash(String value) {
+        // FNV-1a, followed by a finalizer which spreads the similar keys over the ring
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
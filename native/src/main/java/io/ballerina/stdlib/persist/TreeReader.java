@@ -0,0 +1,212 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.Field;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.ReferenceType;
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getNotFoundError;
+import static io.ballerina.stdlib.persist.Utils.getKeyOfRecord;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Reads a record of a self-referencing entity together with its descendants. The subtree is read with a single call
+ * of `runReadTreeQuery`, which the SQL datastores implement with a recursive common table expression and the
+ * in-memory datastore with an iterative walk over the records, one level at a time. The flat rows returned by the
+ * datastore are assembled here into the nested records of the target type, by linking each row to its parent through
+ * the foreign key fields of the relation.
+ *
+ * @since 1.3.0
+ */
+public class TreeReader {
+
+    private static final BString CHILDREN_FIELD = fromString("childrenField");
+    private static final BString PARENT_KEYS = fromString("parentKeys");
+    private static final BString MAX_DEPTH = fromString("maxDepth");
+
+    private static final Type RETURN_TYPE = TypeCreator.createUnionType(
+            TypeCreator.createArrayType(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA)),
+            PredefinedTypes.TYPE_ERROR);
+
+    private TreeReader() {
+    }
+
+    public static Object readTree(Environment env, BObject client, BString entity, Object rootKey,
+                                  BMap<BString, Object> config, BTypedesc targetType) {
+        // This method will return `targetType|persist:Error`
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "tree read");
+        if (shardingError != null) {
+            return shardingError;
+        }
+
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        String childrenField = config.getStringValue(CHILDREN_FIELD).getValue();
+        Field children = recordType.getFields().get(childrenField);
+        if (children == null || !isChildrenType(children.getFieldType(), recordType)) {
+            return getBasicPersistError(String.format(
+                    "The field '%s' of the target type must be an array of the target type.", childrenField));
+        }
+        BArray[] metadata = Utils.getCachedMetadata(recordType);
+        BArray includes = metadata[1];
+        for (int i = 0; i < includes.size(); i++) {
+            if (!childrenField.equals(includes.get(i).toString())) {
+                return getBasicPersistError(String.format("The relation field '%s' cannot be included in a tree " +
+                        "read, as only the children field is read recursively.", includes.get(i)));
+            }
+        }
+        BMap<?, ?> parentKeys = (BMap<?, ?>) config.get(PARENT_KEYS);
+        if (parentKeys.isEmpty()) {
+            return getBasicPersistError("The foreign key fields referring to the parent record must be provided.");
+        }
+        long maxDepth = config.getIntValue(MAX_DEPTH);
+        if (maxDepth < -1) {
+            return getBasicPersistError("The maximum depth of a tree read must be -1 or a non-negative integer.");
+        }
+
+        BArray fields = ValueCreator.createArrayValue(TypeCreator.createArrayType(PredefinedTypes.TYPE_STRING));
+        for (int i = 0; i < metadata[0].size(); i++) {
+            String field = metadata[0].get(i).toString();
+            if (!field.startsWith(childrenField + "[].")) {
+                fields.append(fromString(field));
+            }
+        }
+        BArray keyFields = (BArray) persistClient.get(Constants.KEY_FIELDS);
+        return PersistClientInvoker.invoke(env, ReplicaRouter.routeRead(env, persistClient),
+                Constants.RUN_READ_TREE_QUERY_METHOD, RETURN_TYPE, result -> {
+                    if (result instanceof BError) {
+                        return result;
+                    }
+                    return assemble(entity.getValue(), rootKey, (BArray) result, recordType, children, keyFields,
+                            parentKeys);
+                }, rootKey, fields, parentKeys, maxDepth);
+    }
+
+    private static boolean isChildrenType(Type fieldType, RecordType recordType) {
+        if (fieldType.getTag() != TypeTags.ARRAY_TAG) {
+            return false;
+        }
+        Type elementType = ((ArrayType) fieldType).getElementType();
+        if (elementType.getTag() == TypeTags.TYPE_REFERENCED_TYPE_TAG) {
+            elementType = ((ReferenceType) elementType).getReferredType();
+        }
+        return elementType == recordType;
+    }
+
+    private static Object assemble(String entity, Object rootKey, BArray rows, RecordType recordType, Field children,
+                                   BArray keyFields, BMap<?, ?> parentKeys) {
+        // The records are created before they are linked, as the datastore does not order the rows of a level by
+        // their parents
+        Map<String, BMap<BString, Object>> records = new LinkedHashMap<>();
+        Map<String, Object> parentKeysOfRecords = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            BMap<?, ?> row = (BMap<?, ?>) rows.get(i);
+            Map<String, Object> values = new HashMap<>();
+            for (Object field : row.getKeys()) {
+                if (recordType.getFields().containsKey(field.toString())) {
+                    values.put(field.toString(), row.get(field));
+                }
+            }
+            values.put(children.getFieldName(), ValueCreator.createArrayValue((ArrayType) children.getFieldType()));
+            BMap<BString, Object> value = ValueCreator.createRecordValue(recordType.getPackage(),
+                    recordType.getName(), values);
+            String key = getKeyString(getKeyOfRecord(keyFields, row));
+            records.put(key, value);
+            parentKeysOfRecords.put(key, getParentKey(row, parentKeys));
+        }
+
+        String rootKeyString = getKeyString(rootKey);
+        BMap<BString, Object> root = records.get(rootKeyString);
+        if (root == null) {
+            return getNotFoundError(fromString(entity), rootKey);
+        }
+        // The parent keys are checked for a cycle before the records are linked, as a record nested into itself
+        // cannot be serialized
+        Set<String> acyclicKeys = new HashSet<>();
+        for (String key : records.keySet()) {
+            Set<String> ancestorKeys = new HashSet<>();
+            String current = key;
+            while (current != null && records.containsKey(current) && !acyclicKeys.contains(current)) {
+                if (!ancestorKeys.add(current)) {
+                    return getBasicPersistError(String.format("The parent keys of the records of the entity '%s' " +
+                            "form a cycle at the record with the key '%s'.", entity, current));
+                }
+                Object parentKey = parentKeysOfRecords.get(current);
+                current = parentKey == null ? null : getKeyString(parentKey);
+            }
+            acyclicKeys.addAll(ancestorKeys);
+        }
+        BString childrenField = fromString(children.getFieldName());
+        for (Map.Entry<String, BMap<BString, Object>> entry : records.entrySet()) {
+            Object parentKey = parentKeysOfRecords.get(entry.getKey());
+            if (entry.getKey().equals(rootKeyString) || parentKey == null) {
+                continue;
+            }
+            BMap<BString, Object> parent = records.get(getKeyString(parentKey));
+            if (parent != null) {
+                ((BArray) parent.get(childrenField)).append(entry.getValue());
+            }
+        }
+        return root;
+    }
+
+    private static Object getParentKey(BMap<?, ?> row, BMap<?, ?> parentKeys) {
+        // The parent key is built in the same form as the keys of the records, keyed by the identity fields of the
+        // parent. A root record has no parent.
+        BMap<BString, Object> parentKey = ValueCreator.createMapValue();
+        for (Map.Entry<?, ?> entry : parentKeys.entrySet()) {
+            Object value = row.get(entry.getKey());
+            if (value == null) {
+                return null;
+            }
+            if (parentKeys.size() == 1) {
+                return value;
+            }
+            parentKey.put(fromString(entry.getValue().toString()), value);
+        }
+        return parentKey;
+    }
+}
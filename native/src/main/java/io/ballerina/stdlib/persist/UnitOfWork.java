@@ -0,0 +1,406 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.stdlib.persist.cache.CacheInvalidator;
+import io.ballerina.stdlib.persist.changes.ChangeCapture;
+import io.ballerina.stdlib.persist.changes.ChangeEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getKeyOfRecord;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * Buffers the writes of a business flow and flushes them together. The writes of a record are coalesced as they are
+ * buffered: the updates of a record are merged into a single update, an update of an inserted record is merged into
+ * the insert, and an insert followed by a delete cancels both. A delete followed by an insert stays a delete
+ * followed by an insert, so that the delete takes effect, including its cascades and its change event.
+ * <p>
+ * The flush is an explicit call, which joins the transaction of the caller, rather than a part of the commit. It
+ * inserts the records of an entity with a single batch insert, and sends the updates and the deletes one key at a
+ * time, as each of them has its own fields and result. The inserts and the updates are flushed entity by entity in
+ * the flush order, which lists the entities referenced by a relation before the entities owning the relation, and
+ * the deletes are flushed in the reverse order, so that the foreign keys are satisfied at each step. The records
+ * deleted and inserted again are deleted just before the inserts of their entity. The entities which are not in the
+ * flush order follow it, in the order of their first write.
+ *
+ * @since 1.3.0
+ */
+public class UnitOfWork {
+
+    private static final String UNIT_OF_WORK = "unitOfWork";
+    private static final String UNIT_OF_WORK_CLASS = "UnitOfWork";
+    private static final BString FLUSH_ORDER = fromString("flushOrder");
+    private static final UnionType OPTIONAL_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ANYDATA, PredefinedTypes.TYPE_ERROR);
+
+    private final BObject client;
+    private final List<String> flushOrder;
+    private final Map<String, Map<String, PendingWrite>> writes = new LinkedHashMap<>();
+    private boolean closed = false;
+
+    UnitOfWork(BObject client, List<String> flushOrder) {
+        this.client = client;
+        this.flushOrder = flushOrder;
+    }
+
+    public static Object beginUnitOfWork(BObject client, BMap<BString, Object> config) {
+        UnitOfWork unitOfWork = new UnitOfWork(client,
+                Arrays.asList(((BArray) config.get(FLUSH_ORDER)).getStringArray()));
+        BObject unitOfWorkObject = ValueCreator.createObjectValue(getModule(), UNIT_OF_WORK_CLASS);
+        unitOfWorkObject.addNativeData(UNIT_OF_WORK, unitOfWork);
+        return unitOfWorkObject;
+    }
+
+    public static Object insert(BObject unitOfWorkObject, BString entity, BMap<BString, Object> value) {
+        // This method will return `persist:Error?`
+        return getUnitOfWork(unitOfWorkObject).bufferInsert(entity, value);
+    }
+
+    Object bufferInsert(BString entity, BMap<BString, Object> value) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getEntityError(entity);
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "unit of work");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        Object key = getKeyOfRecord((BArray) persistClient.get(Constants.KEY_FIELDS), value);
+        synchronized (this) {
+            if (closed) {
+                return getClosedError();
+            }
+            Map<String, PendingWrite> entityWrites = getEntityWrites(entity);
+            String keyString = getKeyString(key);
+            PendingWrite pendingWrite = entityWrites.get(keyString);
+            if (pendingWrite == null) {
+                // The record is copied, so that the later updates do not modify the record of the caller
+                entityWrites.put(keyString, new PendingWrite(Operation.INSERT, key,
+                        (BMap<BString, Object>) value.copy(new HashMap<>())));
+            } else if (pendingWrite.operation == Operation.DELETE) {
+                // The record is replaced, which is flushed as the delete followed by the insert
+                entityWrites.put(keyString, new PendingWrite(Operation.REPLACE, key,
+                        (BMap<BString, Object>) value.copy(new HashMap<>())));
+            } else {
+                return getBasicPersistError(String.format(
+                        "A record with the key '%s' of the entity '%s' is already written in the unit of work.",
+                        keyString, entity.getValue()));
+            }
+        }
+        return null;
+    }
+
+    public static Object update(BObject unitOfWorkObject, BString entity, Object key, BMap<BString, Object> value) {
+        // This method will return `persist:Error?`
+        UnitOfWork unitOfWork = getUnitOfWork(unitOfWorkObject);
+        BObject persistClient = getPersistClient(unitOfWork.client, entity);
+        if (persistClient == null) {
+            return getEntityError(entity);
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "unit of work");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        synchronized (unitOfWork) {
+            if (unitOfWork.closed) {
+                return getClosedError();
+            }
+            Map<String, PendingWrite> entityWrites = unitOfWork.getEntityWrites(entity);
+            String keyString = getKeyString(key);
+            PendingWrite pendingWrite = entityWrites.get(keyString);
+            if (pendingWrite == null) {
+                entityWrites.put(keyString, new PendingWrite(Operation.UPDATE, key, merge(null, value)));
+            } else if (pendingWrite.operation == Operation.DELETE) {
+                return getBasicPersistError(String.format(
+                        "The record with the key '%s' of the entity '%s' is deleted in the unit of work.",
+                        keyString, entity.getValue()));
+            } else {
+                pendingWrite.value = merge(pendingWrite.value, value);
+            }
+        }
+        return null;
+    }
+
+    public static Object delete(BObject unitOfWorkObject, BString entity, Object key) {
+        // This method will return `persist:Error?`
+        UnitOfWork unitOfWork = getUnitOfWork(unitOfWorkObject);
+        BObject persistClient = getPersistClient(unitOfWork.client, entity);
+        if (persistClient == null) {
+            return getEntityError(entity);
+        }
+        BError shardingError = ShardRouter.checkNotSharded(persistClient, "unit of work");
+        if (shardingError != null) {
+            return shardingError;
+        }
+        synchronized (unitOfWork) {
+            if (unitOfWork.closed) {
+                return getClosedError();
+            }
+            Map<String, PendingWrite> entityWrites = unitOfWork.getEntityWrites(entity);
+            String keyString = getKeyString(key);
+            PendingWrite pendingWrite = entityWrites.get(keyString);
+            if (pendingWrite != null && pendingWrite.operation == Operation.INSERT) {
+                // The record is never written to the datastore
+                entityWrites.remove(keyString);
+            } else {
+                // The delete of a replaced record deletes the original record
+                entityWrites.put(keyString, new PendingWrite(Operation.DELETE, key, null));
+            }
+        }
+        return null;
+    }
+
+    public static Object flush(Environment env, BObject unitOfWorkObject) {
+        // This method will return `persist:Error?`
+        return getUnitOfWork(unitOfWorkObject).flushWrites(env);
+    }
+
+    Object flushWrites(Environment env) {
+        List<String> entities;
+        synchronized (this) {
+            if (closed) {
+                return getClosedError();
+            }
+            closed = true;
+            entities = getFlushOrder();
+        }
+        // The steps, including their result mappers, are created on the calling strand so that they join its
+        // transaction
+        Deque<Step> steps = new ArrayDeque<>();
+        for (String entity : entities) {
+            addKeyedSteps(env, steps, fromString(entity), Operation.REPLACE);
+            addInsertStep(env, steps, fromString(entity));
+            addKeyedSteps(env, steps, fromString(entity), Operation.UPDATE);
+        }
+        for (int i = entities.size() - 1; i >= 0; i--) {
+            addKeyedSteps(env, steps, fromString(entities.get(i)), Operation.DELETE);
+        }
+        if (steps.isEmpty()) {
+            return null;
+        }
+        ReplicaRouter.recordWrite(env);
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        Future future = env.markAsync();
+        runSteps(env, trxContextProperties, steps, future);
+        return null;
+    }
+
+    public static void discard(BObject unitOfWorkObject) {
+        UnitOfWork unitOfWork = getUnitOfWork(unitOfWorkObject);
+        synchronized (unitOfWork) {
+            unitOfWork.closed = true;
+            unitOfWork.writes.clear();
+        }
+    }
+
+    private static UnitOfWork getUnitOfWork(BObject unitOfWorkObject) {
+        return (UnitOfWork) unitOfWorkObject.getNativeData(UNIT_OF_WORK);
+    }
+
+    private Map<String, PendingWrite> getEntityWrites(BString entity) {
+        return writes.computeIfAbsent(entity.getValue(), name -> new LinkedHashMap<>());
+    }
+
+    private List<String> getFlushOrder() {
+        List<String> entities = new ArrayList<>();
+        for (String entity : flushOrder) {
+            if (writes.containsKey(entity)) {
+                entities.add(entity);
+            }
+        }
+        for (String entity : writes.keySet()) {
+            if (!entities.contains(entity)) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    private void addInsertStep(Environment env, Deque<Step> steps, BString entity) {
+        BArray data = null;
+        for (PendingWrite pendingWrite : writes.get(entity.getValue()).values()) {
+            if (pendingWrite.operation != Operation.INSERT && pendingWrite.operation != Operation.REPLACE) {
+                continue;
+            }
+            if (data == null) {
+                data = ValueCreator.createArrayValue(TypeCreator.createArrayType(pendingWrite.value.getType()));
+            }
+            data.append(pendingWrite.value);
+        }
+        if (data == null) {
+            return;
+        }
+        BObject persistClient = getPersistClient(client, entity);
+        BArray insertedData = data;
+        Function<Object, Object> resultMapper = ((Function<Object, Object>) result -> {
+            CacheInvalidator.invalidateResults(client, entity);
+            return result instanceof BError ? result : null;
+        }).andThen(ChangeCapture.capture(env, client,
+                () -> QueryProcessor.getInsertChanges(persistClient, entity, insertedData)));
+        steps.add(new Step(persistClient, Constants.RUN_BATCH_INSERT_QUERY_METHOD, resultMapper, null, data));
+    }
+
+    private void addKeyedSteps(Environment env, Deque<Step> steps, BString entity, Operation operation) {
+        BObject persistClient = getPersistClient(client, entity);
+        CacheTier cacheTier = CacheTier.getCacheTier(persistClient);
+        for (PendingWrite pendingWrite : writes.get(entity.getValue()).values()) {
+            if (pendingWrite.operation != operation) {
+                continue;
+            }
+            Object key = pendingWrite.key;
+            // The steps are built on the strand of the flush, so that the caches are invalidated again at its commit
+            CacheInvalidator.invalidateKeyOnCommit(client, entity, key);
+            if (cacheTier != null) {
+                cacheTier.removeOnCommit(env, key);
+            }
+            Function<Object, Object> resultMapper = result -> {
+                CacheInvalidator.invalidateKey(client, entity, key);
+                return result instanceof BError ? result : null;
+            };
+            if (operation == Operation.UPDATE) {
+                BMap<BString, Object> value = pendingWrite.value;
+                resultMapper = resultMapper.andThen(ChangeCapture.capture(env, client,
+                        () -> List.of(ChangeEvent.ofUpdate(entity, key, null, value))));
+                steps.add(new Step(persistClient, Constants.RUN_UPDATE_QUERY_METHOD, resultMapper, key, key, value));
+            } else {
+                // The replaced records are deleted as well, before they are inserted again
+                resultMapper = resultMapper.andThen(ChangeCapture.capture(env, client,
+                        () -> List.of(ChangeEvent.ofDelete(entity, key))));
+                steps.add(new Step(persistClient, Constants.RUN_DELETE_QUERY_METHOD, resultMapper, key, key));
+            }
+        }
+    }
+
+    private static void runSteps(Environment env, Map<String, Object> trxContextProperties, Deque<Step> steps,
+                                 Future future) {
+        Step step = steps.poll();
+        if (step == null) {
+            future.complete(null);
+            return;
+        }
+        PersistClientInvoker.invokeAsync(env, trxContextProperties, step.persistClient, step.methodName,
+                OPTIONAL_RESULT_TYPE, result -> {
+                    CacheTier cacheTier = CacheTier.getCacheTier(step.persistClient);
+                    if (cacheTier != null && step.key != null) {
+                        cacheTier.remove(env, step.key,
+                                () -> completeStep(env, trxContextProperties, steps, future, step, result));
+                    } else {
+                        completeStep(env, trxContextProperties, steps, future, step, result);
+                    }
+                }, step.args);
+    }
+
+    private static void completeStep(Environment env, Map<String, Object> trxContextProperties, Deque<Step> steps,
+                                     Future future, Step step, Object result) {
+        Object mappedResult = step.resultMapper.apply(result);
+        if (mappedResult instanceof DeferredResult) {
+            ((DeferredResult) mappedResult).onReady(
+                    stepResult -> continueSteps(env, trxContextProperties, steps, future, stepResult));
+        } else {
+            continueSteps(env, trxContextProperties, steps, future, mappedResult);
+        }
+    }
+
+    private static void continueSteps(Environment env, Map<String, Object> trxContextProperties, Deque<Step> steps,
+                                      Future future, Object stepResult) {
+        // The flush stops at the first failure, which is expected to roll back the enclosing transaction
+        if (stepResult instanceof BError) {
+            future.complete(stepResult);
+        } else {
+            runSteps(env, trxContextProperties, steps, future);
+        }
+    }
+
+    private static BMap<BString, Object> merge(BMap<BString, Object> original, BMap<BString, Object> value) {
+        if (original == null) {
+            original = ValueCreator.createMapValue(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA));
+        }
+        for (BString field : value.getKeys()) {
+            original.put(field, value.get(field));
+        }
+        return original;
+    }
+
+    private static BError getEntityError(BString entity) {
+        return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+    }
+
+    private static BError getClosedError() {
+        return getBasicPersistError("The unit of work is already flushed or discarded.");
+    }
+
+    private enum Operation {
+        INSERT, UPDATE, DELETE, REPLACE
+    }
+
+    private static class PendingWrite {
+        private final Operation operation;
+        private final Object key;
+        private BMap<BString, Object> value;
+
+        PendingWrite(Operation operation, Object key, BMap<BString, Object> value) {
+            this.operation = operation;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private static class Step {
+        private final BObject persistClient;
+        private final String methodName;
+        private final Function<Object, Object> resultMapper;
+        private final Object key;
+        private final Object[] args;
+
+        Step(BObject persistClient, String methodName, Function<Object, Object> resultMapper, Object key,
+             Object... args) {
+            this.persistClient = persistClient;
+            this.methodName = methodName;
+            this.resultMapper = resultMapper;
+            this.key = key;
+            this.args = args;
+        }
+    }
+}
@@ -31,17 +31,23 @@ import io.ballerina.runtime.api.types.RecordType;
 import io.ballerina.runtime.api.types.ReferenceType;
 import io.ballerina.runtime.api.types.Type;
 import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.utils.TypeUtils;
 import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
 import io.ballerina.runtime.api.values.BMap;
 import io.ballerina.runtime.api.values.BObject;
 import io.ballerina.runtime.api.values.BString;
 import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.runtime.transactions.TransactionLocalContext;
 import io.ballerina.runtime.transactions.TransactionResourceManager;
+import io.ballerina.stdlib.persist.cache.LruCache;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static io.ballerina.runtime.api.utils.StringUtils.fromString;
 
@@ -54,6 +60,11 @@ public class Utils {
     private static final List<String> KNOWN_RECORD_TYPES = Arrays.asList(
             Constants.TimeTypes.CIVIL, Constants.TimeTypes.DATE_RECORD, Constants.TimeTypes.TIME_RECORD,
             Constants.TimeTypes.UTC);
+    private static final String FIELD_ANNOTATIONS_PREFIX = "$field$.";
+    private static final BString ON_DELETE = fromString("onDelete");
+    private static final String RESTRICT = "RESTRICT";
+    private static final int METADATA_CACHE_CAPACITY = 1024;
+    private static final LruCache<RecordType, BArray[]> METADATA_CACHE = new LruCache<>(METADATA_CACHE_CAPACITY);
 
     private Utils() {
     }
@@ -68,13 +79,53 @@ public class Utils {
         return (BObject) persistClients.get(entity);
     }
 
+    /**
+     * Returns the metadata of a target type: the fields of the type with the fields of the included relations
+     * prefixed with the relation name, the included relations, and the types of the included relations. The arrays
+     * are created for each call, hence the caller may modify them.
+     *
+     * @param recordType the target type
+     * @return the arrays of the metadata
+     */
     public static BArray[] getMetadata(RecordType recordType) {
+        BArray[] metadata = computeMetadata(recordType);
+        return new BArray[]{metadata[0], metadata[1], metadata[2]};
+    }
+
+    /**
+     * Returns the metadata of a target type, as {@link #getMetadata(RecordType)} does, followed by the included
+     * relations which hold many records. The last lets a datastore load a to-many include, such as a many-to-many
+     * relation through its join table, with a single join query.
+     * <p>
+     * The metadata of the recently used target types is cached, so that the datastores can identify the projection
+     * shape by the identity of the fields array passed to them. Hence, the arrays are shared by all the reads of a
+     * target type and are frozen, and are only passed to the datastore methods.
+     *
+     * @param recordType the target type
+     * @return the arrays of the metadata, which are immutable
+     */
+    static BArray[] getCachedMetadata(RecordType recordType) {
+        BArray[] metadata = METADATA_CACHE.get(recordType);
+        if (metadata == null) {
+            // Concurrent reads of a new target type may compute its metadata more than once, which only costs a
+            // statement cache miss
+            metadata = computeMetadata(recordType);
+            for (BArray array : metadata) {
+                array.freezeDirect();
+            }
+            METADATA_CACHE.put(recordType, metadata);
+        }
+        return metadata.clone();
+    }
+
+    private static BArray[] computeMetadata(RecordType recordType) {
         ArrayType stringArrayType = TypeCreator.createArrayType(PredefinedTypes.TYPE_STRING);
 
         //TODO: use PredefinedTypes.TYPE_TYPEDESC once NPE issue is resolved
         ArrayType typeDescriptionArrayType = TypeCreator.createArrayType(PredefinedTypes.TYPE_ANY);
         BArray fieldsArray = ValueCreator.createArrayValue(stringArrayType);
         BArray includeArray = ValueCreator.createArrayValue(stringArrayType);
+        BArray manyIncludeArray = ValueCreator.createArrayValue(stringArrayType);
         BArray typeDescriptionArray = ValueCreator.createArrayValue(typeDescriptionArrayType);
 
         Map<String, Field> fieldsMap = recordType.getFields();
@@ -91,6 +142,9 @@ public class Utils {
                     !isKnownRecordType(type)) {
                 String innerFieldName = field.getFieldName();
                 includeArray.append(fromString(innerFieldName));
+                if (arrayType) {
+                    manyIncludeArray.append(fromString(innerFieldName));
+                }
 
                 BArray innerFieldsArray = getInnerFieldsArray(type);
                 for (int i = 0; i < innerFieldsArray.size(); i++) {
@@ -111,7 +165,7 @@ public class Utils {
             }
         }
 
-        return new BArray[]{fieldsArray, includeArray, typeDescriptionArray};
+        return new BArray[]{fieldsArray, includeArray, typeDescriptionArray, manyIncludeArray};
     }
 
     private static BArray getInnerFieldsArray(Type type) {
@@ -143,6 +197,90 @@ public class Utils {
         return ballerinaType.getName();
     }
 
+    /**
+     * Returns the annotation of this module with the given name attached to a field of a record type.
+     *
+     * @param recordType     the record type
+     * @param field          the name of the field
+     * @param annotationName the name of the annotation, such as `Version`
+     * @return the value of the annotation, which is `true` for an annotation without a type, or `null` if the field
+     * is not annotated with it
+     */
+    public static Object getFieldAnnotation(RecordType recordType, String field, String annotationName) {
+        Object fieldAnnotations = recordType.getAnnotations().get(fromString(FIELD_ANNOTATIONS_PREFIX + field));
+        return fieldAnnotations instanceof BMap ? findAnnotation((BMap<?, ?>) fieldAnnotations, annotationName) : null;
+    }
+
+    /**
+     * Returns the annotation of this module with the given name attached to a record type.
+     *
+     * @param recordType     the record type
+     * @param annotationName the name of the annotation, such as `Cached`
+     * @return the value of the annotation, which is `true` for an annotation without a value, or `null` if the type
+     * is not annotated with it
+     */
+    public static Object getTypeAnnotation(RecordType recordType, String annotationName) {
+        return findAnnotation(recordType.getAnnotations(), annotationName);
+    }
+
+    private static Object findAnnotation(BMap<?, ?> annotations, String annotationName) {
+        // The keys are of the form `ballerina/persist:1:Version`, with the major version of the module
+        String modulePrefix = ModuleUtils.getModule().getOrg() + "/" + ModuleUtils.getModule().getName() + ":";
+        for (Map.Entry<?, ?> annotation : annotations.entrySet()) {
+            String key = annotation.getKey().toString();
+            if (key.startsWith(modulePrefix) && key.endsWith(":" + annotationName)) {
+                return annotation.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the first field of a record type annotated with the given annotation of this module.
+     *
+     * @param recordType     the record type
+     * @param annotationName the name of the annotation
+     * @return the name of the field, or `null` if no field is annotated with it
+     */
+    public static String getAnnotatedField(RecordType recordType, String annotationName) {
+        for (String field : recordType.getFields().keySet()) {
+            if (getFieldAnnotation(recordType, field, annotationName) != null) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks that the records of an entity are not deleted by a cascade, as the records deleted by the datastore are
+     * not known to the client and would stay in its caches.
+     *
+     * @param entity     the resource name of the entity
+     * @param entityType the type of the entity
+     * @return a `persist:Error` if a relation field of the entity is annotated with a cascading `@persist:Cascade`
+     */
+    public static BError checkNotCascaded(BString entity, BTypedesc entityType) {
+        Type type = TypeUtils.getReferredType(entityType.getDescribingType());
+        if (!(type instanceof RecordType)) {
+            return null;
+        }
+        RecordType recordType = (RecordType) type;
+        for (String field : recordType.getFields().keySet()) {
+            Object policy = getFieldAnnotation(recordType, field, Constants.CASCADE_ANNOTATION);
+            // The annotation holds the policy, which defaults to a cascade
+            if (policy != null && !(policy instanceof BMap &&
+                    RESTRICT.equals(String.valueOf(((BMap<?, ?>) policy).get(ON_DELETE))))) {
+                return ErrorGenerator.getBasicPersistError(String.format("The entity '%s' cannot be cached, as its " +
+                        "records are deleted by the cascade of the '%s' relation.", entity, field));
+            }
+        }
+        return null;
+    }
+
+    public static BArray getManyIncludes(BTypedesc targetType) {
+        return computeMetadata((RecordType) targetType.getDescribingType())[3];
+    }
+
     public static BArray convertToArray(BTypedesc recordType, BArray arr) {
         ArrayType array = TypeCreator.createArrayType(recordType.getDescribingType());
         BArray returnArray = ValueCreator.createArrayValue(array);
@@ -168,6 +306,43 @@ public class Utils {
         }
     }
 
+    /**
+     * Returns a string, which uniquely identifies the given key value. Composite keys are identified irrespective
+     * of the order of their fields.
+     *
+     * @param key the value of the identity field, or a map of the values of the identity fields
+     * @return the string identifying the key
+     */
+    public static String getKeyString(Object key) {
+        if (key instanceof BMap) {
+            Map<String, String> keyFields = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((BMap<?, ?>) key).entrySet()) {
+                keyFields.put(entry.getKey().toString(), StringUtils.getExpressionStringValue(entry.getValue()));
+            }
+            return keyFields.toString();
+        }
+        return StringUtils.getExpressionStringValue(key);
+    }
+
+    /**
+     * Returns the key of a record of an entity, in the same form as the keys of the resource paths.
+     *
+     * @param keyFields the names of the identity fields of the entity
+     * @param row       the record
+     * @return the value of the identity field, or a map of the values of the identity fields
+     */
+    public static Object getKeyOfRecord(BArray keyFields, BMap<?, ?> row) {
+        if (keyFields.size() == 1) {
+            return row.get(keyFields.get(0));
+        }
+        BMap<BString, Object> key = ValueCreator.createMapValue();
+        for (int i = 0; i < keyFields.size(); i++) {
+            BString keyField = (BString) keyFields.get(i);
+            key.put(keyField, row.get(keyField));
+        }
+        return key;
+    }
+
     public static RecordType getRecordTypeWithKeyFields(BArray keyFields, RecordType recordType) {
         Map<String, Field> fieldsMap = new HashMap<>();
         for (Field field : recordType.getFields().values()) {
@@ -224,6 +399,16 @@ public class Utils {
                 trxResourceManager.getCurrentTransactionContext().hasTransactionBlock();
     }
 
+    /**
+     * Returns the context of the transaction of the calling strand.
+     *
+     * @return the transaction context or `null` if the strand is not within a transaction block
+     */
+    public static TransactionLocalContext getCurrentTransactionContext() {
+        TransactionResourceManager trxResourceManager = TransactionResourceManager.getInstance();
+        return isWithinTrxBlock(trxResourceManager) ? trxResourceManager.getCurrentTransactionContext() : null;
+    }
+
     public static Map<String, Object> getTransactionContextProperties() {
         Map<String, Object> properties = null;
         TransactionResourceManager trxResourceManager = TransactionResourceManager.getInstance();
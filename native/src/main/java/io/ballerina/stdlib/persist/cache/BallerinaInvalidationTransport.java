@@ -0,0 +1,99 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.Runtime;
+import io.ballerina.runtime.api.async.Callback;
+import io.ballerina.runtime.api.async.StrandMetadata;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.List;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.PersistClientInvoker.getArgsWithProvidedFlags;
+
+/**
+ * A transport, which publishes the invalidations through a `persist:InvalidationTransport` object implemented in
+ * Ballerina. The invalidations received by the other nodes are applied by calling `persist:applyInvalidations`.
+ *
+ * @since 1.3.0
+ */
+public class BallerinaInvalidationTransport implements InvalidationTransport {
+
+    private static final String PUBLISH_METHOD = "publish";
+    private static final UnionType PUBLISH_RETURN_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ERROR, PredefinedTypes.TYPE_NULL);
+
+    private final Runtime runtime;
+    private final BObject transport;
+
+    public BallerinaInvalidationTransport(Runtime runtime, BObject transport) {
+        this.runtime = runtime;
+        this.transport = transport;
+    }
+
+    @Override
+    public void subscribe(String channel, InvalidationBus bus) {
+        // The Ballerina transport delivers the received invalidations through `persist:applyInvalidations`
+    }
+
+    @Override
+    public void unsubscribe(String channel, InvalidationBus bus) {
+    }
+
+    @Override
+    public void publish(String channel, InvalidationBus origin, List<Invalidation> invalidations) {
+        BArray invalidationArray = null;
+        for (Invalidation invalidation : invalidations) {
+            BMap<BString, Object> invalidationRecord = invalidation.toRecord();
+            if (invalidationArray == null) {
+                invalidationArray = ValueCreator.createArrayValue(
+                        TypeCreator.createArrayType(invalidationRecord.getType()));
+            }
+            invalidationArray.append(invalidationRecord);
+        }
+        if (invalidationArray == null) {
+            return;
+        }
+        StrandMetadata metadata = new StrandMetadata(getModule().getOrg(), getModule().getName(),
+                getModule().getMajorVersion(), PUBLISH_METHOD);
+        runtime.invokeMethodAsyncConcurrently(transport, PUBLISH_METHOD, null, metadata, new Callback() {
+            @Override
+            public void notifySuccess(Object result) {
+                if (result instanceof BError) {
+                    origin.recordFailedMessage();
+                }
+            }
+
+            @Override
+            public void notifyFailure(BError error) {
+                origin.recordFailedMessage();
+            }
+        }, null, PUBLISH_RETURN_TYPE, getArgsWithProvidedFlags(fromString(channel), invalidationArray));
+    }
+}
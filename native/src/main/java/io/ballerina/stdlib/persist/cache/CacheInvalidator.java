@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.transactions.TransactionLocalContext;
+import io.ballerina.stdlib.persist.CacheTier;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.Utils.getCurrentTransactionContext;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Invalidates the caches affected by a write to an entity of a persist client, and publishes the invalidation to
+ * the other nodes if an {@link InvalidationBus} is attached to the client.
+ *
+ * @since 1.3.0
+ */
+public class CacheInvalidator {
+
+    private CacheInvalidator() {
+    }
+
+    /**
+     * Invalidates the caches after the records of the entity with the given key are updated or deleted.
+     *
+     * @param client the persist client
+     * @param entity the resource name of the entity
+     * @param key    the key of the record
+     */
+    public static void invalidateKey(BObject client, BString entity, Object key) {
+        invalidate(client, Invalidation.ofKey(entity.getValue(), getKeyString(key)));
+    }
+
+    /**
+     * Invalidates the caches after an unknown set of the records of the entity are updated or deleted.
+     *
+     * @param client the persist client
+     * @param entity the resource name of the entity
+     */
+    public static void invalidateEntity(BObject client, BString entity) {
+        invalidate(client, Invalidation.ofEntity(entity.getValue()));
+    }
+
+    /**
+     * Invalidates the caches after new records of the entity are inserted. The cached records are not affected.
+     *
+     * @param client the persist client
+     * @param entity the resource name of the entity
+     */
+    public static void invalidateResults(BObject client, BString entity) {
+        invalidate(client, Invalidation.ofResults(entity.getValue()));
+    }
+
+    /**
+     * Registers the invalidation of the record with the given key to be applied again when the transaction of the
+     * calling strand commits. This must be called on the strand of the write, and has no effect outside
+     * transactions.
+     *
+     * @param client the persist client
+     * @param entity the resource name of the entity
+     * @param key    the key of the record
+     */
+    public static void invalidateKeyOnCommit(BObject client, BString entity, Object key) {
+        Invalidation invalidation = Invalidation.ofKey(entity.getValue(), getKeyString(key));
+        onCommit(() -> invalidate(client, invalidation));
+    }
+
+    /**
+     * Registers the invalidation of all the records of the entity to be applied again when the transaction of the
+     * calling strand commits. This must be called on the strand of the write, and has no effect outside
+     * transactions.
+     *
+     * @param client the persist client
+     * @param entity the resource name of the entity
+     */
+    public static void invalidateEntityOnCommit(BObject client, BString entity) {
+        Invalidation invalidation = Invalidation.ofEntity(entity.getValue());
+        onCommit(() -> invalidate(client, invalidation));
+    }
+
+    /**
+     * Registers an invalidation to be run when the transaction of the calling strand commits, as a read outside the
+     * transaction may cache the records written by the transaction before they are committed. This must be called on
+     * the strand of the write, and has no effect outside transactions.
+     *
+     * @param invalidation the invalidation
+     */
+    public static void onCommit(Runnable invalidation) {
+        TransactionLocalContext trxContext = getCurrentTransactionContext();
+        if (trxContext != null) {
+            TransactionInvalidations.getTransactionInvalidations(trxContext).add(invalidation);
+        }
+    }
+
+    /**
+     * Applies an invalidation to the caches of the client, without publishing it.
+     *
+     * @param client       the persist client
+     * @param invalidation the invalidation
+     */
+    static void applyLocally(BObject client, Invalidation invalidation) {
+        BString entity = fromString(invalidation.getEntity());
+        if (!invalidation.isResultsOnly()) {
+            BObject persistClient = getPersistClient(client, entity);
+            EntityCache entityCache = persistClient == null ? null : EntityCache.getEntityCache(persistClient);
+            if (entityCache != null && invalidation.getKey() != null) {
+                entityCache.invalidateKeyString(invalidation.getKey());
+            } else if (entityCache != null) {
+                entityCache.invalidateAll();
+            }
+            if (persistClient != null) {
+                CacheTier.invalidate(persistClient, invalidation.getKey() == null);
+            }
+        }
+        ResultCache.invalidateResultCache(client, entity);
+    }
+
+    private static void invalidate(BObject client, Invalidation invalidation) {
+        applyLocally(client, invalidation);
+        InvalidationBus bus = InvalidationBus.getInvalidationBus(client);
+        if (bus != null) {
+            bus.publish(invalidation);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.types.Type;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BRefValue;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.Utils.checkNotCascaded;
+import static io.ballerina.stdlib.persist.Utils.getKeyString;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+
+/**
+ * Second-level cache of the records of an entity, which is looked up before reading a record by its key. The cache
+ * is attached to the datastore specific persist client of the entity and is bounded either by the number of records
+ * or by their estimated size, using the W-TinyLFU policy.
+ * <p>
+ * A record is cached separately for each target type it is read as. The records are copied when they are cached
+ * and when they are returned, so that the callers can not modify the cached records.
+ *
+ * @since 1.3.0
+ */
+public class EntityCache {
+
+    private static final String ENTITY_CACHE = "entityCache";
+    private static final BString MAX_ENTRIES = StringUtils.fromString("maxEntries");
+    private static final BString MAX_BYTES = StringUtils.fromString("maxBytes");
+    private static final long ENTRY_WEIGHT = 1;
+
+    private final TinyLfuCache<String, CachedRecord> cache;
+    private final boolean weighedBySize;
+    // Incremented on every invalidation, so that the reads which started before a write do not cache stale records
+    private final AtomicLong generation = new AtomicLong();
+
+    private EntityCache(long maxEntries, long maxBytes) {
+        this.weighedBySize = maxBytes > 0;
+        this.cache = weighedBySize ? new TinyLfuCache<>(maxBytes, maxEntries, CachedRecord::getSize) :
+                new TinyLfuCache<>(maxEntries, maxEntries, value -> ENTRY_WEIGHT);
+    }
+
+    public static EntityCache getEntityCache(BObject persistClient) {
+        Object entityCache = persistClient.getNativeData(ENTITY_CACHE);
+        return entityCache instanceof EntityCache ? (EntityCache) entityCache : null;
+    }
+
+    public static Object configureEntityCache(BObject client, BString entity, BTypedesc entityType,
+                                              BMap<BString, Object> config) {
+        BObject persistClient = getPersistClient(client, entity);
+        if (persistClient == null) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        long maxEntries = config.getIntValue(MAX_ENTRIES);
+        long maxBytes = config.containsKey(MAX_BYTES) ? config.getIntValue(MAX_BYTES) : 0;
+        if (maxEntries <= 0 && maxBytes <= 0) {
+            persistClient.addNativeData(ENTITY_CACHE, null);
+            return null;
+        }
+        BError cascadeError = checkNotCascaded(entity, entityType);
+        if (cascadeError != null) {
+            return cascadeError;
+        }
+        persistClient.addNativeData(ENTITY_CACHE, new EntityCache(Math.max(maxEntries, 1), maxBytes));
+        return null;
+    }
+
+    public static void invalidateEntityCache(BObject client, BString entity, Object key) {
+        BObject persistClient = getPersistClient(client, entity);
+        EntityCache entityCache = persistClient == null ? null : getEntityCache(persistClient);
+        if (entityCache != null) {
+            entityCache.invalidate(key);
+        }
+    }
+
+    public static Object getEntityCacheStats(BObject client, BString entity) {
+        BObject persistClient = getPersistClient(client, entity);
+        EntityCache entityCache = persistClient == null ? null : getEntityCache(persistClient);
+        return entityCache == null ? null : entityCache.cache.getStatistics().toRecord();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public Object get(Object key, Type targetType) {
+        // A record cached only as other target types is a miss, as it is read from the datastore
+        CachedRecord cachedRecord = cache.get(getKeyString(key),
+                cached -> cached.projections.containsKey(targetType));
+        return cachedRecord == null ? null : copy(cachedRecord.projections.get(targetType));
+    }
+
+    /**
+     * Caches the record read for the given key, unless the entity has been modified after the read started.
+     *
+     * @param key        the key of the record
+     * @param targetType the type the record was read as
+     * @param value      the record
+     * @param generation the generation of the cache when the read started
+     */
+    public synchronized void put(Object key, Type targetType, Object value, long generation) {
+        if (this.generation.get() != generation) {
+            return;
+        }
+        String keyString = getKeyString(key);
+        CachedRecord cachedRecord = new CachedRecord(cache.peek(keyString));
+        cachedRecord.add(targetType, copy(value), weighedBySize);
+        cache.put(keyString, cachedRecord);
+    }
+
+    public void invalidate(Object key) {
+        invalidateKeyString(getKeyString(key));
+    }
+
+    /**
+     * Removes the record identified by the given key string, as returned by {@code Utils.getKeyString}.
+     *
+     * @param keyString the string identifying the key of the record
+     */
+    public synchronized void invalidateKeyString(String keyString) {
+        generation.incrementAndGet();
+        cache.invalidate(keyString);
+    }
+
+    public synchronized void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static Object copy(Object value) {
+        return value instanceof BRefValue ? ((BRefValue) value).copy(new HashMap<>()) : value;
+    }
+
+    private static class CachedRecord {
+        private final Map<Type, Object> projections;
+        private long size;
+
+        CachedRecord(CachedRecord existing) {
+            this.projections = existing == null ? new HashMap<>() : new HashMap<>(existing.projections);
+            this.size = existing == null ? 0 : existing.size;
+        }
+
+        void add(Type targetType, Object value, boolean weighedBySize) {
+            Object previous = projections.put(targetType, value);
+            if (weighedBySize) {
+                size += SizeEstimator.estimate(value) - SizeEstimator.estimate(previous);
+            }
+        }
+
+        long getSize() {
+            return size;
+        }
+    }
+}
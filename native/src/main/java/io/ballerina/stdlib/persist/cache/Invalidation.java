@@ -0,0 +1,100 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+
+/**
+ * An invalidation of the cached data of an entity, which is published to the other nodes through the
+ * {@link InvalidationBus}. It invalidates a single record, all the records of the entity, or only the cached
+ * stream results of the entity.
+ *
+ * @since 1.3.0
+ */
+public class Invalidation {
+
+    private static final String INVALIDATION_RECORD = "Invalidation";
+    private static final String ENTITY = "entity";
+    private static final String KEY = "key";
+    private static final String RESULTS_ONLY = "resultsOnly";
+
+    private final String entity;
+    private final String key;
+    private final boolean resultsOnly;
+
+    private Invalidation(String entity, String key, boolean resultsOnly) {
+        this.entity = entity;
+        this.key = key;
+        this.resultsOnly = resultsOnly;
+    }
+
+    public static Invalidation ofKey(String entity, String key) {
+        return new Invalidation(entity, key, false);
+    }
+
+    public static Invalidation ofEntity(String entity) {
+        return new Invalidation(entity, null, false);
+    }
+
+    public static Invalidation ofResults(String entity) {
+        return new Invalidation(entity, null, true);
+    }
+
+    public static Invalidation fromRecord(BMap<BString, Object> invalidation) {
+        String entity = invalidation.getStringValue(fromString(ENTITY)).getValue();
+        BString key = invalidation.containsKey(fromString(KEY)) ? invalidation.getStringValue(fromString(KEY)) : null;
+        boolean resultsOnly = invalidation.getBooleanValue(fromString(RESULTS_ONLY));
+        return new Invalidation(entity, key == null ? null : key.getValue(), resultsOnly);
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    /**
+     * Returns the key string of the invalidated record.
+     *
+     * @return the key string, or `null` if the invalidation is not for a single record
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isResultsOnly() {
+        return resultsOnly;
+    }
+
+    public BMap<BString, Object> toRecord() {
+        Map<String, Object> values = new HashMap<>();
+        values.put(ENTITY, fromString(entity));
+        if (key != null) {
+            values.put(KEY, fromString(key));
+        }
+        values.put(RESULTS_ONLY, resultsOnly);
+        return ValueCreator.createRecordValue(getModule(), INVALIDATION_RECORD, values);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+
+/**
+ * Publishes the invalidations caused by the writes through a persist client to the clients of the other nodes, so
+ * that their caches do not serve stale data.
+ * <p>
+ * The invalidations are collected for a short interval and published as a single batch. Repeated invalidations of
+ * a record are coalesced, and the invalidations of an entity are escalated to a single invalidation of all its
+ * records once they exceed the configured number of keys, so that a burst of writes produces a bounded batch.
+ *
+ * @since 1.3.0
+ */
+public class InvalidationBus {
+
+    private static final String INVALIDATION_BUS = "invalidationBus";
+    private static final String INVALIDATION_BUS_STATS_RECORD = "InvalidationBusStats";
+    private static final BString CHANNEL = fromString("channel");
+    private static final BString FLUSH_INTERVAL = fromString("flushInterval");
+    private static final BString MAX_KEYS_PER_ENTITY = fromString("maxKeysPerEntity");
+    private static final ScheduledExecutorService FLUSH_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "persist-invalidation-bus");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final BObject client;
+    private final String channel;
+    private final InvalidationTransport transport;
+    private final long flushInterval;
+    private final int maxKeysPerEntity;
+    private final Map<String, PendingInvalidations> pending = new LinkedHashMap<>();
+    private boolean flushScheduled = false;
+    private final LongAdder publishedInvalidations = new LongAdder();
+    private final LongAdder publishedMessages = new LongAdder();
+    private final LongAdder failedMessages = new LongAdder();
+    private final LongAdder receivedInvalidations = new LongAdder();
+
+    private InvalidationBus(BObject client, String channel, InvalidationTransport transport, long flushInterval,
+                            int maxKeysPerEntity) {
+        this.client = client;
+        this.channel = channel;
+        this.transport = transport;
+        this.flushInterval = flushInterval;
+        this.maxKeysPerEntity = maxKeysPerEntity;
+    }
+
+    public static synchronized Object attachInvalidationBus(Environment env, BObject client,
+                                                            BMap<BString, Object> config, Object transport) {
+        if (getInvalidationBus(client) != null) {
+            return getBasicPersistError("An invalidation bus is already attached to the client.");
+        }
+        InvalidationTransport invalidationTransport = transport instanceof BObject ?
+                new BallerinaInvalidationTransport(env.getRuntime(), (BObject) transport) :
+                LoopbackTransport.getInstance();
+        long flushInterval = ((BDecimal) config.get(FLUSH_INTERVAL)).decimalValue()
+                .multiply(BigDecimal.valueOf(1000)).longValue();
+        long maxKeysPerEntity = config.getIntValue(MAX_KEYS_PER_ENTITY);
+        InvalidationBus bus = new InvalidationBus(client, config.getStringValue(CHANNEL).getValue(),
+                invalidationTransport, Math.max(flushInterval, 0), (int) Math.min(Math.max(maxKeysPerEntity, 1),
+                Integer.MAX_VALUE));
+        invalidationTransport.subscribe(bus.channel, bus);
+        client.addNativeData(INVALIDATION_BUS, bus);
+        return null;
+    }
+
+    public static synchronized void detachInvalidationBus(BObject client) {
+        InvalidationBus bus = getInvalidationBus(client);
+        if (bus != null) {
+            bus.flush();
+            bus.transport.unsubscribe(bus.channel, bus);
+            client.addNativeData(INVALIDATION_BUS, null);
+        }
+    }
+
+    public static void applyInvalidations(BObject client, BArray invalidations) {
+        List<Invalidation> invalidationList = new ArrayList<>(invalidations.size());
+        for (int i = 0; i < invalidations.size(); i++) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> invalidation = (BMap<BString, Object>) invalidations.get(i);
+            invalidationList.add(Invalidation.fromRecord(invalidation));
+        }
+        InvalidationBus bus = getInvalidationBus(client);
+        if (bus != null) {
+            bus.receive(invalidationList);
+        } else {
+            invalidationList.forEach(invalidation -> CacheInvalidator.applyLocally(client, invalidation));
+        }
+    }
+
+    public static Object getInvalidationBusStats(BObject client) {
+        InvalidationBus bus = getInvalidationBus(client);
+        if (bus == null) {
+            return null;
+        }
+        Map<String, Object> values = new HashMap<>();
+        values.put("publishedInvalidations", bus.publishedInvalidations.sum());
+        values.put("publishedMessages", bus.publishedMessages.sum());
+        values.put("failedMessages", bus.failedMessages.sum());
+        values.put("receivedInvalidations", bus.receivedInvalidations.sum());
+        return ValueCreator.createRecordValue(getModule(), INVALIDATION_BUS_STATS_RECORD, values);
+    }
+
+    public static InvalidationBus getInvalidationBus(BObject client) {
+        Object bus = client.getNativeData(INVALIDATION_BUS);
+        return bus instanceof InvalidationBus ? (InvalidationBus) bus : null;
+    }
+
+    /**
+     * Queues an invalidation to be published with the next batch.
+     *
+     * @param invalidation the invalidation
+     */
+    public synchronized void publish(Invalidation invalidation) {
+        pending.computeIfAbsent(invalidation.getEntity(), entity -> new PendingInvalidations())
+                .add(invalidation, maxKeysPerEntity);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            FLUSH_EXECUTOR.schedule(this::flush, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void receive(List<Invalidation> invalidations) {
+        receivedInvalidations.add(invalidations.size());
+        for (Invalidation invalidation : invalidations) {
+            CacheInvalidator.applyLocally(client, invalidation);
+        }
+    }
+
+    void recordFailedMessage() {
+        failedMessages.increment();
+    }
+
+    private void flush() {
+        List<Invalidation> batch = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            for (Map.Entry<String, PendingInvalidations> entry : pending.entrySet()) {
+                entry.getValue().drainTo(entry.getKey(), batch);
+            }
+            pending.clear();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        publishedInvalidations.add(batch.size());
+        publishedMessages.increment();
+        transport.publish(channel, this, batch);
+    }
+
+    private static class PendingInvalidations {
+        private final Set<String> keys = new LinkedHashSet<>();
+        private boolean allRecords = false;
+        private boolean results = false;
+
+        void add(Invalidation invalidation, int maxKeys) {
+            if (invalidation.isResultsOnly()) {
+                results = true;
+            } else if (invalidation.getKey() == null || allRecords) {
+                allRecords = true;
+                keys.clear();
+            } else if (keys.add(invalidation.getKey()) && keys.size() > maxKeys) {
+                allRecords = true;
+                keys.clear();
+            }
+        }
+
+        void drainTo(String entity, List<Invalidation> batch) {
+            // Invalidating records also invalidates the results, so a results only invalidation is needed only alone
+            if (allRecords) {
+                batch.add(Invalidation.ofEntity(entity));
+            } else if (!keys.isEmpty()) {
+                keys.forEach(key -> batch.add(Invalidation.ofKey(entity, key)));
+            } else if (results) {
+                batch.add(Invalidation.ofResults(entity));
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import java.util.List;
+
+/**
+ * Carries the batches of invalidations published by an {@link InvalidationBus} to the buses of the other nodes.
+ *
+ * @since 1.3.0
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Registers a bus to receive the invalidations published to the given channel by the other buses.
+     *
+     * @param channel the channel
+     * @param bus     the bus
+     */
+    void subscribe(String channel, InvalidationBus bus);
+
+    /**
+     * Removes the registration of a bus.
+     *
+     * @param channel the channel
+     * @param bus     the bus
+     */
+    void unsubscribe(String channel, InvalidationBus bus);
+
+    /**
+     * Publishes a batch of invalidations to the given channel.
+     *
+     * @param channel       the channel
+     * @param origin        the bus, which published the batch
+     * @param invalidations the invalidations
+     */
+    void publish(String channel, InvalidationBus origin, List<Invalidation> invalidations);
+}
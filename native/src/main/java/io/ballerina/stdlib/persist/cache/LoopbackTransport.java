@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * An in-process transport, which delivers the invalidations to the other buses of the same channel in this
+ * process. This is used when no transport is provided, and to test multiple clients standing for multiple nodes.
+ *
+ * @since 1.3.0
+ */
+public class LoopbackTransport implements InvalidationTransport {
+
+    private static final LoopbackTransport INSTANCE = new LoopbackTransport();
+
+    private final Map<String, Set<InvalidationBus>> subscribers = new ConcurrentHashMap<>();
+
+    private LoopbackTransport() {
+    }
+
+    public static LoopbackTransport getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void subscribe(String channel, InvalidationBus bus) {
+        subscribers.computeIfAbsent(channel, name -> new CopyOnWriteArraySet<>()).add(bus);
+    }
+
+    @Override
+    public void unsubscribe(String channel, InvalidationBus bus) {
+        Set<InvalidationBus> buses = subscribers.get(channel);
+        if (buses != null) {
+            buses.remove(bus);
+        }
+    }
+
+    @Override
+    public void publish(String channel, InvalidationBus origin, List<Invalidation> invalidations) {
+        Set<InvalidationBus> buses = subscribers.get(channel);
+        if (buses == null) {
+            return;
+        }
+        for (InvalidationBus bus : buses) {
+            if (bus != origin) {
+                bus.receive(invalidations);
+            }
+        }
+    }
+}
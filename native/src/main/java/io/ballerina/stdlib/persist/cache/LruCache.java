@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A thread safe cache bounded by the number of entries, which evicts the least recently used entry.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.3.0
+ */
+public class LruCache<K, V> {
+
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final Map<K, V> entries;
+
+    public LruCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > capacity) {
+                    statistics.recordEviction();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            statistics.recordMiss();
+        } else {
+            statistics.recordHit();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value cached for the key if it is still valid. An invalid value is removed and counted as a miss.
+     *
+     * @param key     the key
+     * @param isValid checks whether the cached value can still be used
+     * @return the cached value or `null` if there is no valid value
+     */
+    public synchronized V get(K key, Predicate<V> isValid) {
+        V value = entries.get(key);
+        if (value != null && !isValid.test(value)) {
+            entries.remove(key);
+            value = null;
+        }
+        if (value == null) {
+            statistics.recordMiss();
+        } else {
+            statistics.recordHit();
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.StreamType;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BStream;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.plural.Pluralizer;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.Constants.PERSIST_CLIENTS;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.checkNotCascaded;
+import static io.ballerina.stdlib.persist.Utils.getMetadata;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * Cache of the results of the stream reads of the entities of a persist client, which is attached to the client.
+ * <p>
+ * A cached result expires after the configured TTL, and it is invalidated by any write to its entity or to the
+ * entities it includes. Included relations, which can not be mapped to an entity of the client, make the result
+ * depend on all the entities. The rows of a cached result are frozen, so that they can be replayed as a new stream
+ * for every read without copying them.
+ *
+ * @since 1.3.0
+ */
+public class ResultCache {
+
+    private static final String RESULT_CACHE = "resultCache";
+    private static final String ALL_ENTITIES = "*";
+    private static final String CACHED_RESULT_ITERATOR = "CachedResultIterator";
+    private static final String RESULT_ITERATOR = "ResultIterator";
+    private static final String CACHE_MISS_RECORD = "CacheMiss";
+    private static final String VERSION = "version";
+    private static final BString VERSION_FIELD = fromString(VERSION);
+    private static final BString TTL = fromString("ttl");
+    private static final BString MAX_ENTRIES = fromString("maxEntries");
+    // A version, which is never current, so that the result of the read is not cached
+    private static final long UNCACHEABLE_VERSION = -1;
+
+    private final Map<String, EntityResults> entityResults = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Incremented on every write, so that the reads which started before a write do not cache stale results
+    private final AtomicLong version = new AtomicLong();
+
+    private ResultCache() {
+    }
+
+    public static synchronized Object configureResultCache(BObject client, BString entity, BTypedesc entityType,
+                                                           BMap<BString, Object> config) {
+        if (!getPersistClients(client).containsKey(entity)) {
+            return getBasicPersistError(String.format("The entity '%s' does not exist in the client.", entity));
+        }
+        ResultCache resultCache = getResultCache(client);
+        long maxEntries = config.getIntValue(MAX_ENTRIES);
+        if (maxEntries <= 0) {
+            if (resultCache != null) {
+                resultCache.entityResults.remove(entity.getValue());
+            }
+            return null;
+        }
+        BError cascadeError = checkNotCascaded(entity, entityType);
+        if (cascadeError != null) {
+            return cascadeError;
+        }
+        if (resultCache == null) {
+            resultCache = new ResultCache();
+            client.addNativeData(RESULT_CACHE, resultCache);
+        }
+        long ttl = ((BDecimal) config.get(TTL)).decimalValue().multiply(BigDecimal.valueOf(1000))
+                .longValue();
+        resultCache.entityResults.put(entity.getValue(), new EntityResults(TimeUnit.MILLISECONDS.toNanos(ttl),
+                (int) Math.min(maxEntries, Integer.MAX_VALUE)));
+        return null;
+    }
+
+    public static Object getCachedResult(BObject client, BString entity, BString filterKey, BTypedesc targetType) {
+        ResultCache resultCache = getResultCache(client);
+        EntityResults results = resultCache == null ? null : resultCache.entityResults.get(entity.getValue());
+        if (results == null || getTransactionContextProperties() != null) {
+            return createCacheMiss(UNCACHEABLE_VERSION);
+        }
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        ResultKey key = new ResultKey(recordType, filterKey.getValue());
+        long currentVersion = resultCache.version.get();
+        CachedResult cachedResult = results.cache.get(key, resultCache::isValid);
+        if (cachedResult == null) {
+            return createCacheMiss(currentVersion);
+        }
+        return createStream(recordType, cachedResult.rows);
+    }
+
+    public static BStream cacheResult(BObject client, BString entity, BString filterKey, BArray rows,
+                                      BMap<BString, Object> cacheMiss, BTypedesc targetType) {
+        RecordType recordType = (RecordType) targetType.getDescribingType();
+        long readVersion = cacheMiss.getIntValue(VERSION_FIELD);
+        ResultCache resultCache = getResultCache(client);
+        EntityResults results = resultCache == null ? null : resultCache.entityResults.get(entity.getValue());
+        if (results == null || readVersion == UNCACHEABLE_VERSION) {
+            // The rows are not cached, hence they are returned as they are, without freezing them
+            return ValueCreator.createStreamValue(createStreamType(recordType),
+                    ValueCreator.createObjectValue(getModule(), RESULT_ITERATOR, rows));
+        }
+        rows.freezeDirect();
+        Set<String> dependencies = getDependencies(client, entity.getValue(), getMetadata(recordType)[1]);
+        resultCache.put(results, new ResultKey(recordType, filterKey.getValue()), rows, dependencies, readVersion);
+        return createStream(recordType, rows);
+    }
+
+    public static void invalidateResultCache(BObject client, BString entity) {
+        ResultCache resultCache = getResultCache(client);
+        if (resultCache != null) {
+            resultCache.invalidate(entity.getValue());
+        }
+    }
+
+    public static Object getResultCacheStats(BObject client, BString entity) {
+        ResultCache resultCache = getResultCache(client);
+        EntityResults results = resultCache == null ? null : resultCache.entityResults.get(entity.getValue());
+        return results == null ? null : results.cache.getStatistics().toRecord();
+    }
+
+    private static ResultCache getResultCache(BObject client) {
+        Object resultCache = client.getNativeData(RESULT_CACHE);
+        return resultCache instanceof ResultCache ? (ResultCache) resultCache : null;
+    }
+
+    private static BMap<?, ?> getPersistClients(BObject client) {
+        return (BMap<?, ?>) client.get(PERSIST_CLIENTS);
+    }
+
+    private static Set<String> getDependencies(BObject client, String entity, BArray includes) {
+        BMap<?, ?> persistClients = getPersistClients(client);
+        Set<String> dependencies = new HashSet<>();
+        dependencies.add(entity);
+        for (String include : includes.getStringArray()) {
+            if (persistClients.containsKey(fromString(include))) {
+                dependencies.add(include);
+            } else if (persistClients.containsKey(fromString(Pluralizer.pluralize(include)))) {
+                dependencies.add(Pluralizer.pluralize(include));
+            } else {
+                dependencies.add(ALL_ENTITIES);
+            }
+        }
+        return dependencies;
+    }
+
+    private static BMap<BString, Object> createCacheMiss(long version) {
+        Map<String, Object> values = new HashMap<>();
+        values.put(VERSION, version);
+        return ValueCreator.createRecordValue(getModule(), CACHE_MISS_RECORD, values);
+    }
+
+    private static BStream createStream(RecordType recordType, BArray rows) {
+        BObject iterator = ValueCreator.createObjectValue(getModule(), CACHED_RESULT_ITERATOR, rows);
+        return ValueCreator.createStreamValue(createStreamType(recordType), iterator);
+    }
+
+    private static StreamType createStreamType(RecordType recordType) {
+        return TypeCreator.createStreamType(recordType,
+                TypeCreator.createUnionType(PredefinedTypes.TYPE_ERROR, PredefinedTypes.TYPE_NULL));
+    }
+
+    private void put(EntityResults results, ResultKey key, BArray rows, Set<String> dependencies, long readVersion) {
+        Map<String, Long> dependencyGenerations = new HashMap<>();
+        for (String dependency : dependencies) {
+            dependencyGenerations.put(dependency, getGeneration(dependency).get());
+        }
+        // The generations are read before the version is checked, so that a concurrent write is never missed
+        if (readVersion != version.get()) {
+            return;
+        }
+        results.cache.put(key, new CachedResult(rows, System.nanoTime() + results.ttl, dependencyGenerations));
+    }
+
+    private boolean isValid(CachedResult cachedResult) {
+        if (System.nanoTime() - cachedResult.expiry >= 0) {
+            return false;
+        }
+        for (Map.Entry<String, Long> dependency : cachedResult.dependencyGenerations.entrySet()) {
+            if (getGeneration(dependency.getKey()).get() != dependency.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void invalidate(String entity) {
+        // The version is incremented before the generations, so that a result read before this write is either
+        // rejected by the version check, or cached with the previous generations and hence never served
+        version.incrementAndGet();
+        getGeneration(entity).incrementAndGet();
+        getGeneration(ALL_ENTITIES).incrementAndGet();
+    }
+
+    private AtomicLong getGeneration(String entity) {
+        return generations.computeIfAbsent(entity, name -> new AtomicLong());
+    }
+
+    private static class EntityResults {
+        private final long ttl;
+        private final LruCache<ResultKey, CachedResult> cache;
+
+        EntityResults(long ttl, int maxEntries) {
+            this.ttl = ttl;
+            this.cache = new LruCache<>(maxEntries);
+        }
+    }
+
+    private static class CachedResult {
+        private final BArray rows;
+        private final long expiry;
+        private final Map<String, Long> dependencyGenerations;
+
+        CachedResult(BArray rows, long expiry, Map<String, Long> dependencyGenerations) {
+            this.rows = rows;
+            this.expiry = expiry;
+            this.dependencyGenerations = dependencyGenerations;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.types.RecordType;
+
+import java.util.Objects;
+
+/**
+ * Key of a cached stream read. The projection is identified by the identity of the target type, which also covers the
+ * included relations, and the filter by the key provided by the datastore.
+ *
+ * @since 1.3.0
+ */
+public class ResultKey {
+
+    private final RecordType targetType;
+    private final String filterKey;
+    private final int hashCode;
+
+    public ResultKey(RecordType targetType, String filterKey) {
+        this.targetType = targetType;
+        this.filterKey = filterKey;
+        this.hashCode = Objects.hash(System.identityHashCode(targetType), filterKey);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResultKey)) {
+            return false;
+        }
+        ResultKey that = (ResultKey) o;
+        return targetType == that.targetType && filterKey.equals(that.filterKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
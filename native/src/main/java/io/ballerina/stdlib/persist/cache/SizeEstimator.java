@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.TypeTags;
+import io.ballerina.runtime.api.utils.TypeUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.Map;
+
+/**
+ * Estimates the memory retained by the records held in a cache. The estimate is only meant to bound the caches
+ * configured by size, and it is not the exact size of the values.
+ *
+ * @since 1.3.0
+ */
+public class SizeEstimator {
+
+    private static final long REFERENCE_SIZE = 16;
+    private static final long OBJECT_OVERHEAD = 24;
+    private static final long DECIMAL_SIZE = 32;
+    private static final long ENTRY_OVERHEAD = 32;
+
+    private SizeEstimator() {
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof BString) {
+            return OBJECT_OVERHEAD + 2L * ((BString) value).length();
+        }
+        if (value instanceof BDecimal) {
+            return DECIMAL_SIZE;
+        }
+        if (value instanceof BMap) {
+            long size = OBJECT_OVERHEAD;
+            for (Map.Entry<?, ?> entry : ((BMap<?, ?>) value).entrySet()) {
+                size += ENTRY_OVERHEAD + estimate(entry.getKey()) + estimate(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof BArray) {
+            BArray array = (BArray) value;
+            if (TypeUtils.getReferredType(array.getElementType()).getTag() == TypeTags.BYTE_TAG) {
+                return OBJECT_OVERHEAD + array.size();
+            }
+            long size = OBJECT_OVERHEAD;
+            for (int i = 0; i < array.size(); i++) {
+                size += REFERENCE_SIZE + estimate(array.get(i));
+            }
+            return size;
+        }
+        return REFERENCE_SIZE;
+    }
+}
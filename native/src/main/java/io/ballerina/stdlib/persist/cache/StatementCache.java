@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BString;
+
+/**
+ * Bounded cache of the query text built by the datastores for an entity and a projection shape, and of the update
+ * statements built for an entity and a set of changed fields. This avoids rebuilding the same statement for every
+ * operation, and lets the database driver reuse its prepared statement.
+ *
+ * @since 1.3.0
+ */
+public class StatementCache {
+
+    private static final int DEFAULT_CAPACITY = 512;
+
+    private static volatile LruCache<Object, BString> cache = new LruCache<>(DEFAULT_CAPACITY);
+    private static volatile boolean enabled = true;
+
+    private StatementCache() {
+    }
+
+    public static void init(long capacity) {
+        enabled = capacity > 0;
+        cache = new LruCache<>(enabled ? (int) Math.min(capacity, Integer.MAX_VALUE) : 1);
+    }
+
+    public static Object getStatement(BString entity, BArray fields, BArray includes, BArray keyFields) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.get(new StatementKey(entity.getValue(), fields, includes, keyFields));
+    }
+
+    public static void putStatement(BString entity, BArray fields, BArray includes, BArray keyFields,
+                                    BString statement) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(new StatementKey(entity.getValue(), fields, includes, keyFields), statement);
+    }
+
+    public static Object getUpdateStatement(BString entity, BArray fields) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.get(new UpdateStatementKey(entity.getValue(), fields));
+    }
+
+    public static void putUpdateStatement(BString entity, BArray fields, BString statement) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(new UpdateStatementKey(entity.getValue(), fields), statement);
+    }
+
+    public static BMap<BString, Object> getStatementCacheStats() {
+        return cache.getStatistics().toRecord();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.values.BArray;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Key of a cached statement. The fields array is compared by identity, as the metadata of a target type is computed
+ * once and reused.
+ *
+ * @since 1.3.0
+ */
+public class StatementKey {
+
+    private final String entity;
+    private final BArray fields;
+    private final Set<String> includes;
+    private final List<String> keyFields;
+    private final int hashCode;
+
+    public StatementKey(String entity, BArray fields, BArray includes, BArray keyFields) {
+        this.entity = entity;
+        this.fields = fields;
+        this.includes = new HashSet<>(Arrays.asList(includes.getStringArray()));
+        this.keyFields = Arrays.asList(keyFields.getStringArray());
+        this.hashCode = Objects.hash(entity, System.identityHashCode(fields), this.includes, this.keyFields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StatementKey)) {
+            return false;
+        }
+        StatementKey that = (StatementKey) o;
+        return fields == that.fields && entity.equals(that.entity) && includes.equals(that.includes) &&
+                keyFields.equals(that.keyFields);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread safe cache bounded by the total weight of its entries, which uses the W-TinyLFU policy.
+ * <p>
+ * New entries are admitted to a small LRU window. Entries leaving the window become candidates for the main
+ * segmented LRU, and a candidate is only admitted if it has been accessed more often than the entry it would
+ * replace, as estimated by a {@link FrequencySketch}. Entries accessed again in the probation segment of the main
+ * space are promoted to its protected segment.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @since 1.3.0
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final double WINDOW_RATIO = 0.01;
+    private static final double PROTECTED_RATIO = 0.8;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToLongFunction<V> weigher;
+    private final FrequencySketch sketch;
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    // The segments are kept in access order, with the least recently used entry first
+    private final LinkedHashMap<K, Entry<V>> window = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>();
+    private long windowWeight = 0;
+    private long probationWeight = 0;
+    private long protectedWeight = 0;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumWeight   the maximum total weight of the entries
+     * @param expectedEntries the expected maximum number of entries, used to size the frequency sketch
+     * @param weigher         computes the weight of a value
+     */
+    public TinyLfuCache(long maximumWeight, long expectedEntries, ToLongFunction<V> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+        this.protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_RATIO);
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public synchronized V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Returns the value cached for the key if it can serve the read. The frequency of the key is recorded for every
+     * read, while the entry is only moved by a read it serves. A cached value which can not serve the read is kept,
+     * but the read is counted as a miss.
+     *
+     * @param key      the key
+     * @param isUsable checks whether the cached value can serve the read
+     * @return the cached value or `null` if there is no usable value
+     */
+    public synchronized V get(K key, Predicate<V> isUsable) {
+        sketch.increment(key);
+        V value = peek(key);
+        if (value == null || !isUsable.test(value)) {
+            statistics.recordMiss();
+            return null;
+        }
+        statistics.recordHit();
+        recordAccess(key);
+        return value;
+    }
+
+    private void recordAccess(K key) {
+        Entry<V> entry = window.remove(key);
+        if (entry != null) {
+            window.put(key, entry);
+            return;
+        }
+        entry = probation.remove(key);
+        if (entry != null) {
+            probationWeight -= entry.weight;
+            protectedSegment.put(key, entry);
+            protectedWeight += entry.weight;
+            demoteProtectedOverflow();
+            return;
+        }
+        entry = protectedSegment.remove(key);
+        if (entry != null) {
+            protectedSegment.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns the value cached for the key without recording an access.
+     *
+     * @param key the key
+     * @return the cached value or `null` if the key is not cached
+     */
+    public synchronized V peek(K key) {
+        Entry<V> entry = window.get(key);
+        if (entry == null) {
+            entry = probation.get(key);
+        }
+        if (entry == null) {
+            entry = protectedSegment.get(key);
+        }
+        return entry == null ? null : entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        remove(key);
+        long weight = weigher.applyAsLong(value);
+        if (weight > maximumWeight) {
+            return;
+        }
+        sketch.increment(key);
+        window.put(key, new Entry<>(value, weight));
+        windowWeight += weight;
+        evict();
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = window.remove(key);
+        if (entry != null) {
+            windowWeight -= entry.weight;
+            return;
+        }
+        entry = probation.remove(key);
+        if (entry != null) {
+            probationWeight -= entry.weight;
+            return;
+        }
+        entry = protectedSegment.remove(key);
+        if (entry != null) {
+            protectedWeight -= entry.weight;
+        }
+    }
+
+    private void demoteProtectedOverflow() {
+        while (protectedWeight > protectedMaximum && !protectedSegment.isEmpty()) {
+            K key = protectedSegment.keySet().iterator().next();
+            Entry<V> entry = protectedSegment.remove(key);
+            protectedWeight -= entry.weight;
+            probation.put(key, entry);
+            probationWeight += entry.weight;
+        }
+    }
+
+    private void evict() {
+        Deque<K> candidates = new ArrayDeque<>();
+        while (windowWeight > windowMaximum && !window.isEmpty()) {
+            K key = window.keySet().iterator().next();
+            Entry<V> entry = window.remove(key);
+            windowWeight -= entry.weight;
+            probation.put(key, entry);
+            probationWeight += entry.weight;
+            candidates.push(key);
+        }
+
+        while (windowWeight + probationWeight + protectedWeight > maximumWeight) {
+            K candidate = candidates.poll();
+            if (candidate == null || !probation.containsKey(candidate)) {
+                evictLeastRecentlyUsed();
+                continue;
+            }
+            K victim = probation.keySet().iterator().next();
+            if (victim.equals(candidate) || sketch.frequency(candidate) <= sketch.frequency(victim)) {
+                evictFromProbation(candidate);
+            } else {
+                evictFromProbation(victim);
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        if (!probation.isEmpty()) {
+            evictFromProbation(probation.keySet().iterator().next());
+        } else if (!protectedSegment.isEmpty()) {
+            K key = protectedSegment.keySet().iterator().next();
+            protectedWeight -= protectedSegment.remove(key).weight;
+            statistics.recordEviction();
+        } else {
+            K key = window.keySet().iterator().next();
+            windowWeight -= window.remove(key).weight;
+            statistics.recordEviction();
+        }
+    }
+
+    private void evictFromProbation(K key) {
+        probationWeight -= probation.remove(key).weight;
+        statistics.recordEviction();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
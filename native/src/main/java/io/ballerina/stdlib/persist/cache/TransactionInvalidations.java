@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.transactions.BallerinaTransactionContext;
+import io.ballerina.runtime.transactions.TransactionLocalContext;
+import io.ballerina.runtime.transactions.TransactionResourceManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.transaction.xa.XAResource;
+
+/**
+ * The cache invalidations of the writes made within a transaction. A read outside the transaction may cache a
+ * record after the write invalidates it and before the transaction commits, hence the invalidations are applied
+ * again when the transaction commits. This takes part in the transaction as a resource, in the same way as the
+ * changes of the change stream.
+ *
+ * @since 1.3.0
+ */
+class TransactionInvalidations implements BallerinaTransactionContext {
+
+    private static final String CONNECTOR_ID = "persist-cache-invalidations";
+
+    private final List<Runnable> invalidations = new ArrayList<>();
+
+    private TransactionInvalidations() {
+    }
+
+    /**
+     * Returns the invalidations of the given transaction, which are registered with the transaction when the first
+     * write within it is made.
+     *
+     * @param trxContext the context of the transaction
+     * @return the invalidations of the transaction
+     */
+    static TransactionInvalidations getTransactionInvalidations(TransactionLocalContext trxContext) {
+        synchronized (TransactionInvalidations.class) {
+            if (trxContext.hasTransactionContext(CONNECTOR_ID)) {
+                return (TransactionInvalidations) trxContext.getTransactionContext(CONNECTOR_ID);
+            }
+            TransactionInvalidations transactionInvalidations = new TransactionInvalidations();
+            trxContext.registerTransactionContext(CONNECTOR_ID, transactionInvalidations);
+            TransactionResourceManager.getInstance().register(trxContext.getGlobalTransactionId(),
+                    trxContext.getCurrentTransactionBlockId(), transactionInvalidations);
+            return transactionInvalidations;
+        }
+    }
+
+    synchronized void add(Runnable invalidation) {
+        invalidations.add(invalidation);
+    }
+
+    @Override
+    public void commit() {
+        List<Runnable> committedInvalidations;
+        synchronized (this) {
+            committedInvalidations = new ArrayList<>(invalidations);
+            invalidations.clear();
+        }
+        committedInvalidations.forEach(Runnable::run);
+    }
+
+    @Override
+    public synchronized void rollback() {
+        // The caches are invalidated when the writes are made, and the records they hold are not changed by the
+        // rolled back writes
+        invalidations.clear();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public XAResource getXAResource() {
+        return null;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.cache;
+
+import io.ballerina.runtime.api.values.BArray;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Key of a cached update statement. Updates which change the same fields of an entity in the same order share the
+ * statement. The order is part of the key, as the datastores bind the values of the statement by position.
+ *
+ * @since 1.3.0
+ */
+public class UpdateStatementKey {
+
+    private final String entity;
+    private final List<String> fields;
+    private final int hashCode;
+
+    public UpdateStatementKey(String entity, BArray fields) {
+        this.entity = entity;
+        this.fields = Arrays.asList(fields.getStringArray());
+        this.hashCode = Objects.hash(entity, this.fields);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UpdateStatementKey)) {
+            return false;
+        }
+        UpdateStatementKey that = (UpdateStatementKey) o;
+        return entity.equals(that.entity) && fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.stdlib.persist.DeferredResult;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records the changes made by the writes through a persist client, in its change stream and in its outbox.
+ *
+ * @since 1.3.0
+ */
+public class ChangeCapture {
+
+    private ChangeCapture() {
+    }
+
+    /**
+     * Returns a result mapper, which records the changes of a write once it succeeds. The mapper must be created on
+     * the strand of the write, so that the changes made within a transaction are bound to the transaction. It may
+     * return a {@link io.ballerina.stdlib.persist.DeferredResult}, which is released once the changes are recorded.
+     *
+     * @param env     the environment of the calling strand
+     * @param client  the persist client
+     * @param changes supplies the changes made by the write
+     * @return the mapper, which returns the result of the write
+     */
+    public static Function<Object, Object> capture(Environment env, BObject client,
+                                                   Supplier<List<ChangeEvent>> changes) {
+        Outbox outbox = Outbox.getOutbox(client);
+        if (outbox == null) {
+            return ChangeStream.capture(client, changes);
+        }
+        // The changes are created once for both, and are queued in the stream before the outbox insert, which
+        // defers the result
+        Supplier<List<ChangeEvent>> sharedChanges = new Supplier<>() {
+            private List<ChangeEvent> createdChanges;
+
+            @Override
+            public synchronized List<ChangeEvent> get() {
+                if (createdChanges == null) {
+                    createdChanges = changes.get();
+                }
+                return createdChanges;
+            }
+        };
+        return thenApply(ChangeStream.capture(client, sharedChanges), outbox.capture(env, sharedChanges));
+    }
+
+    /**
+     * Returns a result mapper, which records the changes of a write made outside transactions, such as a write
+     * dispatched on a detached strand. Only the change stream records these changes, as the outbox only records the
+     * changes made within transactions.
+     *
+     * @param client  the persist client
+     * @param changes supplies the changes made by the write
+     * @return the mapper, which returns the result of the write
+     */
+    public static Function<Object, Object> captureOutsideTransaction(BObject client,
+                                                                     Supplier<List<ChangeEvent>> changes) {
+        return ChangeStream.captureOutsideTransaction(client, changes);
+    }
+
+    private static Function<Object, Object> thenApply(Function<Object, Object> first, Function<Object, Object> then) {
+        // The change stream defers the result of a transactional write while it waits for space
+        return result -> {
+            Object firstResult = first.apply(result);
+            if (!(firstResult instanceof DeferredResult)) {
+                return then.apply(firstResult);
+            }
+            DeferredResult deferredResult = new DeferredResult();
+            ((DeferredResult) firstResult).onReady(readyResult -> {
+                Object thenResult = then.apply(readyResult);
+                if (thenResult instanceof DeferredResult) {
+                    ((DeferredResult) thenResult).onReady(deferredResult::release);
+                } else {
+                    deferredResult.release(thenResult);
+                }
+            });
+            return deferredResult;
+        };
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BRefValue;
+import io.ballerina.runtime.api.values.BString;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+
+/**
+ * A change to the records of an entity, made by a write through a persist client. The key is `null` for the
+ * predicate based writes, which change an unknown set of records. The values are frozen copies, so that the
+ * subscribers observe the records as they were written.
+ *
+ * @since 1.3.0
+ */
+public class ChangeEvent {
+
+    static final String INSERT = "INSERT";
+    static final String UPDATE = "UPDATE";
+    static final String DELETE = "DELETE";
+
+    private static final String CHANGE_EVENT_RECORD = "ChangeEvent";
+    private static volatile ArrayType changeEventArrayType;
+
+    private final String entity;
+    private final String operation;
+    private final Object key;
+    private final Object before;
+    private final Object after;
+
+    private ChangeEvent(String entity, String operation, Object key, Object before, Object after) {
+        this.entity = entity;
+        this.operation = operation;
+        this.key = freeze(key);
+        this.before = freeze(before);
+        this.after = freeze(after);
+    }
+
+    public static ChangeEvent ofInsert(BString entity, Object key, BMap<?, ?> value) {
+        return new ChangeEvent(entity.getValue(), INSERT, key, null, value);
+    }
+
+    public static ChangeEvent ofUpdate(BString entity, Object key, BMap<?, ?> before, BMap<?, ?> changedFields) {
+        return new ChangeEvent(entity.getValue(), UPDATE, key, before, changedFields);
+    }
+
+    public static ChangeEvent ofDelete(BString entity, Object key) {
+        return new ChangeEvent(entity.getValue(), DELETE, key, null, null);
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    public Object getBefore() {
+        return before;
+    }
+
+    public Object getAfter() {
+        return after;
+    }
+
+    public BMap<BString, Object> toRecord() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("entity", StringUtils.fromString(entity));
+        values.put("operation", StringUtils.fromString(operation));
+        values.put("key", key);
+        values.put("before", before);
+        values.put("after", after);
+        return ValueCreator.createRecordValue(getModule(), CHANGE_EVENT_RECORD, values);
+    }
+
+    static BArray toArray(List<ChangeEvent> events) {
+        if (changeEventArrayType == null) {
+            changeEventArrayType = TypeCreator.createArrayType(
+                    ValueCreator.createRecordValue(getModule(), CHANGE_EVENT_RECORD).getType());
+        }
+        BArray array = ValueCreator.createArrayValue(changeEventArrayType);
+        for (ChangeEvent event : events) {
+            array.append(event.toRecord());
+        }
+        return array;
+    }
+
+    private static Object freeze(Object value) {
+        return value instanceof BRefValue ? ((BRefValue) value).frozenCopy(new HashMap<>()) : value;
+    }
+}
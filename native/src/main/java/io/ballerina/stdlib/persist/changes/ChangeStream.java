@@ -0,0 +1,345 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.transactions.TransactionLocalContext;
+import io.ballerina.runtime.transactions.TransactionResourceManager;
+import io.ballerina.stdlib.persist.DeferredResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getCurrentTransactionContext;
+
+/**
+ * Publishes the changes made by the writes through a persist client to the subscribers of the client, in the order
+ * in which the writes completed. The changes of a record are therefore delivered in order.
+ * <p>
+ * The stream is bounded. A write outside transactions completes once its changes are queued for all the subscribers,
+ * and waits while a subscriber has no space for them, so that slow subscribers hold back the writers instead of
+ * losing changes. The changes made within a transaction are published only when the transaction commits, and are
+ * discarded when it rolls back. As a commit cannot wait, the first write of a transaction waits for space instead,
+ * and the changes of the transaction reserve their space in the queues of the subscribers until the transaction
+ * ends. The reserved changes count towards the capacity of the subscribers, hence the changes waiting to be queued
+ * are bounded by the capacity in both cases. The later writes of a transaction, which already holds a reservation,
+ * do not wait, so that two transactions never wait on each other.
+ *
+ * @since 1.3.0
+ */
+public class ChangeStream {
+
+    private static final String CHANGE_STREAM = "changeStream";
+    private static final String CHANGE_SUBSCRIPTION_CLASS = "ChangeSubscription";
+    private static final BString CAPACITY = fromString("capacity");
+
+    private final int capacity;
+    private final String connectorId;
+    private final List<ChangeSubscription> subscriptions = new ArrayList<>();
+    private final Deque<PendingChanges> blockedChanges = new ArrayDeque<>();
+
+    private ChangeStream(int capacity) {
+        this.capacity = capacity;
+        this.connectorId = "persist-change-stream-" + System.identityHashCode(this);
+    }
+
+    public static synchronized Object attachChangeStream(BObject client, BMap<BString, Object> config) {
+        if (getChangeStream(client) != null) {
+            return getBasicPersistError("A change stream is already attached to the client.");
+        }
+        long capacity = config.getIntValue(CAPACITY);
+        if (capacity <= 0) {
+            return getBasicPersistError("The capacity of a change stream should be positive.");
+        }
+        client.addNativeData(CHANGE_STREAM, new ChangeStream((int) Math.min(capacity, Integer.MAX_VALUE)));
+        return null;
+    }
+
+    public static synchronized void detachChangeStream(BObject client) {
+        ChangeStream changeStream = getChangeStream(client);
+        if (changeStream != null) {
+            client.addNativeData(CHANGE_STREAM, null);
+            changeStream.close();
+        }
+    }
+
+    public static Object subscribeChanges(BObject client, BArray entities) {
+        ChangeStream changeStream = getChangeStream(client);
+        if (changeStream == null) {
+            return getBasicPersistError("A change stream is not attached to the client.");
+        }
+        Set<String> entityFilter = new HashSet<>(Arrays.asList(entities.getStringArray()));
+        ChangeSubscription subscription = new ChangeSubscription(changeStream, entityFilter);
+        synchronized (changeStream) {
+            changeStream.subscriptions.add(subscription);
+        }
+        BObject subscriptionObject = ValueCreator.createObjectValue(getModule(), CHANGE_SUBSCRIPTION_CLASS);
+        subscriptionObject.addNativeData(ChangeSubscription.CHANGE_SUBSCRIPTION, subscription);
+        return subscriptionObject;
+    }
+
+    public static ChangeStream getChangeStream(BObject client) {
+        Object changeStream = client.getNativeData(CHANGE_STREAM);
+        return changeStream instanceof ChangeStream ? (ChangeStream) changeStream : null;
+    }
+
+    /**
+     * Returns a result mapper, which publishes the changes of a write once it succeeds. The mapper must be created on
+     * the strand of the write, so that the changes made within a transaction are bound to the transaction. It
+     * returns a {@link DeferredResult} while a subscriber has no space for the changes.
+     *
+     * @param client  the persist client
+     * @param changes supplies the changes made by the write
+     * @return the mapper, which returns the result of the write
+     */
+    static Function<Object, Object> capture(BObject client, Supplier<List<ChangeEvent>> changes) {
+        ChangeStream changeStream = getChangeStream(client);
+        if (changeStream == null) {
+            return Function.identity();
+        }
+        TransactionLocalContext trxContext = getCurrentTransactionContext();
+        if (trxContext != null) {
+            TransactionChanges transactionChanges = changeStream.getTransactionChanges(trxContext);
+            return result -> result instanceof BError ? result :
+                    changeStream.reserve(transactionChanges, changes.get(), result);
+        }
+        return result -> result instanceof BError ? result : changeStream.publish(changes.get(), result);
+    }
+
+    /**
+     * Returns a result mapper, which publishes the changes of a write made outside transactions. This can be
+     * created off the strand of the write.
+     *
+     * @param client  the persist client
+     * @param changes supplies the changes made by the write
+     * @return the mapper, which returns the result of the write
+     */
+    static Function<Object, Object> captureOutsideTransaction(BObject client, Supplier<List<ChangeEvent>> changes) {
+        ChangeStream changeStream = getChangeStream(client);
+        if (changeStream == null) {
+            return Function.identity();
+        }
+        return result -> result instanceof BError ? result : changeStream.publish(changes.get(), result);
+    }
+
+    /**
+     * Queues changes which are committed by a transaction. They fit into the space reserved by the transaction, and
+     * wait only behind the changes of the writes which completed before the commit.
+     *
+     * @param transactionChanges the changes of the transaction
+     * @param changes            the committed changes
+     */
+    void publishCommitted(TransactionChanges transactionChanges, List<ChangeEvent> changes) {
+        List<Runnable> completions = new ArrayList<>();
+        synchronized (this) {
+            if (blockedChanges.isEmpty()) {
+                enqueue(changes);
+                release(transactionChanges);
+            } else {
+                blockedChanges.add(new PendingChanges(changes, null, transactionChanges, true));
+            }
+            drain(completions);
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    /**
+     * Releases the space reserved by a transaction which rolled back.
+     *
+     * @param transactionChanges the changes of the transaction
+     */
+    void releaseRolledBack(TransactionChanges transactionChanges) {
+        List<Runnable> completions = new ArrayList<>();
+        synchronized (this) {
+            release(transactionChanges);
+            drain(completions);
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    synchronized void unsubscribe(ChangeSubscription subscription, List<Runnable> completions) {
+        subscriptions.remove(subscription);
+        drain(completions);
+    }
+
+    /**
+     * Hands the queued changes to the pending reads of the subscribers, and queues the blocked changes which fit
+     * into the space freed by the reads. The completions are run by the caller after releasing the lock.
+     *
+     * @param completions the list to add the completions to
+     */
+    synchronized void drain(List<Runnable> completions) {
+        boolean progressed = true;
+        while (progressed) {
+            progressed = false;
+            for (ChangeSubscription subscription : subscriptions) {
+                Runnable completion = subscription.completePendingRead();
+                if (completion != null) {
+                    completions.add(completion);
+                    progressed = true;
+                }
+            }
+            while (!blockedChanges.isEmpty() &&
+                    (blockedChanges.peek().committed || hasSpace(blockedChanges.peek().changes))) {
+                PendingChanges pendingChanges = blockedChanges.poll();
+                if (pendingChanges.committed) {
+                    // The committed changes fit into the space reserved by their transaction
+                    enqueue(pendingChanges.changes);
+                    release(pendingChanges.transactionChanges);
+                } else if (pendingChanges.transactionChanges != null) {
+                    reserve(pendingChanges.transactionChanges, pendingChanges.changes);
+                } else {
+                    enqueue(pendingChanges.changes);
+                }
+                if (pendingChanges.result != null) {
+                    completions.add(pendingChanges.result::release);
+                }
+                progressed = true;
+            }
+        }
+    }
+
+    private Object publish(List<ChangeEvent> changes, Object result) {
+        List<Runnable> completions = new ArrayList<>();
+        Object publishResult = result;
+        synchronized (this) {
+            // Changes are not queued ahead of blocked changes, so that they are delivered in the order of the writes
+            if (blockedChanges.isEmpty() && hasSpace(changes)) {
+                enqueue(changes);
+            } else {
+                DeferredResult deferredResult = new DeferredResult(result);
+                blockedChanges.add(new PendingChanges(changes, deferredResult, null, false));
+                publishResult = deferredResult;
+            }
+            drain(completions);
+        }
+        completions.forEach(Runnable::run);
+        return publishResult;
+    }
+
+    private Object reserve(TransactionChanges transactionChanges, List<ChangeEvent> changes, Object result) {
+        Object reserveResult = result;
+        synchronized (this) {
+            // A transaction holding a reservation does not wait, as it may hold the space another one waits for
+            if (transactionChanges.hasReservation() || blockedChanges.isEmpty() && hasSpace(changes)) {
+                reserve(transactionChanges, changes);
+            } else {
+                DeferredResult deferredResult = new DeferredResult(result);
+                blockedChanges.add(new PendingChanges(changes, deferredResult, transactionChanges, false));
+                reserveResult = deferredResult;
+            }
+        }
+        return reserveResult;
+    }
+
+    private void reserve(TransactionChanges transactionChanges, List<ChangeEvent> changes) {
+        for (ChangeSubscription subscription : subscriptions) {
+            int count = subscription.countAccepted(changes);
+            subscription.reserve(count);
+            transactionChanges.addReservation(subscription, count);
+        }
+        transactionChanges.addAll(changes);
+    }
+
+    private void release(TransactionChanges transactionChanges) {
+        for (Map.Entry<ChangeSubscription, Integer> reservation : transactionChanges.takeReservations().entrySet()) {
+            reservation.getKey().reserve(-reservation.getValue());
+        }
+    }
+
+    private synchronized TransactionChanges getTransactionChanges(TransactionLocalContext trxContext) {
+        if (trxContext.hasTransactionContext(connectorId)) {
+            return (TransactionChanges) trxContext.getTransactionContext(connectorId);
+        }
+        TransactionChanges transactionChanges = new TransactionChanges(this);
+        trxContext.registerTransactionContext(connectorId, transactionChanges);
+        TransactionResourceManager.getInstance().register(trxContext.getGlobalTransactionId(),
+                trxContext.getCurrentTransactionBlockId(), transactionChanges);
+        return transactionChanges;
+    }
+
+    private boolean hasSpace(List<ChangeEvent> changes) {
+        // The changes of a write larger than the capacity are accepted by an empty queue without reservations
+        for (ChangeSubscription subscription : subscriptions) {
+            int size = subscription.size() + subscription.reserved();
+            if (size > 0 && size + subscription.countAccepted(changes) > capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void enqueue(List<ChangeEvent> changes) {
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.enqueue(changes);
+        }
+    }
+
+    private void close() {
+        List<Runnable> completions = new ArrayList<>();
+        synchronized (this) {
+            for (ChangeSubscription subscription : subscriptions) {
+                completions.add(subscription.closeSubscription());
+            }
+            subscriptions.clear();
+            // The writes waiting for space are released, as their changes can no longer be delivered
+            for (PendingChanges pendingChanges : blockedChanges) {
+                if (pendingChanges.transactionChanges != null && !pendingChanges.committed) {
+                    pendingChanges.transactionChanges.addAll(pendingChanges.changes);
+                }
+                if (pendingChanges.result != null) {
+                    completions.add(pendingChanges.result::release);
+                }
+            }
+            blockedChanges.clear();
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    private static class PendingChanges {
+        private final List<ChangeEvent> changes;
+        private final DeferredResult result;
+        private final TransactionChanges transactionChanges;
+        private final boolean committed;
+
+        PendingChanges(List<ChangeEvent> changes, DeferredResult result, TransactionChanges transactionChanges,
+                       boolean committed) {
+            this.changes = changes;
+            this.result = result;
+            this.transactionChanges = transactionChanges;
+            this.committed = committed;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+
+/**
+ * A subscriber of a {@link ChangeStream}, which reads the changes in batches. A read returns the queued changes at
+ * once, or waits for the next changes until its timeout. The queue of the subscription, and the space reserved in it
+ * by the open transactions, are guarded by the lock of its stream. Closing the subscription completes a pending
+ * read with no changes, as a read is pending only while the queue is empty, and discards the changes not read yet.
+ *
+ * @since 1.3.0
+ */
+public class ChangeSubscription {
+
+    static final String CHANGE_SUBSCRIPTION = "changeSubscription";
+    private static final ScheduledExecutorService TIMEOUT_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "persist-change-stream");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final ChangeStream changeStream;
+    private final Set<String> entities;
+    private final Deque<ChangeEvent> queue = new ArrayDeque<>();
+    private int reserved = 0;
+    private PendingRead pendingRead;
+    private boolean closed = false;
+
+    ChangeSubscription(ChangeStream changeStream, Set<String> entities) {
+        this.changeStream = changeStream;
+        this.entities = entities;
+    }
+
+    public static Object poll(Environment env, BObject subscription, long maxEvents, BDecimal timeout) {
+        // This method will return `persist:ChangeEvent[]|persist:Error`
+        ChangeSubscription changeSubscription = (ChangeSubscription) subscription.getNativeData(CHANGE_SUBSCRIPTION);
+        int batchSize = (int) Math.min(Math.max(maxEvents, 1), Integer.MAX_VALUE);
+        long timeoutMillis = timeout.decimalValue().multiply(BigDecimal.valueOf(1000)).longValue();
+        List<Runnable> completions = new ArrayList<>();
+        Object result;
+        synchronized (changeSubscription.changeStream) {
+            if (changeSubscription.closed) {
+                return getBasicPersistError("The change subscription is closed.");
+            }
+            if (changeSubscription.pendingRead != null) {
+                return getBasicPersistError("A read of the change subscription is already pending.");
+            }
+            if (!changeSubscription.queue.isEmpty() || timeoutMillis <= 0) {
+                result = ChangeEvent.toArray(changeSubscription.take(batchSize));
+                // Reading the changes makes space for the writes waiting on this subscriber
+                changeSubscription.changeStream.drain(completions);
+            } else {
+                PendingRead read = new PendingRead(env.markAsync(), batchSize);
+                changeSubscription.pendingRead = read;
+                TIMEOUT_EXECUTOR.schedule(() -> changeSubscription.expire(read), timeoutMillis,
+                        TimeUnit.MILLISECONDS);
+                result = null;
+            }
+        }
+        completions.forEach(Runnable::run);
+        return result;
+    }
+
+    public static void close(BObject subscription) {
+        ChangeSubscription changeSubscription = (ChangeSubscription) subscription.getNativeData(CHANGE_SUBSCRIPTION);
+        List<Runnable> completions = new ArrayList<>();
+        synchronized (changeSubscription.changeStream) {
+            completions.add(changeSubscription.closeSubscription());
+            changeSubscription.changeStream.unsubscribe(changeSubscription, completions);
+        }
+        completions.forEach(Runnable::run);
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    int reserved() {
+        return reserved;
+    }
+
+    void reserve(int count) {
+        reserved += count;
+    }
+
+    int countAccepted(List<ChangeEvent> changes) {
+        if (entities.isEmpty()) {
+            return changes.size();
+        }
+        int count = 0;
+        for (ChangeEvent change : changes) {
+            if (entities.contains(change.getEntity())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void enqueue(List<ChangeEvent> changes) {
+        for (ChangeEvent change : changes) {
+            if (entities.isEmpty() || entities.contains(change.getEntity())) {
+                queue.add(change);
+            }
+        }
+    }
+
+    /**
+     * Takes a batch of the queued changes for the pending read, if any.
+     *
+     * @return the completion of the read, or `null` if there is no read to complete
+     */
+    Runnable completePendingRead() {
+        if (pendingRead == null || queue.isEmpty()) {
+            return null;
+        }
+        PendingRead read = pendingRead;
+        pendingRead = null;
+        List<ChangeEvent> batch = take(read.batchSize);
+        return () -> read.future.complete(ChangeEvent.toArray(batch));
+    }
+
+    Runnable closeSubscription() {
+        closed = true;
+        queue.clear();
+        PendingRead read = pendingRead;
+        pendingRead = null;
+        if (read == null) {
+            return () -> { };
+        }
+        return () -> read.future.complete(ChangeEvent.toArray(Collections.emptyList()));
+    }
+
+    private List<ChangeEvent> take(int batchSize) {
+        List<ChangeEvent> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+        while (batch.size() < batchSize && !queue.isEmpty()) {
+            batch.add(queue.poll());
+        }
+        return batch;
+    }
+
+    private void expire(PendingRead read) {
+        synchronized (changeStream) {
+            if (pendingRead != read) {
+                return;
+            }
+            pendingRead = null;
+        }
+        read.future.complete(ChangeEvent.toArray(Collections.emptyList()));
+    }
+
+    private static class PendingRead {
+        private final Future future;
+        private final int batchSize;
+
+        PendingRead(Future future, int batchSize) {
+            this.future = future;
+            this.batchSize = batchSize;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.api.Environment;
+import io.ballerina.runtime.api.Future;
+import io.ballerina.runtime.api.PredefinedTypes;
+import io.ballerina.runtime.api.creators.TypeCreator;
+import io.ballerina.runtime.api.creators.ValueCreator;
+import io.ballerina.runtime.api.types.ArrayType;
+import io.ballerina.runtime.api.types.RecordType;
+import io.ballerina.runtime.api.types.UnionType;
+import io.ballerina.runtime.api.utils.StringUtils;
+import io.ballerina.runtime.api.values.BArray;
+import io.ballerina.runtime.api.values.BDecimal;
+import io.ballerina.runtime.api.values.BError;
+import io.ballerina.runtime.api.values.BMap;
+import io.ballerina.runtime.api.values.BObject;
+import io.ballerina.runtime.api.values.BString;
+import io.ballerina.runtime.api.values.BTypedesc;
+import io.ballerina.stdlib.persist.Constants;
+import io.ballerina.stdlib.persist.DeferredResult;
+import io.ballerina.stdlib.persist.PersistClientInvoker;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.ballerina.runtime.api.utils.StringUtils.fromString;
+import static io.ballerina.stdlib.persist.ErrorGenerator.getBasicPersistError;
+import static io.ballerina.stdlib.persist.ModuleUtils.getModule;
+import static io.ballerina.stdlib.persist.Utils.getPersistClient;
+import static io.ballerina.stdlib.persist.Utils.getTransactionContextProperties;
+
+/**
+ * Writes the changes made within transactions through a persist client to an outbox entity of the same datastore,
+ * within the same transactions, so that the changes are recorded if and only if the transactions commit. The changes
+ * are later published by relaying the outbox records, which are claimed in batches and marked as processed with a
+ * single update for each batch.
+ * <p>
+ * Each record has a sequence, which increases with every record recorded by the process, so that the records of a
+ * key written within the same millisecond, such as by the same transaction, are still ordered. A relay claims the
+ * records it publishes with a lease, so that the relays running at once do not publish the same records, and the
+ * records of a relay which fails are claimed again once its lease expires. The claimed records are relayed in
+ * parallel lanes in the order of their sequence. The records of a key are always assigned to the same lane, and a
+ * lane publishes its batches one after the other, so that the changes of a key are published in order.
+ * <p>
+ * The order of the changes of a key is only kept within a relay. Only one relay may run at a time, as two relays,
+ * in the same process or on different nodes, may claim the records of the same key once a lease expires and publish
+ * them out of order. The sequence is generated by each process from its clock, hence the changes of a key made
+ * through the clients of different nodes are only ordered as far as their clocks agree.
+ *
+ * @since 1.3.0
+ */
+public class Outbox {
+
+    private static final String OUTBOX = "outbox";
+    private static final String OUTBOX_MESSAGE_RECORD = "OutboxMessage";
+    private static final BString BATCH_SIZE = fromString("batchSize");
+    private static final BString PARALLELISM = fromString("parallelism");
+    private static final BString LEASE_TIME = fromString("leaseTime");
+    private static final BString ID = fromString("id");
+    private static final BString ENTITY = fromString("entity");
+    private static final BString OPERATION = fromString("operation");
+    private static final BString KEY = fromString("key");
+    private static final BString PAYLOAD = fromString("payload");
+    private static final BString CREATED_AT = fromString("createdAt");
+    private static final BString SEQUENCE = fromString("sequence");
+    private static final BString PROCESSED = fromString("processed");
+    private static final BString LEASED_UNTIL = fromString("leasedUntil");
+    private static final BString BEFORE = fromString("before");
+    private static final BString AFTER = fromString("after");
+    private static final UnionType OPTIONAL_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_ANYDATA, PredefinedTypes.TYPE_ERROR);
+    private static final UnionType MARK_RESULT_TYPE =
+            TypeCreator.createUnionType(PredefinedTypes.TYPE_INT, PredefinedTypes.TYPE_ERROR);
+
+    private final BObject outboxPersistClient;
+    private final String outboxEntity;
+    private final RecordType outboxType;
+    private static final AtomicLong LAST_SEQUENCE = new AtomicLong();
+
+    private final int batchSize;
+    private final int parallelism;
+    private final long leaseMillis;
+
+    private Outbox(BObject outboxPersistClient, String outboxEntity, RecordType outboxType, int batchSize,
+                   int parallelism, long leaseMillis) {
+        this.outboxPersistClient = outboxPersistClient;
+        this.outboxEntity = outboxEntity;
+        this.outboxType = outboxType;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.leaseMillis = leaseMillis;
+    }
+
+    public static Object configureOutbox(BObject client, BString outboxEntity, BTypedesc outboxType,
+                                         BMap<BString, Object> config) {
+        BObject outboxPersistClient = getPersistClient(client, outboxEntity);
+        if (outboxPersistClient == null) {
+            return getBasicPersistError(
+                    String.format("The entity '%s' does not exist in the client.", outboxEntity));
+        }
+        long batchSize = config.getIntValue(BATCH_SIZE);
+        long parallelism = config.getIntValue(PARALLELISM);
+        long leaseMillis = ((BDecimal) config.get(LEASE_TIME)).decimalValue().multiply(BigDecimal.valueOf(1000))
+                .longValue();
+        if (batchSize <= 0 || parallelism <= 0 || leaseMillis <= 0) {
+            return getBasicPersistError("The batch size, the parallelism and the lease time of an outbox should be " +
+                    "positive.");
+        }
+        client.addNativeData(OUTBOX, new Outbox(outboxPersistClient, outboxEntity.getValue(),
+                (RecordType) outboxType.getDescribingType(),
+                (int) Math.min(batchSize, Integer.MAX_VALUE), (int) Math.min(parallelism, Integer.MAX_VALUE),
+                leaseMillis));
+        return null;
+    }
+
+    public static Object readOutbox(Environment env, BObject client) {
+        // This method will return `persist:OutboxMessage[][][]|persist:Error`
+        Outbox outbox = getOutbox(client);
+        if (outbox == null) {
+            return getBasicPersistError("An outbox is not configured for the client.");
+        }
+        // The records are claimed until the lease expires, so that another relay does not publish them meanwhile
+        long now = System.currentTimeMillis();
+        Future future = env.markAsync();
+        PersistClientInvoker.invokeAsync(env, null, outbox.outboxPersistClient,
+                Constants.RUN_CLAIM_OUTBOX_QUERY_METHOD,
+                TypeCreator.createUnionType(TypeCreator.createArrayType(outbox.outboxType),
+                        PredefinedTypes.TYPE_ERROR),
+                result -> future.complete(result instanceof BError ? result : outbox.toLanes((BArray) result)),
+                (long) outbox.batchSize * outbox.parallelism, now, now + outbox.leaseMillis);
+        return null;
+    }
+
+    public static Object markOutboxProcessed(Environment env, BObject client, BArray ids) {
+        // This method will return `persist:Error?`
+        Outbox outbox = getOutbox(client);
+        if (outbox == null) {
+            return getBasicPersistError("An outbox is not configured for the client.");
+        }
+        if (ids.size() == 0) {
+            return null;
+        }
+        // The records of a batch are marked with a single update, rather than an update for each record
+        return PersistClientInvoker.invoke(env, outbox.outboxPersistClient, Constants.RUN_MARK_OUTBOX_QUERY_METHOD,
+                MARK_RESULT_TYPE, result -> result instanceof BError ? result : null, ids);
+    }
+
+    static Outbox getOutbox(BObject client) {
+        Object outbox = client.getNativeData(OUTBOX);
+        return outbox instanceof Outbox ? (Outbox) outbox : null;
+    }
+
+    /**
+     * Returns a result mapper, which inserts the outbox records of the changes of a write within the transaction of
+     * the write, once the write succeeds. The mapper must be created on the strand of the write. Writes outside
+     * transactions, and the writes of the outbox entity, are not recorded.
+     *
+     * @param env     the environment of the calling strand
+     * @param changes supplies the changes made by the write
+     * @return the mapper, which returns the result of the write or the error of the insert
+     */
+    Function<Object, Object> capture(Environment env, Supplier<List<ChangeEvent>> changes) {
+        Map<String, Object> trxContextProperties = getTransactionContextProperties();
+        if (trxContextProperties == null) {
+            return Function.identity();
+        }
+        return result -> {
+            if (result instanceof BError) {
+                return result;
+            }
+            BArray outboxRecords = createOutboxRecords(changes.get());
+            if (outboxRecords.size() == 0) {
+                return result;
+            }
+            DeferredResult deferredResult = new DeferredResult();
+            PersistClientInvoker.invokeAsync(env, trxContextProperties, outboxPersistClient,
+                    Constants.RUN_BATCH_INSERT_QUERY_METHOD, OPTIONAL_RESULT_TYPE,
+                    insertResult -> deferredResult.release(insertResult instanceof BError ? insertResult : result),
+                    outboxRecords);
+            return deferredResult;
+        };
+    }
+
+    private BArray createOutboxRecords(List<ChangeEvent> changes) {
+        BArray outboxRecords = ValueCreator.createArrayValue(TypeCreator.createArrayType(outboxType));
+        long createdAt = System.currentTimeMillis();
+        for (ChangeEvent change : changes) {
+            if (change.getEntity().equals(outboxEntity)) {
+                continue;
+            }
+            // The sequence follows the clock in microseconds, and increases even if the clock does not
+            long sequence = LAST_SEQUENCE.updateAndGet(last -> Math.max(last + 1, createdAt * 1000));
+            BMap<BString, Object> payload =
+                    ValueCreator.createMapValue(TypeCreator.createMapType(PredefinedTypes.TYPE_ANYDATA));
+            payload.put(BEFORE, change.getBefore());
+            payload.put(AFTER, change.getAfter());
+            Map<String, Object> values = new HashMap<>();
+            values.put(ID.getValue(), fromString(UUID.randomUUID().toString()));
+            values.put(ENTITY.getValue(), fromString(change.getEntity()));
+            values.put(OPERATION.getValue(), fromString(change.getOperation()));
+            values.put(KEY.getValue(), fromString(StringUtils.getJsonString(change.getKey())));
+            values.put(PAYLOAD.getValue(), fromString(StringUtils.getJsonString(payload)));
+            values.put(CREATED_AT.getValue(), createdAt);
+            values.put(SEQUENCE.getValue(), sequence);
+            values.put(PROCESSED.getValue(), false);
+            values.put(LEASED_UNTIL.getValue(), 0L);
+            outboxRecords.append(ValueCreator.createRecordValue(outboxType.getPackage(), outboxType.getName(),
+                    values));
+        }
+        return outboxRecords;
+    }
+
+    private BArray toLanes(BArray outboxRecords) {
+        List<List<BMap<BString, Object>>> lanes = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        RecordType messageType = (RecordType) ValueCreator.createRecordValue(getModule(), OUTBOX_MESSAGE_RECORD)
+                .getType();
+        List<BMap<BString, Object>> sortedRecords = new ArrayList<>(outboxRecords.size());
+        for (int i = 0; i < outboxRecords.size(); i++) {
+            @SuppressWarnings("unchecked")
+            BMap<BString, Object> outboxRecord = (BMap<BString, Object>) outboxRecords.get(i);
+            sortedRecords.add(outboxRecord);
+        }
+        // The lanes publish the records in the order of their sequence, whatever the order of the claimed records
+        sortedRecords.sort(Comparator.comparingLong(outboxRecord -> (Long) outboxRecord.get(SEQUENCE)));
+        for (BMap<BString, Object> outboxRecord : sortedRecords) {
+            Map<String, Object> values = new HashMap<>();
+            values.put(ID.getValue(), outboxRecord.get(ID));
+            values.put(ENTITY.getValue(), outboxRecord.get(ENTITY));
+            values.put(OPERATION.getValue(), outboxRecord.get(OPERATION));
+            values.put(KEY.getValue(), outboxRecord.get(KEY));
+            values.put(PAYLOAD.getValue(), outboxRecord.get(PAYLOAD));
+            values.put(CREATED_AT.getValue(), outboxRecord.get(CREATED_AT));
+            values.put(SEQUENCE.getValue(), outboxRecord.get(SEQUENCE));
+            String laneKey = outboxRecord.get(ENTITY) + ":" + outboxRecord.get(KEY);
+            lanes.get(Math.floorMod(laneKey.hashCode(), parallelism))
+                    .add(ValueCreator.createRecordValue(getModule(), OUTBOX_MESSAGE_RECORD, values));
+        }
+
+        ArrayType batchType = TypeCreator.createArrayType(messageType);
+        ArrayType laneType = TypeCreator.createArrayType(batchType);
+        BArray laneArray = ValueCreator.createArrayValue(TypeCreator.createArrayType(laneType));
+        for (List<BMap<BString, Object>> lane : lanes) {
+            if (lane.isEmpty()) {
+                continue;
+            }
+            BArray batches = ValueCreator.createArrayValue(laneType);
+            for (int from = 0; from < lane.size(); from += batchSize) {
+                BArray batch = ValueCreator.createArrayValue(batchType);
+                lane.subList(from, Math.min(from + batchSize, lane.size())).forEach(batch::append);
+                batches.append(batch);
+            }
+            laneArray.append(batches);
+        }
+        return laneArray;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *  Copyright (c) 2024, WSO2 LLC. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 LLC. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package io.ballerina.stdlib.persist.changes;
+
+import io.ballerina.runtime.transactions.BallerinaTransactionContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.transaction.xa.XAResource;
+
+/**
+ * The changes made within a transaction through a persist client with a {@link ChangeStream}. This takes part in
+ * the transaction as a resource, so that the changes are published when the transaction commits and are discarded
+ * when it rolls back. It also holds the space reserved for the changes in the queues of the subscribers until the
+ * transaction ends.
+ *
+ * @since 1.3.0
+ */
+class TransactionChanges implements BallerinaTransactionContext {
+
+    private final ChangeStream changeStream;
+    private final List<ChangeEvent> changes = new ArrayList<>();
+    private final Map<ChangeSubscription, Integer> reservations = new HashMap<>();
+
+    TransactionChanges(ChangeStream changeStream) {
+        this.changeStream = changeStream;
+    }
+
+    synchronized void addAll(List<ChangeEvent> writeChanges) {
+        changes.addAll(writeChanges);
+    }
+
+    synchronized void addReservation(ChangeSubscription subscription, int count) {
+        reservations.merge(subscription, count, Integer::sum);
+    }
+
+    synchronized boolean hasReservation() {
+        return !reservations.isEmpty();
+    }
+
+    synchronized Map<ChangeSubscription, Integer> takeReservations() {
+        Map<ChangeSubscription, Integer> takenReservations = new HashMap<>(reservations);
+        reservations.clear();
+        return takenReservations;
+    }
+
+    @Override
+    public void commit() {
+        List<ChangeEvent> committedChanges;
+        synchronized (this) {
+            committedChanges = new ArrayList<>(changes);
+            changes.clear();
+        }
+        changeStream.publishCommitted(this, committedChanges);
+    }
+
+    @Override
+    public void rollback() {
+        synchronized (this) {
+            changes.clear();
+        }
+        changeStream.releaseRolledBack(this);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public XAResource getXAResource() {
+        return null;
+    }
+}
@@ -19,6 +19,9 @@
 module io.ballerina.stdlib.persist {
     requires io.ballerina.runtime;
     requires io.ballerina.lang;
+    requires java.transaction.xa;
     exports io.ballerina.stdlib.persist;
     exports io.ballerina.stdlib.persist.plural;
+    exports io.ballerina.stdlib.persist.cache;
+    exports io.ballerina.stdlib.persist.changes;
 }